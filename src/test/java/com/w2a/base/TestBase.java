@@ -1,21 +1,27 @@
 package com.w2a.base;
 
+import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.time.Duration;
 import java.util.Properties;
 
+import com.w2a.utilities.BrowserProfile;
+import com.w2a.utilities.DriverBinaries;
 import com.w2a.utilities.ExcelReader;
-import io.github.bonigarcia.wdm.WebDriverManager;
+import com.w2a.utilities.LocatorRegistry;
+import com.w2a.utilities.SmartWait;
+import com.w2a.utilities.TestDataSources;
+import com.w2a.utilities.WebDriverPool;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.openqa.selenium.By;
-import org.openqa.selenium.NoSuchElementException;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.chrome.ChromeDriver;
 import org.openqa.selenium.safari.SafariDriver;
 import org.openqa.selenium.support.ui.WebDriverWait;
+import org.testng.ITestContext;
 import org.testng.Reporter;
 import org.testng.annotations.AfterSuite;
 import org.testng.annotations.BeforeSuite;
@@ -35,22 +41,38 @@ public class TestBase {
 
 	// ThreadLocal WebDriver for parallel execution
 	private static final ThreadLocal<WebDriver> driverThreadLocal = new ThreadLocal<>();
-	private static final ThreadLocal<WebDriverWait> waitThreadLocal = new ThreadLocal<>();
+	private static final ThreadLocal<SmartWait> waitThreadLocal = new ThreadLocal<>();
+	// sessions reused across methods (driver.pool=true); null while a fresh driver is started per method
+	private static volatile WebDriverPool driverPool;
 	
 	// Static properties (shared across threads)
     public static Properties config = new Properties();
-    public static Properties OR = new Properties();
+    public static Properties OR = new LocatorRegistry.LocatorProperties();
+    // OR.properties as By instances, built and validated in setUp
+    private static volatile LocatorRegistry locators;
     public static FileInputStream fis;
 	public static Logger logger = LogManager.getLogger(TestBase.class);
-	public static ExcelReader excel = new ExcelReader(System.getProperty("user.dir") + "/src/test/resources/excel/testdata.xlsx");
+	public static ExcelReader excel = createExcelReader(System.getProperty("user.dir") + "/src/test/resources/excel/testdata.xlsx");
 	public static String browser;
 	
+	/**
+	 * -Dexcel.mode=dom restores the full XSSFWorkbook load; the default streams sheets read-only and
+	 * restores them from target/excel-cache when the workbook has not changed (-Dexcel.cache=false to skip)
+	 */
+	private static ExcelReader createExcelReader(String path) {
+		boolean streaming = !"dom".equalsIgnoreCase(System.getProperty("excel.mode", "stream"));
+		if (!streaming || !Boolean.parseBoolean(System.getProperty("excel.cache", "true")))
+			return new ExcelReader(path, streaming);
+		File cacheFile = new File(System.getProperty("user.dir"), "target/excel-cache/" + new File(path).getName() + ".bin");
+		return ExcelReader.withBinaryCache(path, cacheFile);
+	}
+
 	// Thread-safe getters
 	public static WebDriver getDriver() {
 		return driverThreadLocal.get();
 	}
 	
-	public static WebDriverWait getWait() {
+	public static SmartWait getWait() {
 		return waitThreadLocal.get();
 	}
 	
@@ -58,16 +80,20 @@ public class TestBase {
 //	public static WebDriver driver = getDriver();
 //	public static WebDriverWait wait = getWait();
 
+	/**
+	 * @return the pool methods borrow their driver from (closed after the suite), or null when driver.pool=false
+	 */
+	public static WebDriverPool getDriverPool() {
+		return driverPool;
+	}
+
 	@BeforeSuite
-	public void setUp() {
+	public void setUp(ITestContext context) {
 		logger.info("Start setup test module");
         try {
             fis = new FileInputStream(System.getProperty("user.dir").concat("/src/test/resources/properties/Config.properties"));
             config.load(fis);
 
-            fis = new FileInputStream(System.getProperty("user.dir").concat("/src/test/resources/properties/OR.properties"));
-            OR.load(fis);
-
             if (System.getenv("browser") != null && !System.getenv("browser").isEmpty()) {
                 browser = System.getenv("browser");
                 System.setProperty("browser", browser);
@@ -75,6 +101,37 @@ public class TestBase {
                 browser = config.getProperty("browser");
             }
 
+            // once, before the prewarm threads all need it
+            logger.info("Using " + resolveDriverBinary());
+
+            if (Boolean.parseBoolean(System.getProperty("driver.pool", config.getProperty("driver.pool", "true")))
+                    && (driverPool == null || driverPool.isClosed())) {
+                // one session per thread that can run a method at the same time
+                int threads = Math.max(context.getSuite().getXmlSuite().getThreadCount(), context.getSuite().getXmlSuite().getDataProviderThreadCount());
+                driverPool = new WebDriverPool(TestBase::createDriver, config.getProperty("testsiteurl"),
+                        Integer.parseInt(config.getProperty("driver.pool.size", String.valueOf(threads))),
+                        Long.parseLong(config.getProperty("driver.pool.borrowTimeoutSeconds", "300")) * 1000);
+                // launch the browsers in the background while the rest of the setup and the data providers run
+                String prewarm = config.getProperty("driver.pool.prewarm", "all").trim();
+                int started = driverPool.prewarm(prewarm.equalsIgnoreCase("all") ? Integer.MAX_VALUE : Integer.parseInt(prewarm));
+                logger.info("Prewarming " + started + " WebDriver sessions");
+            }
+
+            fis = new FileInputStream(System.getProperty("user.dir").concat("/src/test/resources/properties/OR.properties"));
+            OR.load(fis);
+            locators = LocatorRegistry.of(OR);
+
+            if (Boolean.parseBoolean(config.getProperty("excel.writebehind", "false"))) {
+                excel.enableWriteBehind(Integer.parseInt(config.getProperty("excel.flush.maxPending", "500")),
+                        Long.parseLong(config.getProperty("excel.flush.maxAgeSeconds", "30")) * 1000);
+            }
+
+            // long-running/debug sessions: pick up edits to the workbook without restarting
+            if (Boolean.parseBoolean(System.getProperty("excel.hotreload", config.getProperty("excel.hotreload", "false")))) {
+                excel.enableHotReload(Long.parseLong(config.getProperty("excel.hotreload.debounceMillis", "500")));
+            }
+
+
 
         } catch (FileNotFoundException e) {
             e.printStackTrace();
@@ -83,31 +140,41 @@ public class TestBase {
         }
 	}
 	
-	@BeforeMethod
+	@BeforeMethod(alwaysRun = true)
 	public void setUpDriver() {
-		// Initialize WebDriver for current thread
-		WebDriver currentDriver = driverThreadLocal.get();
-		if (currentDriver == null) {
-			currentDriver = createDriver();
-			driverThreadLocal.set(currentDriver);
-			waitThreadLocal.set(new WebDriverWait(currentDriver, Duration.ofSeconds(Integer.parseInt(config.getProperty("explicit.wait")))));
-			
-//			// Update static references for backward compatibility
-//			driver = currentDriver;
-//			wait = waitThreadLocal.get();
-			
-			logger.info("WebDriver initialized for thread: " + Thread.currentThread().getId());
+		// Every invocation (including each row of a parallel data provider) borrows a reset session from
+		// the pool, or gets a fresh driver without one; one left behind on this pooled thread by an
+		// invocation that did not tear down is handed back first
+		if (driverThreadLocal.get() != null) {
+			logger.warn("Closing WebDriver left over on thread: " + Thread.currentThread().getId());
+			tearDownDriver();
 		}
+		WebDriver currentDriver = driverPool != null ? driverPool.borrow() : createDriver();
+		driverThreadLocal.set(currentDriver);
+		waitThreadLocal.set(new SmartWait(currentDriver, Duration.ofSeconds(Integer.parseInt(config.getProperty("explicit.wait"))),
+				Duration.ofMillis(Long.parseLong(config.getProperty("wait.poll.initialMillis", "10"))),
+				Duration.ofMillis(Long.parseLong(config.getProperty("wait.poll.maxMillis", "250")))));
+
+//		// Update static references for backward compatibility
+//		driver = currentDriver;
+//		wait = waitThreadLocal.get();
+
+		logger.info("WebDriver initialized for thread: " + Thread.currentThread().getId());
 	}
 	
-	@AfterMethod
+	@AfterMethod(alwaysRun = true)
 	public void tearDownDriver() {
 		// Clean up WebDriver for current thread
 		WebDriver currentDriver = driverThreadLocal.get();
 		if (currentDriver != null) {
 			try {
-				currentDriver.quit();
-				logger.info("WebDriver closed for thread: " + Thread.currentThread().getId());
+				if (driverPool != null) {
+					driverPool.release(currentDriver);
+					logger.info("WebDriver returned to the pool for thread: " + Thread.currentThread().getId());
+				} else {
+					currentDriver.quit();
+					logger.info("WebDriver closed for thread: " + Thread.currentThread().getId());
+				}
 			} catch (Exception e) {
 				logger.warn("Error closing WebDriver: " + e.getMessage());
 			} finally {
@@ -121,32 +188,63 @@ public class TestBase {
 		}
 	}
 	
-	private WebDriver createDriver() {
+	// also used outside @BeforeMethod, e.g. by data providers that read options from the page
+	protected static WebDriver createDriver() {
 		WebDriver newDriver = null;
+		// Safari has no headless mode, so the profile only applies to Chrome
+		BrowserProfile profile = BrowserProfile.DEBUG;
 		if (browser.equalsIgnoreCase("chrome")) {
-			WebDriverManager.chromedriver().setup();
-			newDriver = new ChromeDriver();
+			resolveDriverBinary();
+			profile = BrowserProfile.of(System.getProperty("browser.profile", config.getProperty("browser.profile", "debug")));
+			newDriver = new ChromeDriver(profile.chromeOptions(config.getProperty("browser.windowSize", "1280,800")));
 		} else if (browser.equalsIgnoreCase("safari")) {
-			WebDriverManager.safaridriver().setup();
+			resolveDriverBinary();
 			newDriver = new SafariDriver();
 		}
 		
 		if (newDriver != null) {
-			newDriver.manage().window().fullscreen();
+			if (profile.isFullscreen())
+				newDriver.manage().window().fullscreen();
 			newDriver.get(config.getProperty("testsiteurl"));
-			newDriver.manage().timeouts().implicitlyWait(Duration.ofSeconds(Integer.parseInt(config.getProperty("implicit.wait"))));
+			// 0 by default: a missing element is reported at once and SmartWait does all the waiting;
+			// an implicit wait would stretch every negative lookup and every poll to its length
+			newDriver.manage().timeouts().implicitlyWait(Duration.ofSeconds(Integer.parseInt(config.getProperty("implicit.wait", "0"))));
 		}
 		
 		return newDriver;
 	}
 
+	/**
+	 * Driver binary for the browser, resolved on the first call only. -Ddriver.offline=true (or
+	 * driver.offline in Config.properties) takes it from driver.cache.dir, default the executables
+	 * folder, without network access; driver.version pins the version found there.
+	 */
+	private static DriverBinaries.Resolution resolveDriverBinary() {
+		boolean offline = Boolean.parseBoolean(System.getProperty("driver.offline", config.getProperty("driver.offline", "false")));
+		File cacheDir = new File(config.getProperty("driver.cache.dir", "src/test/resources/executables"));
+		if (!cacheDir.isAbsolute())
+			cacheDir = new File(System.getProperty("user.dir"), cacheDir.getPath());
+		return DriverBinaries.resolve(browser, offline, cacheDir, config.getProperty("driver.version"));
+	}
+
+	/**
+	 * Locator from OR.properties, the same By instance on every call
+	 * @param locatorKey Key from OR.properties file, e.g. bmlBtn_CSS
+	 * @throws IllegalArgumentException at once for a key OR.properties does not have
+	 */
+	public static By locator(String locatorKey) {
+		if (locators == null)
+			throw new IllegalStateException("OR.properties is not loaded yet; locators are available from @BeforeSuite on");
+		return locators.get(locatorKey);
+	}
+
 	/**
 	 * Utility method to click an element using locator from OR.properties
 	 * @param locatorKey Key from OR.properties file
 	 */
 	public void click(String locatorKey) {
-		// Implementation can be added here if needed
-		// Currently using Page Object Model approach
+		getWait().clickable(locator(locatorKey)).click();
+		logger.info("Clicked on: " + locatorKey);
 	}
 
 	/**
@@ -155,22 +253,17 @@ public class TestBase {
 	 * @param value Text to type
 	 */
 	public void type(String locatorKey, String value) {
-		// Implementation can be added here if needed
-		// Currently using Page Object Model approach
+		getWait().visible(locator(locatorKey)).sendKeys(value);
+		logger.info("Typed in: " + locatorKey + " entered value as: " + value);
 	}
 
+	/**
+	 * @return whether the element is on the page now; does not wait, use getWait().isPresent(by) for that
+	 */
 	public boolean isElementPresent(By by) {
-		try {
-			WebDriver currentDriver = getDriver();
-			if (currentDriver != null) {
-				currentDriver.findElement(by);
-				return true;
-			}
-			return false;
-		} catch (NoSuchElementException e) {
-			logger.error("No such element: ", e);
-			return false;
-		}
+		WebDriver currentDriver = getDriver();
+		// findElements returns an empty list for a missing element instead of throwing
+		return currentDriver != null && !currentDriver.findElements(by).isEmpty();
 	}
 
 	public static void verifyEquals(String expected, String actual) throws IOException {
@@ -254,7 +347,10 @@ public class TestBase {
 		WebDriver currentDriver = driverThreadLocal.get();
 		if (currentDriver != null) {
 			try {
-				currentDriver.quit();
+				if (driverPool != null)
+					driverPool.release(currentDriver);
+				else
+					currentDriver.quit();
                 logger.info("Final cleanup: WebDriver closed for thread: {}", Thread.currentThread().getId());
 			} catch (Exception e) {
                 logger.warn("Error in final cleanup: {}", e.getMessage());
@@ -264,6 +360,29 @@ public class TestBase {
 			}
 		}
 		
+		// Quit the pooled sessions
+		if (driverPool != null) {
+			// kept after closing for the stats CustomListeners adds to the report
+			logger.info("WebDriver pool: {}", driverPool.getStats());
+			driverPool.close();
+		}
+
+		// Where the explicit waits spent their time
+		if (!SmartWait.getTimings().isEmpty()) {
+			logger.info("Time spent waiting, by condition:\n{}", SmartWait.report(20));
+		}
+
+		// Stop watching the workbook before the final write
+		excel.disableHotReload();
+
+		// Commit buffered Excel result writes
+		if (!excel.flush()) {
+			logger.warn("Buffered Excel writes could not be flushed; they will be replayed from the journal on the next run");
+		}
+
+		// Release pooled test data connections
+		TestDataSources.closeAll();
+
 		// Close file streams
 		if (fis != null) {
 			try {
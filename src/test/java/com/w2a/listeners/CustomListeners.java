@@ -8,6 +8,8 @@ import com.w2a.base.TestBase;
 import com.w2a.utilities.ExtentReportManager;
 import com.w2a.utilities.ExtentStepLogger;
 import com.w2a.utilities.ScreenshotUtils;
+import com.w2a.utilities.SheetRowIterator;
+import com.w2a.utilities.SmartWait;
 import com.w2a.utilities.MonitoringMail;
 import com.w2a.utilities.MailRequest;
 import com.w2a.utilities.MailConfig;
@@ -62,6 +64,13 @@ public class CustomListeners extends TestBase implements ITestListener, ISuiteLi
     @Override
     public void onFinish(ISuite suite) {
         if (extent != null) {
+            // session reuse and the launch time prewarming kept off the tests
+            if (TestBase.getDriverPool() != null) {
+                extent.setSystemInfo("WebDriver pool", TestBase.getDriverPool().getStats().toString());
+            }
+            if (!SmartWait.getTimings().isEmpty()) {
+                extent.setSystemInfo("Longest waits", SmartWait.report(5).replace("\n", "<br>"));
+            }
             extent.flush();
         }
         
@@ -85,7 +94,7 @@ public class CustomListeners extends TestBase implements ITestListener, ISuiteLi
     public void onTestStart(ITestResult result) {
         totalTests.incrementAndGet();
         // Get the test from ThreadLocal and log success
-        ExtentTest extentTest = extent.createTest(result.getMethod().getMethodName())
+        ExtentTest extentTest = extent.createTest(testName(result))
                 .assignCategory(result.getTestClass().getRealClass().getSimpleName());
         test.set(extentTest);
         
@@ -95,6 +104,16 @@ public class CustomListeners extends TestBase implements ITestListener, ISuiteLi
         test.get().log(Status.INFO, "Test Started: " + result.getMethod().getMethodName());
     }
 
+    // data-driven invocations share the method name; the parameters tell their rows apart
+    private static String testName(ITestResult result) {
+        String name = result.getMethod().getMethodName();
+        Object[] parameters = result.getParameters();
+        if (parameters == null || parameters.length == 0)
+            return name;
+        String values = Arrays.toString(parameters);
+        return name + " " + (values.length() > 120 ? values.substring(0, 117) + "..." : values);
+    }
+
     @Override
     public void onTestSuccess(ITestResult result) {
         passedTests.incrementAndGet();
@@ -120,7 +139,19 @@ public class CustomListeners extends TestBase implements ITestListener, ISuiteLi
 
     @Override public void onTestFailedButWithinSuccessPercentage(ITestResult result) { }
     @Override public void onStart(ITestContext context) { }
-    @Override public void onFinish(ITestContext context) { }
+
+    // a lazy data provider TestNG stopped reading (skipped or failed configuration) still has its
+    // prefetch thread and, for JDBC, a pooled connection; stop them with the test context
+    @Override
+    public void onFinish(ITestContext context) {
+        int cancelled = 0;
+        for (ITestNGMethod method : context.getAllTestMethods()) {
+            cancelled += SheetRowIterator.cancel(method.getMethodName());
+        }
+        if (cancelled > 0) {
+            TestBase.logInfo(context.getName() + ": stopped " + cancelled + " unfinished data provider prefetch(es)");
+        }
+    }
 
     private void attachScreenshot(ITestResult result, String suffix) {
         try {
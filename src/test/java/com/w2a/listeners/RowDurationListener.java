@@ -0,0 +1,39 @@
+package com.w2a.listeners;
+
+import org.testng.ISuite;
+import org.testng.ISuiteListener;
+import org.testng.ITestListener;
+import org.testng.ITestResult;
+
+import com.w2a.utilities.RowDurations;
+import com.w2a.utilities.RowShardPlanner;
+
+/**
+ * Records how long each invocation took (per data row, or per method without data), so the next run
+ * can balance rows across threads (see RowShardPlanner) and across JVMs (see TestShards).
+ * Skipped invocations are not recorded.
+ */
+public class RowDurationListener implements ITestListener, ISuiteListener {
+
+    @Override
+    public void onTestSuccess(ITestResult result) {
+        record(result);
+    }
+
+    @Override
+    public void onTestFailure(ITestResult result) {
+        record(result);
+    }
+
+    @Override
+    public void onFinish(ISuite suite) {
+        RowDurations.save();
+    }
+
+    private void record(ITestResult result) {
+        Object[] parameters = result.getParameters();
+        String methodName = result.getMethod().getMethodName();
+        String key = parameters == null || parameters.length == 0 ? methodName : RowShardPlanner.rowKey(methodName, parameters);
+        RowDurations.record(key, result.getEndMillis() - result.getStartMillis());
+    }
+}
@@ -0,0 +1,36 @@
+package com.w2a.listeners;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.testng.IMethodInstance;
+import org.testng.IMethodInterceptor;
+import org.testng.ITestContext;
+
+import com.w2a.base.TestBase;
+import com.w2a.utilities.RunmodeIndex;
+
+/**
+ * Drops test methods whose test_suite Runmode is not Y before TestNG schedules them,
+ * so they never get a @BeforeMethod driver. A method is looked up by its name as TCID,
+ * then by its class name; methods not listed in test_suite run as before.
+ */
+public class RunmodeInterceptor implements IMethodInterceptor {
+
+    @Override
+    public List<IMethodInstance> intercept(List<IMethodInstance> methods, ITestContext context) {
+        RunmodeIndex runmodes = RunmodeIndex.of(TestBase.excel);
+        List<IMethodInstance> runnable = new ArrayList<>(methods.size());
+        for (IMethodInstance instance : methods) {
+            String methodName = instance.getMethod().getMethodName();
+            Boolean runmode = runmodes.runmodeOf(methodName);
+            if (runmode == null)
+                runmode = runmodes.runmodeOf(instance.getMethod().getRealClass().getSimpleName());
+            if (runmode == null || runmode)
+                runnable.add(instance);
+            else
+                TestBase.logInfo("Runmode N in " + RunmodeIndex.SUITE_SHEET + ", not running: " + methodName);
+        }
+        return runnable;
+    }
+}
@@ -0,0 +1,81 @@
+package com.w2a.listeners;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.testng.IMethodInstance;
+import org.testng.IMethodInterceptor;
+import org.testng.ISuite;
+import org.testng.ISuiteListener;
+import org.testng.ITestContext;
+import org.testng.ITestListener;
+import org.testng.ITestResult;
+
+import com.w2a.base.TestBase;
+import com.w2a.utilities.RowShardPlanner;
+import com.w2a.utilities.ShardManifest;
+import com.w2a.utilities.TestShards;
+
+/**
+ * Cross-JVM sharding hooks (see TestShards): with -Dshard.by=methods drops the methods another shard
+ * owns, records every result of this shard, and writes the shard manifest when the suite ends.
+ * Does nothing unless -Dshard.count is greater than 1.
+ */
+public class ShardListener implements IMethodInterceptor, ITestListener, ISuiteListener {
+
+    @Override
+    public List<IMethodInstance> intercept(List<IMethodInstance> methods, ITestContext context) {
+        TestShards shards = TestShards.current();
+        if (!shards.isEnabled() || !shards.isByMethods())
+            return methods;
+        List<String> names = new ArrayList<>(methods.size());
+        for (IMethodInstance instance : methods)
+            names.add(qualifiedName(instance));
+        boolean[] mine = shards.selectMethods(names);
+        List<IMethodInstance> kept = new ArrayList<>();
+        for (int i = 0; i < mine.length; i++) {
+            ShardManifest.method(names.get(i), mine[i]);
+            if (mine[i])
+                kept.add(methods.get(i));
+        }
+        TestBase.logInfo("Shard " + shards.getIndex() + "/" + shards.getCount() + " runs " + kept.size() + " of " + methods.size()
+                + " methods in " + context.getName());
+        return kept;
+    }
+
+    @Override
+    public void onTestSuccess(ITestResult result) {
+        record(result, "PASS");
+    }
+
+    @Override
+    public void onTestFailure(ITestResult result) {
+        record(result, "FAIL");
+    }
+
+    @Override
+    public void onTestSkipped(ITestResult result) {
+        record(result, "SKIP");
+    }
+
+    @Override
+    public void onFinish(ISuite suite) {
+        File manifest = ShardManifest.write();
+        if (manifest != null)
+            TestBase.logInfo("Shard manifest written to " + manifest);
+    }
+
+    private void record(ITestResult result, String status) {
+        if (!TestShards.current().isEnabled())
+            return;
+        String methodName = result.getMethod().getMethodName();
+        Object[] parameters = result.getParameters();
+        String key = parameters == null || parameters.length == 0 ? methodName : RowShardPlanner.rowKey(methodName, parameters);
+        ShardManifest.result(methodName, key, status, result.getEndMillis() - result.getStartMillis());
+    }
+
+    private static String qualifiedName(IMethodInstance instance) {
+        return instance.getMethod().getRealClass().getName() + "#" + instance.getMethod().getMethodName();
+    }
+}
@@ -0,0 +1,49 @@
+package com.w2a.rough;
+
+import java.io.File;
+import java.io.IOException;
+
+import com.w2a.utilities.ExcelReader;
+
+/**
+ * Startup cost with and without the binary test-data cache: a cold run parses the workbook
+ * and writes the cache, a warm run maps the cache instead of opening the workbook.
+ *
+ * Usage: BinaryCacheBenchmark [rows] [sheets]
+ */
+public class BinaryCacheBenchmark {
+
+	public static void main(String[] args) throws IOException {
+
+		int rows = args.length > 0 ? Integer.parseInt(args[0]) : 20000;
+		int sheets = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+
+		File workbook = new File(System.getProperty("user.dir"), "target/bench/testdata_" + rows + "x" + sheets + ".xlsx");
+		if (!workbook.exists())
+			ExcelLoadBenchmark.generate(workbook, rows, sheets);
+		File cache = new File(workbook.getPath() + ".bin");
+		cache.delete();
+
+		long start = System.nanoTime();
+		ExcelReader cold = ExcelReader.withBinaryCache(workbook.getPath(), cache);
+		long coldMillis = (System.nanoTime() - start) / 1_000_000;
+
+		start = System.nanoTime();
+		ExcelReader warm = ExcelReader.withBinaryCache(workbook.getPath(), cache);
+		long warmMillis = (System.nanoTime() - start) / 1_000_000;
+
+		// a touched but unchanged workbook is still a hit through the content hash
+		workbook.setLastModified(System.currentTimeMillis());
+		start = System.nanoTime();
+		ExcelReader touched = ExcelReader.withBinaryCache(workbook.getPath(), cache);
+		long touchedMillis = (System.nanoTime() - start) / 1_000_000;
+
+		System.out.println("cache file: " + cache.length() / 1024 + " KB, workbook " + workbook.length() / 1024 + " KB");
+		System.out.println("cold (parse all sheets + write cache): " + coldMillis + " ms");
+		System.out.println("warm (mapped cache)                  : " + warmMillis + " ms");
+		System.out.println("touched mtime (hash check + cache)   : " + touchedMillis + " ms");
+		String last = "Sheet" + (sheets - 1);
+		System.out.println("same data: " + (cold.getCellData(last, "postcode", rows).equals(warm.getCellData(last, "postcode", rows))
+				&& warm.getRowCount(last) == cold.getRowCount(last) && touched.getColumnCount(last) == cold.getColumnCount(last)));
+	}
+}
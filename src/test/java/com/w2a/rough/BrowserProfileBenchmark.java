@@ -0,0 +1,75 @@
+package com.w2a.rough;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.time.Duration;
+import java.util.Properties;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.chrome.ChromeDriver;
+import org.openqa.selenium.support.ui.ExpectedConditions;
+import org.openqa.selenium.support.ui.Select;
+import org.openqa.selenium.support.ui.WebDriverWait;
+
+import com.w2a.utilities.BrowserProfile;
+import com.w2a.utilities.DriverBinaries;
+
+/**
+ * Starts Chrome sessions with each browser.profile the way createDriver does (options, fullscreen for
+ * debug, testsiteurl) and runs the Open Account walk-through on each: bank manager login, open account,
+ * pick the first customer and currency. Prints average session startup and per-test time per profile.
+ * Needs Chrome; takes the driver the same way as the suite (driver.offline etc. from Config.properties).
+ *
+ * Usage: BrowserProfileBenchmark [sessionsPerProfile]
+ */
+public class BrowserProfileBenchmark {
+
+	public static void main(String[] args) throws Exception {
+
+		int sessions = args.length > 0 ? Integer.parseInt(args[0]) : 5;
+		Properties config = new Properties();
+		Properties OR = new Properties();
+		try (FileInputStream fis = new FileInputStream(System.getProperty("user.dir") + "/src/test/resources/properties/Config.properties")) {
+			config.load(fis);
+		}
+		try (FileInputStream fis = new FileInputStream(System.getProperty("user.dir") + "/src/test/resources/properties/OR.properties")) {
+			OR.load(fis);
+		}
+		System.out.println("Using " + DriverBinaries.resolve("chrome", Boolean.parseBoolean(config.getProperty("driver.offline", "false")),
+				new File(System.getProperty("user.dir"), config.getProperty("driver.cache.dir", "src/test/resources/executables")),
+				config.getProperty("driver.version")));
+
+		for (BrowserProfile profile : BrowserProfile.values()) {
+			long startup = 0;
+			long test = 0;
+			// one untimed session first, so disk caches are warm for both profiles
+			for (int s = 0; s <= sessions; s++) {
+				long start = System.nanoTime();
+				WebDriver driver = new ChromeDriver(profile.chromeOptions(config.getProperty("browser.windowSize", "1280,800")));
+				try {
+					if (profile.isFullscreen())
+						driver.manage().window().fullscreen();
+					driver.get(config.getProperty("testsiteurl"));
+					long started = System.nanoTime();
+
+					WebDriverWait wait = new WebDriverWait(driver, Duration.ofSeconds(Integer.parseInt(config.getProperty("explicit.wait"))));
+					wait.until(ExpectedConditions.elementToBeClickable(By.cssSelector(OR.getProperty("bmlBtn_CSS")))).click();
+					wait.until(ExpectedConditions.elementToBeClickable(By.cssSelector(OR.getProperty("openaccount_CSS")))).click();
+					new Select(wait.until(ExpectedConditions.elementToBeClickable(By.cssSelector(OR.getProperty("customer_CSS"))))).selectByIndex(1);
+					new Select(driver.findElement(By.cssSelector(OR.getProperty("currency_CSS")))).selectByIndex(1);
+					long finished = System.nanoTime();
+
+					if (s > 0) {
+						startup += started - start;
+						test += finished - started;
+					}
+				} finally {
+					driver.quit();
+				}
+			}
+			System.out.println(profile + ": session startup " + startup / sessions / 1_000_000 + " ms, test " + test / sessions / 1_000_000
+					+ " ms (average of " + sessions + ")");
+		}
+	}
+}
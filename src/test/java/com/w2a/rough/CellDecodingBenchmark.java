@@ -0,0 +1,190 @@
+package com.w2a.rough;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.time.LocalDate;
+import java.util.Calendar;
+import java.util.Date;
+
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.CellType;
+import org.apache.poi.ss.usermodel.DateUtil;
+import org.apache.poi.ss.usermodel.FormulaEvaluator;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.usermodel.XSSFRow;
+import org.apache.poi.xssf.usermodel.XSSFSheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+
+import com.w2a.utilities.CellDecoder;
+
+/**
+ * Decodes every cell of a date-heavy sheet (three date columns, a date formula, a number) with the
+ * cell formatting ExcelReader used before CellDecoder and with CellDecoder: bytes allocated and time
+ * per cell, for text reads and for reading the dates as LocalDate (legacy: format, then parse the text).
+ * Also counts formula cells the legacy code misread, since it never evaluated them.
+ *
+ * Usage: CellDecodingBenchmark [rows]
+ */
+public class CellDecodingBenchmark {
+
+	public static void main(String[] args) throws Exception {
+
+		int rows = args.length > 0 ? Integer.parseInt(args[0]) : 20000;
+		File file = new File(System.getProperty("user.dir"), "target/bench/dates_" + rows + ".xlsx");
+		if (!file.exists())
+			generate(file, rows);
+
+		try (XSSFWorkbook workbook = new XSSFWorkbook(file)) {
+			XSSFSheet sheet = workbook.getSheetAt(0);
+			int cells = sheet.getLastRowNum() * 5;
+
+			// warm up both paths so the JIT does not skew the measurement
+			for (int i = 0; i < 3; i++) {
+				legacyText(sheet);
+				decoderText(sheet, workbook.getCreationHelper().createFormulaEvaluator());
+				legacyDates(sheet);
+				decoderDates(sheet, workbook.getCreationHelper().createFormulaEvaluator());
+			}
+
+			long before = allocatedBytes();
+			long start = System.nanoTime();
+			legacyText(sheet);
+			report("legacy text     ", cells, allocatedBytes() - before, System.nanoTime() - start);
+
+			FormulaEvaluator evaluator = workbook.getCreationHelper().createFormulaEvaluator();
+			before = allocatedBytes();
+			start = System.nanoTime();
+			decoderText(sheet, evaluator);
+			report("CellDecoder text", cells, allocatedBytes() - before, System.nanoTime() - start);
+
+			int dateCells = sheet.getLastRowNum() * 3;
+			before = allocatedBytes();
+			start = System.nanoTime();
+			legacyDates(sheet);
+			report("legacy dates    ", dateCells, allocatedBytes() - before, System.nanoTime() - start);
+
+			before = allocatedBytes();
+			start = System.nanoTime();
+			decoderDates(sheet, workbook.getCreationHelper().createFormulaEvaluator());
+			report("typed getDate   ", dateCells, allocatedBytes() - before, System.nanoTime() - start);
+
+			// the formula column is the first date + 30 days; legacy read the (missing) cached value
+			int wrong = 0;
+			evaluator = workbook.getCreationHelper().createFormulaEvaluator();
+			for (int r = 1; r <= sheet.getLastRowNum(); r++) {
+				XSSFRow row = sheet.getRow(r);
+				LocalDate expected = CellDecoder.toDate(row.getCell(0), null).plusDays(30);
+				if (!legacyFormat(row.getCell(3)).equals(CellDecoder.DATE_FORMAT.format(expected)))
+					wrong++;
+				if (!CellDecoder.toDate(row.getCell(3), evaluator).equals(expected))
+					throw new IllegalStateException("CellDecoder misread row " + (r + 1));
+			}
+			System.out.println("formula cells misread by legacy code: " + wrong + " of " + sheet.getLastRowNum() + ", by CellDecoder: 0");
+		}
+	}
+
+	private static void report(String label, int cells, long bytes, long nanos) {
+		System.out.println(label + ": " + bytes / cells + " bytes/cell, " + nanos / cells + " ns/cell");
+	}
+
+	private static long legacyText(XSSFSheet sheet) {
+		long length = 0;
+		for (int r = 1; r <= sheet.getLastRowNum(); r++) {
+			XSSFRow row = sheet.getRow(r);
+			for (int c = 0; c < 5; c++)
+				length += legacyFormat(row.getCell(c)).length();
+		}
+		return length;
+	}
+
+	private static long decoderText(XSSFSheet sheet, FormulaEvaluator evaluator) {
+		long length = 0;
+		for (int r = 1; r <= sheet.getLastRowNum(); r++) {
+			XSSFRow row = sheet.getRow(r);
+			for (int c = 0; c < 5; c++)
+				length += CellDecoder.format(row.getCell(c), evaluator).length();
+		}
+		return length;
+	}
+
+	// what a test had to do before typed reads: take the text and parse it back
+	private static long legacyDates(XSSFSheet sheet) throws ParseException {
+		long days = 0;
+		for (int r = 1; r <= sheet.getLastRowNum(); r++) {
+			XSSFRow row = sheet.getRow(r);
+			for (int c = 0; c < 3; c++)
+				days += new SimpleDateFormat("MM/dd/yy").parse(legacyFormat(row.getCell(c))).getTime() / 86_400_000L;
+		}
+		return days;
+	}
+
+	private static long decoderDates(XSSFSheet sheet, FormulaEvaluator evaluator) {
+		long days = 0;
+		for (int r = 1; r <= sheet.getLastRowNum(); r++) {
+			XSSFRow row = sheet.getRow(r);
+			for (int c = 0; c < 3; c++)
+				days += CellDecoder.toDate(row.getCell(c), evaluator).toEpochDay();
+		}
+		return days;
+	}
+
+	// ExcelReader.formatCell before CellDecoder, plus the Calendar the named-column getCellData built
+	private static String legacyFormat(Cell cell) {
+		if (cell == null)
+			return "";
+		if (cell.getCellType() == CellType.STRING)
+			return cell.getStringCellValue();
+		if (cell.getCellType() == CellType.NUMERIC || cell.getCellType() == CellType.FORMULA) {
+			String cellText = String.valueOf(cell.getNumericCellValue());
+			if (DateUtil.isCellDateFormatted(cell)) {
+				Calendar cal = Calendar.getInstance();
+				cal.setTime(DateUtil.getJavaDate(cell.getNumericCellValue()));
+				Date date = cell.getDateCellValue();
+				SimpleDateFormat sdf = new SimpleDateFormat("MM/dd/yy");
+				cellText = sdf.format(date);
+			}
+			return cellText;
+		}
+		if (cell.getCellType() == CellType.BLANK)
+			return "";
+		return String.valueOf(cell.getBooleanCellValue());
+	}
+
+	private static long allocatedBytes() {
+		return ((com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean()).getCurrentThreadAllocatedBytes();
+	}
+
+	private static void generate(File target, int rows) throws IOException {
+		target.getParentFile().mkdirs();
+		try (XSSFWorkbook wb = new XSSFWorkbook(); FileOutputStream out = new FileOutputStream(target)) {
+			Sheet sheet = wb.createSheet("Dates");
+			CellStyle dateStyle = wb.createCellStyle();
+			dateStyle.setDataFormat(wb.getCreationHelper().createDataFormat().getFormat("m/d/yy"));
+			Row header = sheet.createRow(0);
+			String[] columns = { "opened", "dob", "expires", "due", "amount" };
+			for (int c = 0; c < columns.length; c++)
+				header.createCell(c).setCellValue(columns[c]);
+			LocalDate base = LocalDate.of(1990, 1, 1);
+			for (int r = 1; r <= rows; r++) {
+				Row row = sheet.createRow(r);
+				for (int c = 0; c < 3; c++) {
+					Cell cell = row.createCell(c);
+					cell.setCellValue(base.plusDays((r * 7L + c * 365L) % 12000));
+					cell.setCellStyle(dateStyle);
+				}
+				// no cached result is written, as with workbooks saved by tools that skip recalculation
+				Cell due = row.createCell(3);
+				due.setCellFormula("A" + (r + 1) + "+30");
+				due.setCellStyle(dateStyle);
+				row.createCell(4).setCellValue(r * 12.5);
+			}
+			wb.write(out);
+		}
+	}
+}
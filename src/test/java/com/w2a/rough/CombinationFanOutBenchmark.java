@@ -0,0 +1,93 @@
+package com.w2a.rough;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.testng.ITestResult;
+import org.testng.TestListenerAdapter;
+import org.testng.TestNG;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+import org.testng.xml.XmlClass;
+import org.testng.xml.XmlSuite;
+import org.testng.xml.XmlTest;
+
+import com.w2a.base.TestBase;
+import com.w2a.utilities.TestUtil;
+
+/**
+ * Runs the customer x currency combinations the way testAllCustomerCurrencyCombinations now does
+ * (TestUtil.combinationChunks behind a parallel data provider) with a fixed delay standing in for
+ * the browser work, one combination failing: wall clock against the old serial loop for a few chunk
+ * sizes, and how many invocations passed and failed.
+ *
+ * Usage: CombinationFanOutBenchmark [millisPerCombination]
+ */
+public class CombinationFanOutBenchmark {
+
+	static long millisPerCombination = 200;
+
+	public static class Combinations {
+
+		@DataProvider(name = "combinations", parallel = true)
+		public Object[][] combinations(Method m) {
+			Map<String, List<String>> options = new LinkedHashMap<>();
+			options.put("customer", Arrays.asList("Hermoine Granger", "Harry Potter", "Ron Weasly", "Albus Dumbledore", "Neville Longbottom", "Raman Arora"));
+			options.put("currency", Arrays.asList("Dollar", "Pound", "Rupee"));
+			return TestUtil.combinationChunks(m, options);
+		}
+
+		@Test(dataProvider = "combinations")
+		public void testAllCustomerCurrencyCombinations(List<Map<String, String>> combinations) throws InterruptedException {
+			for (Map<String, String> combination : combinations) {
+				Thread.sleep(millisPerCombination);
+				if (combination.equals(failing()))
+					throw new AssertionError("Failed to select currency: Pound");
+			}
+		}
+	}
+
+	public static void main(String[] args) {
+
+		if (args.length > 0)
+			millisPerCombination = Long.parseLong(args[0]);
+		System.out.println("serial loop (before): 18 combinations, " + 18 * millisPerCombination + " ms, stops at the first failure");
+
+		for (String chunkSize : new String[] { "1", "3", "6" }) {
+			TestBase.config.setProperty("combinations.chunkSize", chunkSize);
+			XmlSuite suite = new XmlSuite();
+			suite.setName("fan-out");
+			suite.setDataProviderThreadCount(4);
+			XmlTest test = new XmlTest(suite);
+			test.setName("combinations");
+			test.setXmlClasses(Collections.singletonList(new XmlClass(Combinations.class)));
+
+			TestListenerAdapter results = new TestListenerAdapter();
+			TestNG testng = new TestNG();
+			testng.setXmlSuites(Collections.singletonList(suite));
+			testng.addListener(results);
+			testng.setUseDefaultListeners(false);
+			testng.setVerbose(0);
+			long start = System.nanoTime();
+			testng.run();
+			long millis = (System.nanoTime() - start) / 1_000_000;
+
+			int combinationsRun = 0;
+			for (ITestResult result : results.getPassedTests())
+				combinationsRun += ((List<?>) result.getParameters()[0]).size();
+			System.out.println("chunkSize " + chunkSize + " on 4 threads: " + millis + " ms, " + results.getPassedTests().size()
+					+ " invocations passed (" + combinationsRun + " combinations), " + results.getFailedTests().size() + " failed");
+		}
+	}
+
+	private static Map<String, String> failing() {
+		Map<String, String> combination = new LinkedHashMap<>();
+		combination.put("customer", "Harry Potter");
+		combination.put("currency", "Pound");
+		return combination;
+	}
+}
@@ -0,0 +1,82 @@
+package com.w2a.rough;
+
+import java.io.File;
+import java.lang.management.ManagementFactory;
+import java.util.Hashtable;
+import java.util.Map;
+
+import com.w2a.utilities.ExcelReader;
+import com.w2a.utilities.SheetSnapshot;
+import com.w2a.utilities.TestUtil;
+
+/**
+ * Compares the per-row Hashtable the "dp" provider used to build with the shared-header DataRow
+ * it builds now: bytes allocated by the current thread to build every row of a sheet, and the
+ * time for five get() calls per row, the access pattern of the test bodies.
+ *
+ * Usage: DataRowAllocationBenchmark [rows]
+ */
+public class DataRowAllocationBenchmark {
+
+	private static final String[] KEYS = { "firstname", "lastname", "postcode", "alerttext", "runmode" };
+
+	public static void main(String[] args) throws Exception {
+
+		int rows = args.length > 0 ? Integer.parseInt(args[0]) : 100000;
+		File workbook = new File(System.getProperty("user.dir"), "target/bench/testdata_" + rows + "x1.xlsx");
+		if (!workbook.exists())
+			ExcelLoadBenchmark.generate(workbook, rows, 1);
+
+		ExcelReader reader = new ExcelReader(workbook.getPath(), true);
+		SheetSnapshot sheet = reader.getSnapshot("Sheet0");
+
+		// warm up both paths so the JIT does not skew the first measurement
+		for (int i = 0; i < 3; i++) {
+			hashtables(sheet);
+			TestUtil.getData(reader, "Sheet0");
+		}
+
+		long before = allocatedBytes();
+		Object[][] legacy = hashtables(sheet);
+		long legacyBytes = allocatedBytes() - before;
+
+		before = allocatedBytes();
+		Object[][] compact = TestUtil.getData(reader, "Sheet0");
+		long compactBytes = allocatedBytes() - before;
+
+		System.out.println("Hashtable rows: " + legacyBytes / legacy.length + " bytes/row, lookups " + lookupMillis(legacy) + " ms");
+		System.out.println("DataRow rows:   " + compactBytes / compact.length + " bytes/row, lookups " + lookupMillis(compact) + " ms");
+	}
+
+	// the pre-DataRow body of TestUtil.getData
+	private static Object[][] hashtables(SheetSnapshot sheet) {
+		int rows = sheet.getRowCount();
+		int cols = sheet.getColumnCount();
+		Object[][] data = new Object[rows - 1][1];
+		for (int rowNum = 2; rowNum <= rows; rowNum++) {
+			Hashtable<String, String> table = new Hashtable<String, String>();
+			for (int colNum = 0; colNum < cols; colNum++) {
+				table.put(sheet.getCellData(1, colNum), sheet.getCellData(rowNum, colNum));
+				data[rowNum - 2][0] = table;
+			}
+		}
+		return data;
+	}
+
+	@SuppressWarnings("unchecked")
+	private static long lookupMillis(Object[][] data) {
+		long start = System.nanoTime();
+		int length = 0;
+		for (int pass = 0; pass < 10; pass++)
+			for (Object[] row : data)
+				for (String key : KEYS)
+					length += ((Map<String, String>) row[0]).get(key).length();
+		if (length == 0)
+			System.out.println();
+		return (System.nanoTime() - start) / 1_000_000;
+	}
+
+	private static long allocatedBytes() {
+		return ((com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean()).getCurrentThreadAllocatedBytes();
+	}
+}
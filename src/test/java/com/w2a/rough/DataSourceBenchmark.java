@@ -0,0 +1,92 @@
+package com.w2a.rough;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Iterator;
+import java.util.Map;
+
+import com.w2a.utilities.CsvDataSource;
+import com.w2a.utilities.DataRow;
+import com.w2a.utilities.ExcelDataSource;
+import com.w2a.utilities.ExcelReader;
+import com.w2a.utilities.JsonLinesDataSource;
+import com.w2a.utilities.SheetSnapshot;
+import com.w2a.utilities.TestDataSource;
+
+/**
+ * Rows per second of the three TestDataSource backends over the same generated data:
+ * a fresh streaming ExcelReader (parse included), the CSV file and the JSON-lines file.
+ * The CSV and JSON-lines copies are exported from the workbook into target/bench on first use.
+ *
+ * Usage: DataSourceBenchmark [rows]
+ */
+public class DataSourceBenchmark {
+
+	public static void main(String[] args) throws IOException {
+
+		int rows = args.length > 0 ? Integer.parseInt(args[0]) : 200000;
+		File dir = new File(System.getProperty("user.dir"), "target/bench");
+		File workbook = new File(dir, "testdata_" + rows + "x1.xlsx");
+		if (!workbook.exists())
+			ExcelLoadBenchmark.generate(workbook, rows, 1);
+
+		File exportDir = new File(dir, "sources_" + rows);
+		if (!new File(exportDir, "Sheet0.jsonl").exists())
+			export(new ExcelReader(workbook.getPath(), true).getSnapshot("Sheet0"), exportDir);
+
+		for (int run = 1; run <= 2; run++) {
+			System.out.println("run " + run);
+			measure(new ExcelDataSource(new ExcelReader(workbook.getPath(), true)));
+			measure(new CsvDataSource(exportDir));
+			measure(new JsonLinesDataSource(exportDir));
+		}
+	}
+
+	private static void measure(TestDataSource source) throws IOException {
+		long start = System.nanoTime();
+		Iterator<DataRow> it = source.rows("Sheet0");
+		int count = 0;
+		long chars = 0;
+		while (it.hasNext()) {
+			DataRow row = it.next();
+			chars += row.get("firstname").length() + row.get("runmode").length();
+			count++;
+		}
+		long nanos = System.nanoTime() - start;
+		System.out.printf("  %-6s %d rows in %d ms, %,d rows/s (checksum %d)%n", source.getName(), count,
+				nanos / 1_000_000, count * 1_000_000_000L / Math.max(nanos, 1), chars);
+	}
+
+	private static void export(SheetSnapshot sheet, File exportDir) throws IOException {
+		exportDir.mkdirs();
+		try (BufferedWriter csv = Files.newBufferedWriter(new File(exportDir, "Sheet0.csv").toPath(), StandardCharsets.UTF_8);
+				BufferedWriter jsonl = Files.newBufferedWriter(new File(exportDir, "Sheet0.jsonl").toPath(), StandardCharsets.UTF_8)) {
+			int cols = sheet.getColumnCount();
+			for (int c = 0; c < cols; c++)
+				csv.write((c > 0 ? "," : "") + quote(sheet.getCellData(1, c)));
+			csv.newLine();
+			for (Iterator<DataRow> it = sheet.rows(); it.hasNext();) {
+				DataRow row = it.next();
+				StringBuilder line = new StringBuilder("{");
+				int c = 0;
+				for (Map.Entry<String, String> cell : row.entrySet()) {
+					csv.write((c > 0 ? "," : "") + quote(cell.getValue()));
+					line.append(c++ > 0 ? "," : "").append('"').append(cell.getKey()).append("\":\"")
+							.append(cell.getValue().replace("\\", "\\\\").replace("\"", "\\\"")).append('"');
+				}
+				csv.newLine();
+				jsonl.write(line.append('}').toString());
+				jsonl.newLine();
+			}
+		}
+	}
+
+	private static String quote(String value) {
+		if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0)
+			return value;
+		return '"' + value.replace("\"", "\"\"") + '"';
+	}
+}
@@ -0,0 +1,60 @@
+package com.w2a.rough;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import com.w2a.utilities.DriverBinaries;
+
+import io.github.bonigarcia.wdm.WebDriverManager;
+
+/**
+ * Times DriverBinaries offline against a fake WebDriverManager-style cache under target/bench/drivers
+ * and the memoised second call, then what createDriver used to do for every session,
+ * WebDriverManager.chromedriver().setup(), against resolve() online. The online part needs network
+ * on a cold WebDriverManager cache and is skipped with "offline".
+ *
+ * Usage: DriverResolutionBenchmark [setupCalls] [offline]
+ */
+public class DriverResolutionBenchmark {
+
+	public static void main(String[] args) throws Exception {
+
+		int calls = args.length > 0 ? Integer.parseInt(args[0]) : 3;
+		boolean offlineOnly = args.length > 1 && args[1].equals("offline");
+		String binary = System.getProperty("os.name").toLowerCase().startsWith("windows") ? "chromedriver.exe" : "chromedriver";
+		File cache = new File(System.getProperty("user.dir"), "target/bench/drivers");
+		for (String version : new String[] { "99.0.4844.51", "119.0.6045.105", "120.0.6099.109" }) {
+			Path driver = cache.toPath().resolve("chromedriver/linux64/" + version + "/" + binary);
+			Files.createDirectories(driver.getParent());
+			if (!Files.exists(driver))
+				Files.createFile(driver);
+		}
+
+		System.out.println("offline newest: " + DriverBinaries.resolve("chrome", true, cache, null));
+		System.out.println("offline pinned: " + DriverBinaries.resolve("chrome", true, cache, "99.0.4844.51"));
+		long start = System.nanoTime();
+		DriverBinaries.resolve("chrome", true, cache, "99.0.4844.51");
+		System.out.println("second resolve: " + (System.nanoTime() - start) / 1000 + " us");
+
+		if (offlineOnly)
+			return;
+		for (int i = 1; i <= calls; i++) {
+			start = System.nanoTime();
+			try {
+				WebDriverManager.chromedriver().setup();
+				System.out.println("WebDriverManager.chromedriver().setup() call " + i + ": " + (System.nanoTime() - start) / 1_000_000 + " ms");
+			} catch (RuntimeException e) {
+				// what an air-gapped agent gets for every session without driver.offline
+				System.out.println("WebDriverManager.chromedriver().setup() call " + i + " failed after " + (System.nanoTime() - start) / 1_000_000
+						+ " ms: " + e.getMessage());
+				return;
+			}
+		}
+		for (int i = 1; i <= calls; i++) {
+			start = System.nanoTime();
+			DriverBinaries.Resolution online = DriverBinaries.resolve("chrome", false, cache, null);
+			System.out.println("DriverBinaries.resolve online call " + i + ": " + (System.nanoTime() - start) / 1_000_000 + " ms, " + online);
+		}
+	}
+}
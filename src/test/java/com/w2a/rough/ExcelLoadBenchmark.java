@@ -0,0 +1,80 @@
+package com.w2a.rough;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+
+import com.w2a.utilities.ExcelReader;
+
+/**
+ * Compares the XSSFWorkbook DOM load against the streaming (SAX) load of ExcelReader:
+ * time to first row and retained heap while the reader is alive.
+ *
+ * Usage: ExcelLoadBenchmark [dom|stream|both] [rows] [sheets]
+ * Run one mode per JVM for the cleanest heap numbers.
+ */
+public class ExcelLoadBenchmark {
+
+	public static void main(String[] args) throws IOException {
+
+		String mode = args.length > 0 ? args[0] : "both";
+		int rows = args.length > 1 ? Integer.parseInt(args[1]) : 20000;
+		int sheets = args.length > 2 ? Integer.parseInt(args[2]) : 10;
+
+		File workbook = new File(System.getProperty("user.dir"), "target/bench/testdata_" + rows + "x" + sheets + ".xlsx");
+		if (!workbook.exists())
+			generate(workbook, rows, sheets);
+		System.out.println("Workbook: " + workbook + " (" + workbook.length() / 1024 + " KB)");
+
+		if (!mode.equals("stream"))
+			measure("dom", workbook.getPath(), false);
+		if (!mode.equals("dom"))
+			measure("stream", workbook.getPath(), true);
+	}
+
+	private static void measure(String label, String path, boolean streaming) {
+		long baseline = usedHeap();
+		long start = System.nanoTime();
+		ExcelReader reader = new ExcelReader(path, streaming);
+		String firstCell = reader.getCellData("Sheet0", 2, 0);
+		long firstRowMillis = (System.nanoTime() - start) / 1_000_000;
+		long retained = usedHeap() - baseline;
+
+		System.out.println(label + ": time to first row " + firstRowMillis + " ms, retained heap "
+				+ retained / (1024 * 1024) + " MB, first cell '" + firstCell + "', rows " + reader.getRowCount("Sheet0"));
+	}
+
+	private static long usedHeap() {
+		Runtime runtime = Runtime.getRuntime();
+		for (int i = 0; i < 3; i++)
+			System.gc();
+		return runtime.totalMemory() - runtime.freeMemory();
+	}
+
+	static void generate(File target, int rows, int sheets) throws IOException {
+		target.getParentFile().mkdirs();
+		try (SXSSFWorkbook wb = new SXSSFWorkbook(100); FileOutputStream out = new FileOutputStream(target)) {
+			for (int s = 0; s < sheets; s++) {
+				Sheet sheet = wb.createSheet("Sheet" + s);
+				Row header = sheet.createRow(0);
+				String[] columns = { "firstname", "lastname", "postcode", "alerttext", "runmode" };
+				for (int c = 0; c < columns.length; c++)
+					header.createCell(c).setCellValue(columns[c]);
+				for (int r = 1; r <= rows; r++) {
+					Row row = sheet.createRow(r);
+					row.createCell(0).setCellValue("First" + r);
+					row.createCell(1).setCellValue("Last" + r);
+					row.createCell(2).setCellValue("E" + (10000 + r));
+					row.createCell(3).setCellValue("Customer added successfully");
+					row.createCell(4).setCellValue(r % 5 == 0 ? "N" : "Y");
+				}
+			}
+			wb.write(out);
+			wb.dispose();
+		}
+	}
+}
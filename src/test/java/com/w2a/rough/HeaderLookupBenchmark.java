@@ -0,0 +1,87 @@
+package com.w2a.rough;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+
+import org.apache.poi.xssf.usermodel.XSSFCell;
+import org.apache.poi.xssf.usermodel.XSSFRow;
+import org.apache.poi.xssf.usermodel.XSSFSheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+
+import com.w2a.utilities.ExcelReader;
+
+/**
+ * Compares the old named-column lookup (resolve sheet + scan header row on every call)
+ * with ExcelReader's cached HeaderIndex, reading the "runmode" column of every row
+ * of a 10k-row sheet the way getCellRowNum / isTestRunnable do.
+ *
+ * Usage: HeaderLookupBenchmark [rows] [iterations]
+ */
+public class HeaderLookupBenchmark {
+
+	public static void main(String[] args) throws IOException {
+
+		int rows = args.length > 0 ? Integer.parseInt(args[0]) : 10000;
+		int iterations = args.length > 1 ? Integer.parseInt(args[1]) : 20;
+
+		File file = new File(System.getProperty("user.dir"), "target/bench/testdata_" + rows + "x1.xlsx");
+		if (!file.exists())
+			ExcelLoadBenchmark.generate(file, rows, 1);
+
+		XSSFWorkbook workbook;
+		try (FileInputStream fis = new FileInputStream(file)) {
+			workbook = new XSSFWorkbook(fis);
+		}
+		ExcelReader reader = new ExcelReader(file.getPath(), false);
+
+		// warm-up
+		for (int i = 0; i < 3; i++) {
+			linearScanPass(workbook, rows + 1);
+			indexedPass(reader, rows + 1);
+		}
+
+		long start = System.nanoTime();
+		int linearHits = 0;
+		for (int i = 0; i < iterations; i++)
+			linearHits = linearScanPass(workbook, rows + 1);
+		double linearMs = (System.nanoTime() - start) / 1e6 / iterations;
+
+		start = System.nanoTime();
+		int indexedHits = 0;
+		for (int i = 0; i < iterations; i++)
+			indexedHits = indexedPass(reader, rows + 1);
+		double indexedMs = (System.nanoTime() - start) / 1e6 / iterations;
+
+		System.out.printf("linear header scan: %.2f ms/pass (%d 'N' rows)%n", linearMs, linearHits);
+		System.out.printf("header index      : %.2f ms/pass (%d 'N' rows)%n", indexedMs, indexedHits);
+	}
+
+	private static int indexedPass(ExcelReader reader, int rowCount) {
+		int hits = 0;
+		for (int r = 2; r <= rowCount; r++) {
+			if (reader.getCellData("Sheet0", "runmode", r).equals("N"))
+				hits++;
+		}
+		return hits;
+	}
+
+	// the lookup ExcelReader.getCellData(sheet, colName, row) used to do on every call
+	private static int linearScanPass(XSSFWorkbook workbook, int rowCount) {
+		int hits = 0;
+		for (int r = 2; r <= rowCount; r++) {
+			int index = workbook.getSheetIndex("Sheet0");
+			XSSFSheet sheet = workbook.getSheetAt(index);
+			XSSFRow header = sheet.getRow(0);
+			int colNum = -1;
+			for (int i = 0; i < header.getLastCellNum(); i++) {
+				if (header.getCell(i).getStringCellValue().trim().equals("runmode"))
+					colNum = i;
+			}
+			XSSFCell cell = sheet.getRow(r - 1).getCell(colNum);
+			if (cell.getStringCellValue().equals("N"))
+				hits++;
+		}
+		return hits;
+	}
+}
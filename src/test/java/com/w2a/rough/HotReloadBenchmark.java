@@ -0,0 +1,96 @@
+package com.w2a.rough;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+
+import com.w2a.utilities.ExcelReader;
+import com.w2a.utilities.SheetSnapshot;
+
+/**
+ * Edits a watched workbook the way people do while a session is running and times how long ExcelReader
+ * takes to show the edit: an in-place save (the watcher sees the half-written file first) and a save
+ * through a temp file and rename (how most editors save), with which sheet snapshots were kept.
+ *
+ * Usage: HotReloadBenchmark [rows]
+ */
+public class HotReloadBenchmark {
+
+	public static void main(String[] args) throws Exception {
+
+		int rows = args.length > 0 ? Integer.parseInt(args[0]) : 20000;
+		File source = new File(System.getProperty("user.dir"), "target/bench/testdata_" + rows + "x4.xlsx");
+		if (!source.exists())
+			ExcelLoadBenchmark.generate(source, rows, 4);
+		File file = new File(source.getParentFile(), "hotreload.xlsx");
+		// saved once through XSSFWorkbook, so later saves only change the parts that were edited
+		edit(source, file, null, null, false);
+
+		ExcelReader reader = new ExcelReader(file.getPath(), true);
+		SheetSnapshot[] before = new SheetSnapshot[4];
+		for (int s = 0; s < 4; s++)
+			before[s] = reader.getSnapshot("Sheet" + s);
+		reader.enableHotReload(200);
+
+		// 1: in place, new shared string; only Sheet1 content changes
+		edit(file, file, "Sheet1", "Edited in place", false);
+		long start = System.nanoTime();
+		String seen = await(reader, "Sheet1", "Edited in place");
+		report("in-place save", start, seen, reader, before);
+
+		// 2: temp file + rename, every row of Sheet0 changes
+		for (int s = 0; s < 4; s++)
+			before[s] = reader.getSnapshot("Sheet" + s);
+		edit(file, file, "Sheet0", "Saved by rename", true);
+		start = System.nanoTime();
+		seen = await(reader, "Sheet0", "Saved by rename");
+		report("rename save  ", start, seen, reader, before);
+
+		reader.disableHotReload();
+	}
+
+	// sets the alerttext of every data row of a sheet (or only re-saves when sheetName is null)
+	private static void edit(File from, File to, String sheetName, String value, boolean viaRename) throws Exception {
+		XSSFWorkbook workbook;
+		try (FileInputStream in = new FileInputStream(from)) {
+			workbook = new XSSFWorkbook(in);
+		}
+		if (sheetName != null) {
+			for (int r = 1; r <= workbook.getSheet(sheetName).getLastRowNum(); r++) {
+				// inline strings (as written by SXSSF) keep their old text unless the cell is blanked first
+				workbook.getSheet(sheetName).getRow(r).getCell(3).setBlank();
+				workbook.getSheet(sheetName).getRow(r).getCell(3).setCellValue(value);
+			}
+		}
+		File target = viaRename ? new File(to.getPath() + ".saving") : to;
+		try (FileOutputStream out = new FileOutputStream(target)) {
+			workbook.write(out);
+		}
+		workbook.close();
+		if (viaRename)
+			Files.move(target.toPath(), to.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+	}
+
+	private static String await(ExcelReader reader, String sheetName, String value) throws InterruptedException {
+		long deadline = System.currentTimeMillis() + 20000;
+		while (System.currentTimeMillis() < deadline) {
+			String current = reader.getCellData(sheetName, "alerttext", 2);
+			if (current.equals(value))
+				return current;
+			Thread.sleep(20);
+		}
+		return reader.getCellData(sheetName, "alerttext", 2);
+	}
+
+	private static void report(String label, long start, String seen, ExcelReader reader, SheetSnapshot[] before) {
+		StringBuilder kept = new StringBuilder();
+		for (int s = 0; s < before.length; s++)
+			kept.append(" Sheet").append(s).append(reader.getSnapshot("Sheet" + s) == before[s] ? "=kept" : "=replaced");
+		System.out.println(label + ": visible " + (System.nanoTime() - start) / 1_000_000 + " ms after the save ('" + seen + "'),"
+				+ kept);
+	}
+}
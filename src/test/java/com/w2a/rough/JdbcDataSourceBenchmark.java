@@ -0,0 +1,76 @@
+package com.w2a.rough;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import com.w2a.utilities.ConnectionPool;
+import com.w2a.utilities.DataRow;
+import com.w2a.utilities.JdbcDataSource;
+import com.w2a.utilities.TestUtil;
+
+/**
+ * Runs JdbcDataSource against an in-process H2 database (the local stand-in for the test data server):
+ * several data provider threads sharing a small pool, and rows/s per fetch size.
+ *
+ * Usage: JdbcDataSourceBenchmark [rows] [threads]
+ */
+public class JdbcDataSourceBenchmark {
+
+	private static final String URL = "jdbc:h2:mem:testdata;DB_CLOSE_DELAY=-1";
+
+	public static void main(String[] args) throws Exception {
+
+		int rows = args.length > 0 ? Integer.parseInt(args[0]) : 100000;
+		int threads = args.length > 1 ? Integer.parseInt(args[1]) : 4;
+
+		try (Connection connection = DriverManager.getConnection(URL); Statement ddl = connection.createStatement()) {
+			ddl.execute("CREATE TABLE Customers (\"firstname\" VARCHAR, \"lastname\" VARCHAR, \"postcode\" VARCHAR, \"runmode\" VARCHAR)");
+			try (PreparedStatement insert = connection.prepareStatement("INSERT INTO Customers VALUES (?, ?, ?, ?)")) {
+				for (int r = 1; r <= rows; r++) {
+					insert.setString(1, "First" + r);
+					insert.setString(2, "Last" + r);
+					insert.setString(3, "E" + (10000 + r));
+					insert.setString(4, r % 5 == 0 ? "N" : "Y");
+					insert.addBatch();
+					if (r % 1000 == 0)
+						insert.executeBatch();
+				}
+				insert.executeBatch();
+			}
+		}
+
+		try (ConnectionPool pool = new ConnectionPool(URL, null, null, 2, 30000)) {
+			JdbcDataSource source = new JdbcDataSource(pool, new Properties(), 500);
+
+			long start = System.nanoTime();
+			ExecutorService executor = Executors.newFixedThreadPool(threads);
+			List<Future<Integer>> results = new ArrayList<>();
+			for (int t = 0; t < threads; t++)
+				results.add(executor.submit(() -> TestUtil.getData(source, "Customers").length));
+			int total = 0;
+			for (Future<Integer> result : results)
+				total += result.get();
+			executor.shutdown();
+			System.out.println(threads + " threads on a pool of 2: " + total + " runnable rows in " + (System.nanoTime() - start) / 1_000_000 + " ms");
+
+			for (int fetchSize : new int[] { 10, 100, 1000 }) {
+				JdbcDataSource sized = new JdbcDataSource(pool, new Properties(), fetchSize);
+				start = System.nanoTime();
+				int count = 0;
+				for (Iterator<DataRow> it = sized.rows("Customers"); it.hasNext(); it.next())
+					count++;
+				long nanos = System.nanoTime() - start;
+				System.out.printf("fetch size %4d: %d rows, %,d rows/s%n", fetchSize, count, count * 1_000_000_000L / nanos);
+			}
+		}
+	}
+}
@@ -0,0 +1,77 @@
+package com.w2a.rough;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Iterator;
+
+import com.w2a.utilities.ExcelReader;
+import com.w2a.utilities.TestUtil;
+
+/**
+ * Compares the eager "dp" provider (Object[][] of every row) with the lazy Iterator provider,
+ * with and without the background prefetch queue: time until the first invocation could start,
+ * heap held at that moment, and total time to walk all rows.
+ *
+ * Usage: LazyDataProviderBenchmark [eager|lazy|prefetch|all] [rows] [prefetch]
+ * Run one mode per JVM for the cleanest heap numbers.
+ */
+public class LazyDataProviderBenchmark {
+
+	public static void main(String[] args) throws IOException {
+
+		String mode = args.length > 0 ? args[0] : "all";
+		int rows = args.length > 1 ? Integer.parseInt(args[1]) : 200000;
+		int prefetch = args.length > 2 ? Integer.parseInt(args[2]) : 64;
+
+		File workbook = new File(System.getProperty("user.dir"), "target/bench/testdata_" + rows + "x1.xlsx");
+		if (!workbook.exists())
+			ExcelLoadBenchmark.generate(workbook, rows, 1);
+		System.out.println("Workbook: " + workbook + " (" + workbook.length() / 1024 + " KB)");
+
+		if (mode.equals("all") || mode.equals("eager"))
+			measure("eager", workbook.getPath(), -1);
+		if (mode.equals("all") || mode.equals("lazy"))
+			measure("lazy", workbook.getPath(), 0);
+		if (mode.equals("all") || mode.equals("prefetch"))
+			measure("prefetch(" + prefetch + ")", workbook.getPath(), prefetch);
+	}
+
+	private static void measure(String label, String path, int prefetch) {
+		long baseline = usedHeap();
+		long start = System.nanoTime();
+		ExcelReader reader = new ExcelReader(path, true);
+
+		Object first;
+		Iterator<Object[]> lazy = null;
+		Object[][] eager = null;
+		if (prefetch < 0) {
+			eager = TestUtil.getData(reader, "Sheet0");
+			first = eager[0][0];
+		} else {
+			lazy = TestUtil.getDataLazy(reader, "Sheet0", prefetch);
+			first = lazy.next()[0];
+		}
+		long firstMillis = (System.nanoTime() - start) / 1_000_000;
+		long retained = usedHeap() - baseline;
+
+		int count = 1;
+		if (eager != null)
+			count = eager.length;
+		else
+			while (lazy.hasNext()) {
+				lazy.next();
+				count++;
+			}
+		long totalMillis = (System.nanoTime() - start) / 1_000_000;
+
+		System.out.println(label + ": first invocation after " + firstMillis + " ms, heap held then "
+				+ retained / (1024 * 1024) + " MB, all " + count + " rows after " + totalMillis + " ms, first row " + first);
+	}
+
+	private static long usedHeap() {
+		Runtime runtime = Runtime.getRuntime();
+		for (int i = 0; i < 3; i++)
+			System.gc();
+		return runtime.totalMemory() - runtime.freeMemory();
+	}
+}
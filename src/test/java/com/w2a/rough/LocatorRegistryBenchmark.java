@@ -0,0 +1,82 @@
+package com.w2a.rough;
+
+import java.io.FileInputStream;
+import java.lang.management.ManagementFactory;
+import java.util.Properties;
+
+import org.openqa.selenium.By;
+
+import com.w2a.utilities.LocatorRegistry;
+
+/**
+ * Builds the LocatorRegistry from OR.properties and compares a step's locator lookup the old way
+ * (OR.getProperty plus a new By.cssSelector) with registry.get: time and bytes per lookup.
+ *
+ * Usage: LocatorRegistryBenchmark [lookups]
+ */
+public class LocatorRegistryBenchmark {
+
+	private static final String[] KEYS = { "bmlBtn_CSS", "addCustBtn_CSS", "firstname_CSS", "lastname_CSS", "postcode_CSS", "addbtn_CSS",
+			"openaccount_CSS", "customer_CSS", "currency_CSS", "process_CSS" };
+
+	// the test step keeps the By, so it must not be optimised away
+	private static final By[] sink = new By[1024];
+
+	public static void main(String[] args) throws Exception {
+
+		int lookups = args.length > 0 ? Integer.parseInt(args[0]) : 10_000_000;
+		Properties OR = new Properties();
+		try (FileInputStream fis = new FileInputStream(System.getProperty("user.dir") + "/src/test/resources/properties/OR.properties")) {
+			OR.load(fis);
+		}
+		long start = System.nanoTime();
+		LocatorRegistry registry = LocatorRegistry.of(OR);
+		System.out.println("OR.properties: " + registry.keys().size() + " locators built in " + (System.nanoTime() - start) / 1000 + " us, "
+				+ "lastname_CSS -> " + registry.get("lastname_CSS"));
+
+		// warm up both
+		long check = 0;
+		for (int i = 0; i < 3; i++) {
+			check += properties(OR, lookups / 10);
+			check += registry(registry, lookups / 10);
+		}
+		long before = allocatedBytes();
+		start = System.nanoTime();
+		check += properties(OR, lookups);
+		report("OR.getProperty + By.cssSelector", lookups, allocatedBytes() - before, System.nanoTime() - start);
+		before = allocatedBytes();
+		start = System.nanoTime();
+		check += registry(registry, lookups);
+		report("LocatorRegistry.get            ", lookups, allocatedBytes() - before, System.nanoTime() - start);
+		if (check == 0)
+			System.out.println();
+	}
+
+	private static long properties(Properties OR, int lookups) {
+		long hash = 0;
+		for (int i = 0; i < lookups; i++) {
+			By by = By.cssSelector(OR.getProperty(KEYS[i % KEYS.length]));
+			sink[i & 1023] = by;
+			hash += i;
+		}
+		return hash;
+	}
+
+	private static long registry(LocatorRegistry registry, int lookups) {
+		long hash = 0;
+		for (int i = 0; i < lookups; i++) {
+			By by = registry.get(KEYS[i % KEYS.length]);
+			sink[i & 1023] = by;
+			hash += i;
+		}
+		return hash;
+	}
+
+	private static void report(String label, int lookups, long bytes, long nanos) {
+		System.out.println(label + ": " + nanos / lookups + " ns, " + bytes / lookups + " bytes per lookup");
+	}
+
+	private static long allocatedBytes() {
+		return ((com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean()).getCurrentThreadAllocatedBytes();
+	}
+}
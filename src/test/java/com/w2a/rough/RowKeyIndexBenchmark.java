@@ -0,0 +1,70 @@
+package com.w2a.rough;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+
+import com.w2a.utilities.ExcelReader;
+
+/**
+ * Result write-back looks up the row of every finished test by its key before writing to it.
+ * Compares the old getCellRowNum loop (getCellData per row until the key matches) with the row-key
+ * index for one lookup per data row of the sheet, then checks the index follows key writes.
+ *
+ * Usage: RowKeyIndexBenchmark [rows...]
+ */
+public class RowKeyIndexBenchmark {
+
+	public static void main(String[] args) throws Exception {
+
+		int[] sizes = args.length > 0 ? Arrays.stream(args).mapToInt(Integer::parseInt).toArray() : new int[] { 2000, 5000, 10000, 20000 };
+		for (int rows : sizes) {
+			File file = new File(System.getProperty("user.dir"), "target/bench/testdata_" + rows + "x1.xlsx");
+			if (!file.exists())
+				ExcelLoadBenchmark.generate(file, rows, 1);
+			ExcelReader reader = new ExcelReader(file.getPath(), true);
+
+			long start = System.nanoTime();
+			long linearSum = 0;
+			for (int r = 1; r <= rows; r++)
+				linearSum += linearRowNum(reader, "Sheet0", "firstname", "first" + r);
+			long linearMs = (System.nanoTime() - start) / 1_000_000;
+
+			start = System.nanoTime();
+			long indexedSum = 0;
+			for (int r = 1; r <= rows; r++)
+				indexedSum += reader.getCellRowNum("Sheet0", "firstname", "first" + r);
+			long indexedMs = (System.nanoTime() - start) / 1_000_000;
+
+			if (linearSum != indexedSum)
+				throw new IllegalStateException("lookups disagree: " + linearSum + " vs " + indexedSum);
+			System.out.println(rows + " rows, " + rows + " lookups: linear " + linearMs + " ms, row-key index " + indexedMs
+					+ " ms (including the build)");
+		}
+
+		// the index follows writes to the key column, buffered or not
+		File source = new File(System.getProperty("user.dir"), "target/bench/testdata_" + sizes[0] + "x1.xlsx");
+		File copy = new File(source.getParentFile(), "rowkeys.xlsx");
+		Files.copy(source.toPath(), copy.toPath(), StandardCopyOption.REPLACE_EXISTING);
+		new File(copy.getPath() + ".journal").delete();
+		ExcelReader writer = new ExcelReader(copy.getPath(), true);
+		writer.enableWriteBehind(1000, 60000);
+		System.out.println("before write: First5 at " + writer.getCellRowNum("Sheet0", "firstname", "First5"));
+		writer.setCellData("Sheet0", "firstname", 6, "Renamed5");
+		System.out.println("after buffered write: First5 at " + writer.getCellRowNum("Sheet0", "firstname", "First5")
+				+ ", renamed5 at " + writer.getCellRowNum("Sheet0", "firstname", "renamed5"));
+		writer.setCellData("Sheet0", "firstname", 9, "Renamed5");
+		writer.flush();
+		System.out.println("after flush: Renamed5 rows " + Arrays.toString(writer.getCellRowNums("Sheet0", "firstname", "Renamed5")));
+	}
+
+	// the getCellRowNum body before the index
+	private static int linearRowNum(ExcelReader reader, String sheetName, String colName, String cellValue) {
+		for (int i = 2; i <= reader.getRowCount(sheetName); i++) {
+			if (reader.getCellData(sheetName, colName, i).equalsIgnoreCase(cellValue))
+				return i;
+		}
+		return -1;
+	}
+}
@@ -0,0 +1,56 @@
+package com.w2a.rough;
+
+import java.util.Hashtable;
+import java.util.Random;
+
+import com.w2a.utilities.RowDurations;
+import com.w2a.utilities.RowShardPlanner;
+
+/**
+ * Simulates the parallel data provider pool (next row to the first free thread) for rows with
+ * skewed durations, once in sheet order and once in the order RowShardPlanner produces.
+ * The synthetic history is only kept in memory (RowDurations.save() is never called).
+ *
+ * Usage: RowShardingSimulation [rows] [threads]
+ */
+public class RowShardingSimulation {
+
+	public static void main(String[] args) {
+
+		int rows = args.length > 0 ? Integer.parseInt(args[0]) : 40;
+		int threads = args.length > 1 ? Integer.parseInt(args[1]) : 4;
+		Random random = new Random(7);
+
+		Object[][] data = new Object[rows][1];
+		long[] actual = new long[rows];
+		for (int r = 0; r < rows; r++) {
+			Hashtable<String, String> row = new Hashtable<>();
+			row.put("firstname", "First" + r);
+			data[r][0] = row;
+			// most rows take a few seconds, every tenth row is a slow 30s flow
+			actual[r] = r % 10 == 9 ? 30000 : 2000 + random.nextInt(3000);
+			RowDurations.record(RowDurations.rowKey("simulatedTest", row), actual[r]);
+		}
+
+		System.out.println("sheet order: makespan " + simulate(data, threads) + " ms");
+		RowShardPlanner.Plan plan = RowShardPlanner.plan("simulatedTest", data, threads);
+		System.out.println("planned:     makespan " + simulate(plan.rows, threads) + " ms (predicted "
+				+ plan.makespanMillis() + " ms, serial " + plan.serialMillis + " ms)");
+	}
+
+	@SuppressWarnings("unchecked")
+	private static long simulate(Object[][] order, int threads) {
+		long[] busyUntil = new long[threads];
+		for (Object[] row : order) {
+			int free = 0;
+			for (int t = 1; t < threads; t++)
+				if (busyUntil[t] < busyUntil[free])
+					free = t;
+			busyUntil[free] += RowDurations.estimate(RowDurations.rowKey("simulatedTest", (Hashtable<String, String>) row[0]));
+		}
+		long makespan = 0;
+		for (long until : busyUntil)
+			makespan = Math.max(makespan, until);
+		return makespan;
+	}
+}
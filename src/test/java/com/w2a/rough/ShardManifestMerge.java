@@ -0,0 +1,83 @@
+package com.w2a.rough;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Merges the manifests of a sharded run (target/shards/shard-*-of-N.tsv, collected from all agents)
+ * and checks that the shards covered everything exactly once: for each method the assigned rows add
+ * up to the rows every shard saw, each method was assigned to one shard, and no result appears twice.
+ * Prints merged PASS/FAIL/SKIP counts and the busiest shard's total time.
+ *
+ * Usage: ShardManifestMerge [dir]
+ */
+public class ShardManifestMerge {
+
+	public static void main(String[] args) throws IOException {
+
+		File dir = new File(args.length > 0 ? args[0] : System.getProperty("user.dir") + "/target/shards");
+		File[] manifests = dir.listFiles((d, name) -> name.startsWith("shard-") && name.endsWith(".tsv"));
+		if (manifests == null || manifests.length == 0) {
+			System.out.println("No shard manifests in " + dir);
+			return;
+		}
+
+		Map<String, Integer> seen = new TreeMap<>();
+		Map<String, Integer> assigned = new TreeMap<>();
+		Map<String, Integer> methodOwners = new TreeMap<>();
+		Map<String, String> results = new HashMap<>();
+		Map<String, Integer> statusCounts = new TreeMap<>();
+		Map<String, Long> shardMillis = new TreeMap<>();
+		boolean ok = true;
+
+		for (File manifest : manifests) {
+			long millis = 0;
+			for (String line : Files.readAllLines(manifest.toPath(), StandardCharsets.UTF_8)) {
+				if (line.startsWith("#") || line.isEmpty())
+					continue;
+				String[] f = line.split("\t", -1);
+				if (f[0].equals("rows")) {
+					Integer previous = seen.put(f[1], Integer.parseInt(f[2]));
+					if (previous != null && previous != Integer.parseInt(f[2])) {
+						System.out.println("MISMATCH " + f[1] + ": shards saw " + previous + " and " + f[2] + " rows");
+						ok = false;
+					}
+					assigned.merge(f[1], Integer.parseInt(f[3]), Integer::sum);
+				} else if (f[0].equals("method")) {
+					methodOwners.merge(f[1], f[2].equals("assigned") ? 1 : 0, Integer::sum);
+				} else if (f[0].equals("result")) {
+					String key = f[1] + "\t" + f[2];
+					if (results.put(key, manifest.getName()) != null) {
+						System.out.println("DUPLICATE result " + f[2]);
+						ok = false;
+					}
+					statusCounts.merge(f[3], 1, Integer::sum);
+					millis += Long.parseLong(f[4]);
+				}
+			}
+			shardMillis.put(manifest.getName(), millis);
+		}
+
+		for (Map.Entry<String, Integer> entry : seen.entrySet()) {
+			int total = assigned.get(entry.getKey());
+			if (total != entry.getValue()) {
+				System.out.println("COVERAGE " + entry.getKey() + ": " + total + " rows assigned of " + entry.getValue());
+				ok = false;
+			}
+		}
+		for (Map.Entry<String, Integer> entry : methodOwners.entrySet())
+			if (entry.getValue() != 1) {
+				System.out.println("COVERAGE " + entry.getKey() + " assigned to " + entry.getValue() + " shards");
+				ok = false;
+			}
+
+		System.out.println(manifests.length + " shards, " + seen.size() + " data-driven methods, " + methodOwners.size()
+				+ " sharded methods, results " + statusCounts + ", time per shard " + shardMillis);
+		System.out.println(ok ? "OK: every row and method ran on exactly one shard" : "INCOMPLETE");
+	}
+}
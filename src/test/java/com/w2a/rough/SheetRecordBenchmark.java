@@ -0,0 +1,114 @@
+package com.w2a.rough;
+
+import java.lang.management.ManagementFactory;
+import java.util.Hashtable;
+import java.util.Iterator;
+import java.util.List;
+
+import com.w2a.testdata.AddCustomerTestRow;
+import com.w2a.utilities.DataRow;
+import com.w2a.utilities.ExcelDataSource;
+import com.w2a.utilities.ExcelReader;
+import com.w2a.utilities.RowShardPlanner;
+import com.w2a.utilities.SheetRecords;
+import com.w2a.utilities.SheetSnapshot;
+import com.w2a.utilities.TestUtil;
+
+/**
+ * Reads an AddCustomerTest-shaped sheet the way the test body does (every column three times:
+ * log, type, report) through the Hashtable the old data provider built, through DataRow, and through
+ * the generated AddCustomerTestRow: bytes allocated and time per row, provider included.
+ * Then checks dpTyped and dp agree on testdata.xlsx: same rows after the runmode filter, same row keys.
+ *
+ * Usage: SheetRecordBenchmark [rows]
+ */
+public class SheetRecordBenchmark {
+
+	private static final String[] COLUMNS = { "firstname", "lastname", "postcode", "alerttext", "runmode" };
+
+	public static void main(String[] args) throws Exception {
+
+		int rows = args.length > 0 ? Integer.parseInt(args[0]) : 100000;
+		SheetSnapshot.Builder builder = SheetSnapshot.builder(AddCustomerTestRow.SHEET).addRow(0, COLUMNS);
+		for (int r = 1; r <= rows; r++)
+			builder.addRow(r, new String[] { "First" + r, "Last" + r, "E" + (10000 + r % 9000), "Customer added successfully", "Y" });
+		SheetSnapshot sheet = builder.build();
+
+		// warm up all three paths so the JIT does not skew the measurement
+		for (int i = 0; i < 5; i++) {
+			hashtables(sheet);
+			dataRows(sheet);
+			records(sheet);
+		}
+
+		long before = allocatedBytes();
+		long start = System.nanoTime();
+		long check = hashtables(sheet);
+		report("Hashtable          ", rows, allocatedBytes() - before, System.nanoTime() - start);
+
+		before = allocatedBytes();
+		start = System.nanoTime();
+		if (dataRows(sheet) != check)
+			throw new IllegalStateException("DataRow read different values");
+		report("DataRow            ", rows, allocatedBytes() - before, System.nanoTime() - start);
+
+		before = allocatedBytes();
+		start = System.nanoTime();
+		if (records(sheet) != check)
+			throw new IllegalStateException("AddCustomerTestRow read different values");
+		report("AddCustomerTestRow ", rows, allocatedBytes() - before, System.nanoTime() - start);
+
+		// the real workbook through both providers
+		ExcelDataSource source = new ExcelDataSource(new ExcelReader(System.getProperty("user.dir") + "/src/test/resources/excel/testdata.xlsx"));
+		Object[][] maps = TestUtil.getData(source, AddCustomerTestRow.SHEET);
+		Object[][] typed = TestUtil.getData(source, AddCustomerTestRow.class);
+		if (maps.length != typed.length)
+			throw new IllegalStateException("dp has " + maps.length + " rows, dpTyped " + typed.length);
+		for (int i = 0; i < maps.length; i++) {
+			String mapKey = RowShardPlanner.rowKey("addCustomerTest", maps[i]);
+			if (!mapKey.equals(RowShardPlanner.rowKey("addCustomerTest", typed[i])))
+				throw new IllegalStateException("row keys differ: " + mapKey + " vs " + typed[i][0]);
+		}
+		System.out.println("testdata.xlsx: dp and dpTyped both give " + typed.length + " rows with the same row keys, first " + typed[0][0]);
+	}
+
+	private static long hashtables(SheetSnapshot sheet) {
+		long length = 0;
+		for (Iterator<DataRow> rows = sheet.rows(); rows.hasNext();) {
+			Hashtable<String, String> data = rows.next().toHashtable();
+			for (int use = 0; use < 3; use++)
+				length += data.get("firstname").length() + data.get("lastname").length() + data.get("postcode").length()
+						+ data.get("alerttext").length();
+		}
+		return length;
+	}
+
+	private static long dataRows(SheetSnapshot sheet) {
+		long length = 0;
+		for (Iterator<DataRow> rows = sheet.rows(); rows.hasNext();) {
+			DataRow data = rows.next();
+			for (int use = 0; use < 3; use++)
+				length += data.get("firstname").length() + data.get("lastname").length() + data.get("postcode").length()
+						+ data.get("alerttext").length();
+		}
+		return length;
+	}
+
+	private static long records(SheetSnapshot sheet) {
+		long length = 0;
+		List<AddCustomerTestRow> rows = SheetRecords.read(AddCustomerTestRow.class, sheet);
+		for (AddCustomerTestRow data : rows) {
+			for (int use = 0; use < 3; use++)
+				length += data.firstname.length() + data.lastname.length() + data.postcode.length() + data.alerttext.length();
+		}
+		return length;
+	}
+
+	private static void report(String label, int rows, long bytes, long nanos) {
+		System.out.println(label + ": " + bytes / rows + " bytes/row, " + nanos / rows + " ns/row");
+	}
+
+	private static long allocatedBytes() {
+		return ((com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean()).getCurrentThreadAllocatedBytes();
+	}
+}
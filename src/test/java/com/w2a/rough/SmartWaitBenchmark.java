@@ -0,0 +1,99 @@
+package com.w2a.rough;
+
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.util.Collections;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.NoSuchElementException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.support.ui.ExpectedConditions;
+import org.openqa.selenium.support.ui.WebDriverWait;
+
+import com.w2a.utilities.SmartWait;
+
+/**
+ * Against a stand-in driver whose element appears after a given delay: how long WebDriverWait
+ * (500 ms polls) and SmartWait (10 ms doubling to 250 ms) take to see it, how long a lookup of a
+ * missing element takes the old way (findElement under an implicit wait) and through findElements
+ * with none, and the per-condition report SmartWait keeps.
+ *
+ * Usage: SmartWaitBenchmark [implicitWaitMillis]
+ */
+public class SmartWaitBenchmark {
+
+	public static void main(String[] args) {
+
+		long implicitMillis = args.length > 0 ? Long.parseLong(args[0]) : 3000;
+		By button = By.cssSelector("button[ng-click='addCust()']");
+
+		for (long appearAfter : new long[] { 30, 120, 700, 2500 }) {
+			long fixed = 0;
+			long adaptive = 0;
+			int runs = 5;
+			for (int run = 0; run < runs; run++) {
+				WebDriver driver = standIn(appearAfter, 0);
+				long start = System.nanoTime();
+				new WebDriverWait(driver, Duration.ofSeconds(10)).until(ExpectedConditions.presenceOfElementLocated(button));
+				fixed += System.nanoTime() - start;
+				driver = standIn(appearAfter, 0);
+				start = System.nanoTime();
+				new SmartWait(driver, Duration.ofSeconds(10)).until(ExpectedConditions.presenceOfElementLocated(button));
+				adaptive += System.nanoTime() - start;
+			}
+			System.out.println("element after " + appearAfter + " ms: WebDriverWait " + fixed / runs / 1_000_000 + " ms, SmartWait "
+					+ adaptive / runs / 1_000_000 + " ms");
+		}
+
+		By missing = By.cssSelector("#notThere");
+		WebDriver driver = standIn(Long.MAX_VALUE, implicitMillis);
+		long start = System.nanoTime();
+		try {
+			driver.findElement(missing);
+		} catch (NoSuchElementException e) {
+			System.out.println("missing element, findElement with " + implicitMillis + " ms implicit wait: "
+					+ (System.nanoTime() - start) / 1_000_000 + " ms");
+		}
+		driver = standIn(Long.MAX_VALUE, 0);
+		start = System.nanoTime();
+		boolean present = !driver.findElements(missing).isEmpty();
+		System.out.println("missing element, findElements without implicit wait: " + (System.nanoTime() - start) / 1_000_000 + " ms, present "
+				+ present);
+		start = System.nanoTime();
+		present = new SmartWait(driver, Duration.ofSeconds(1)).isPresent(missing);
+		System.out.println("missing element, SmartWait.isPresent within 1 s: " + (System.nanoTime() - start) / 1_000_000 + " ms, present " + present);
+
+		System.out.println("SmartWait.report():\n" + SmartWait.report(10));
+	}
+
+	// a driver with one element, found from appearAfter ms on; findElement waits implicitMillis before giving up
+	private static WebDriver standIn(long appearAfter, long implicitMillis) {
+		long appearsAt = appearAfter == Long.MAX_VALUE ? Long.MAX_VALUE : System.nanoTime() + appearAfter * 1_000_000;
+		WebElement element = (WebElement) Proxy.newProxyInstance(SmartWaitBenchmark.class.getClassLoader(), new Class<?>[] { WebElement.class },
+				(proxy, method, args) -> method.getReturnType() == boolean.class ? true : null);
+		return (WebDriver) Proxy.newProxyInstance(SmartWaitBenchmark.class.getClassLoader(), new Class<?>[] { WebDriver.class },
+				(proxy, method, args) -> {
+					switch (method.getName()) {
+					case "findElement":
+						long deadline = System.nanoTime() + implicitMillis * 1_000_000;
+						while (System.nanoTime() < appearsAt) {
+							if (System.nanoTime() >= deadline)
+								throw new NoSuchElementException("Unable to locate element: " + args[0]);
+							Thread.sleep(5);
+						}
+						return element;
+					case "findElements":
+						return System.nanoTime() < appearsAt ? Collections.emptyList() : Collections.singletonList(element);
+					case "toString":
+						return "StandInDriver";
+					case "hashCode":
+						return System.identityHashCode(proxy);
+					case "equals":
+						return proxy == args[0];
+					default:
+						return null;
+					}
+				});
+	}
+}
@@ -0,0 +1,83 @@
+package com.w2a.rough;
+
+import java.io.File;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.util.Arrays;
+import java.util.List;
+
+import com.w2a.utilities.CsvDataSource;
+import com.w2a.utilities.ExcelDataSource;
+import com.w2a.utilities.ExcelReader;
+import com.w2a.utilities.JsonLinesDataSource;
+import com.w2a.utilities.SyntheticDataGenerator;
+import com.w2a.utilities.TestDataSource;
+
+/**
+ * Writes the same seeded AddCustomerTest and OpenAccountTest rows as xlsx, CSV and JSON-lines, reports
+ * time, size and peak heap per format, then the time to stream each file back through its TestDataSource.
+ * Run with a small heap (e.g. -Xmx96m) to see the writers stay within it.
+ *
+ * Usage: SyntheticDataBenchmark [rows] [seed]
+ */
+public class SyntheticDataBenchmark {
+
+	public static void main(String[] args) throws Exception {
+
+		int rows = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+		long seed = args.length > 1 ? Long.parseLong(args[1]) : 42;
+		ExcelReader samples = new ExcelReader(System.getProperty("user.dir") + "/src/test/resources/excel/testdata.xlsx", true);
+		List<SyntheticDataGenerator> sheets = Arrays.asList(
+				new SyntheticDataGenerator(samples.getSnapshot("AddCustomerTest"), seed, 0.8),
+				new SyntheticDataGenerator(samples.getSnapshot("OpenAccountTest"), seed, 0.8));
+		File dir = new File(System.getProperty("user.dir"), "target/bench/synthetic");
+
+		File xlsx = new File(dir, "synthetic.xlsx");
+		write("xlsx ", SyntheticDataGenerator.xlsx(xlsx), sheets, rows, xlsx);
+		write("csv  ", SyntheticDataGenerator.csv(dir), sheets, rows, new File(dir, "AddCustomerTest.csv"));
+		write("jsonl", SyntheticDataGenerator.jsonLines(dir), sheets, rows, new File(dir, "AddCustomerTest.jsonl"));
+
+		read("xlsx ", new ExcelDataSource(new ExcelReader(xlsx.getPath(), true)), sheets);
+		read("csv  ", new CsvDataSource(dir), sheets);
+		read("jsonl", new JsonLinesDataSource(dir), sheets);
+
+		System.out.println("first AddCustomerTest row: " + Arrays.toString(sheets.get(0).row(1))
+				+ ", first OpenAccountTest row: " + Arrays.toString(sheets.get(1).row(1)));
+	}
+
+	private static void write(String label, SyntheticDataGenerator.RowSink sink, List<SyntheticDataGenerator> sheets, int rows, File file)
+			throws Exception {
+		resetPeakHeap();
+		long start = System.nanoTime();
+		try (SyntheticDataGenerator.RowSink out = sink) {
+			SyntheticDataGenerator.generate(sheets, rows, out);
+		}
+		long millis = (System.nanoTime() - start) / 1_000_000;
+		System.out.println(label + ": " + rows + " rows x " + sheets.size() + " sheets in " + millis + " ms, "
+				+ file.getName() + " " + file.length() / (1024 * 1024) + " MB, peak heap " + peakHeap() / (1024 * 1024) + " MB");
+	}
+
+	private static void read(String label, TestDataSource source, List<SyntheticDataGenerator> sheets) throws Exception {
+		long start = System.nanoTime();
+		long[] count = { 0 };
+		for (SyntheticDataGenerator sheet : sheets)
+			source.stream(sheet.getSheetName(), row -> count[0]++);
+		System.out.println(label + " read back " + count[0] + " rows in " + (System.nanoTime() - start) / 1_000_000 + " ms");
+	}
+
+	private static void resetPeakHeap() {
+		System.gc();
+		for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans())
+			if (pool.getType() == MemoryType.HEAP)
+				pool.resetPeakUsage();
+	}
+
+	private static long peakHeap() {
+		long peak = 0;
+		for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans())
+			if (pool.getType() == MemoryType.HEAP)
+				peak += pool.getPeakUsage().getUsed();
+		return peak;
+	}
+}
@@ -0,0 +1,148 @@
+package com.w2a.rough;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.NoAlertPresentException;
+import org.openqa.selenium.NoSuchSessionException;
+import org.openqa.selenium.WebDriver;
+
+import com.w2a.utilities.WebDriverPool;
+
+/**
+ * Runs invocations on 4 threads the way setUpDriver/tearDownDriver do, once with a fresh driver per
+ * invocation and once through WebDriverPool, against stand-in drivers that take launchMillis to start
+ * and a few ms per command; every 25th invocation kills its session, which the pool replaces.
+ * Prints wall clock, sessions started, the most open at once and the pool stats.
+ * Then times suite setup (setupMillis of sleeping, standing in for config, OR and data providers)
+ * plus the invocations, with the pool cold and with prewarm() started before the setup.
+ *
+ * Usage: WebDriverPoolBenchmark [invocations] [launchMillis] [setupMillis]
+ */
+public class WebDriverPoolBenchmark {
+
+	static long launchMillis = 1500;
+	static final long COMMAND_MILLIS = 5;
+	static final AtomicInteger started = new AtomicInteger();
+	static final AtomicInteger live = new AtomicInteger();
+	static final AtomicInteger maxLive = new AtomicInteger();
+
+	public static void main(String[] args) throws Exception {
+
+		int invocations = args.length > 0 ? Integer.parseInt(args[0]) : 100;
+		if (args.length > 1)
+			launchMillis = Long.parseLong(args[1]);
+		long setupMillis = args.length > 2 ? Long.parseLong(args[2]) : 1000;
+
+		long start = System.nanoTime();
+		run(invocations, null);
+		System.out.println("fresh driver per invocation: " + (System.nanoTime() - start) / 1_000_000 + " ms, " + started.get() + " sessions started");
+
+		started.set(0);
+		maxLive.set(0);
+		WebDriverPool pool = new WebDriverPool(WebDriverPoolBenchmark::launch, "http://localhost/#/login", 4, 60_000);
+		start = System.nanoTime();
+		run(invocations, pool);
+		long millis = (System.nanoTime() - start) / 1_000_000;
+		pool.close();
+		System.out.println("pooled:                      " + millis + " ms, " + started.get() + " sessions started");
+		System.out.println("pool: " + pool.getStats() + ", at most " + maxLive.get() + " sessions open at once");
+
+		for (boolean prewarm : new boolean[] { false, true }) {
+			WebDriverPool suitePool = new WebDriverPool(WebDriverPoolBenchmark::launch, "http://localhost/#/login", 4, 60_000);
+			start = System.nanoTime();
+			if (prewarm)
+				suitePool.prewarm(Integer.MAX_VALUE);
+			sleep(setupMillis);
+			run(invocations, suitePool);
+			millis = (System.nanoTime() - start) / 1_000_000;
+			suitePool.close();
+			System.out.println((prewarm ? "prewarmed" : "cold     ") + " setup + suite: " + millis + " ms; pool: " + suitePool.getStats());
+		}
+	}
+
+	private static void run(int invocations, WebDriverPool pool) throws Exception {
+		ExecutorService threads = Executors.newFixedThreadPool(4);
+		List<Future<?>> results = new ArrayList<>();
+		for (int i = 0; i < invocations; i++) {
+			int invocation = i;
+			results.add(threads.submit(() -> {
+				WebDriver driver = pool != null ? pool.borrow() : launch();
+				try {
+					// a test body: a handful of commands
+					for (int c = 0; c < 10; c++)
+						driver.getTitle();
+					if (invocation % 25 == 24)
+						driver.quit(); // browser crashed mid-test
+				} finally {
+					if (pool != null)
+						pool.release(driver);
+					else
+						driver.quit();
+				}
+			}));
+		}
+		try {
+			for (Future<?> result : results)
+				result.get();
+		} finally {
+			threads.shutdown();
+		}
+	}
+
+	// a WebDriver that only costs time
+	private static WebDriver launch() {
+		sleep(launchMillis);
+		started.incrementAndGet();
+		maxLive.accumulateAndGet(live.incrementAndGet(), Math::max);
+		Set<String> state = ConcurrentHashMap.newKeySet();
+		return (WebDriver) Proxy.newProxyInstance(WebDriverPoolBenchmark.class.getClassLoader(),
+				new Class<?>[] { WebDriver.class, JavascriptExecutor.class }, (proxy, method, args) -> {
+					if (method.getName().equals("quit")) {
+						// like RemoteWebDriver, quitting twice is harmless
+						if (state.add("quit"))
+							live.decrementAndGet();
+						return null;
+					}
+					if (state.contains("quit"))
+						throw new NoSuchSessionException("Session is gone");
+					switch (method.getName()) {
+					case "switchTo":
+					case "manage":
+						// alert() throws NoAlertPresentException, deleteAllCookies() is a command
+						return Proxy.newProxyInstance(WebDriverPoolBenchmark.class.getClassLoader(), 
+								new Class<?>[] { method.getReturnType() }, (p, m, a) -> {
+									if (m.getName().equals("alert"))
+										throw new NoAlertPresentException();
+									sleep(COMMAND_MILLIS);
+									return null;
+								});
+					case "hashCode":
+						return System.identityHashCode(proxy);
+					case "equals":
+						return proxy == args[0];
+					case "toString":
+						return "StandInDriver";
+					default:
+						sleep(COMMAND_MILLIS);
+						return method.getReturnType() == String.class ? "" : null;
+					}
+				});
+	}
+
+	private static void sleep(long millis) {
+		try {
+			Thread.sleep(millis);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
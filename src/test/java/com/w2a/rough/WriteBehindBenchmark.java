@@ -0,0 +1,56 @@
+package com.w2a.rough;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+
+import com.w2a.utilities.ExcelReader;
+
+/**
+ * Per-row result write-back: legacy setCellData (re-parse and rewrite the file per cell)
+ * against write-behind (journal + one atomic commit). Journal recovery is covered by
+ * com.w2a.unit.WriteBehindJournalTest.
+ *
+ * Usage: WriteBehindBenchmark [rows] [legacySampleRows]
+ */
+public class WriteBehindBenchmark {
+
+	public static void main(String[] args) throws IOException {
+
+		int rows = args.length > 0 ? Integer.parseInt(args[0]) : 5000;
+		int legacySample = args.length > 1 ? Integer.parseInt(args[1]) : 50;
+
+		File source = new File(System.getProperty("user.dir"), "target/bench/testdata_" + rows + "x1.xlsx");
+		if (!source.exists())
+			ExcelLoadBenchmark.generate(source, rows, 1);
+
+		// legacy path, sampled and extrapolated because the full run takes minutes
+		File legacyFile = copy(source, "legacy");
+		ExcelReader legacy = new ExcelReader(legacyFile.getPath(), false);
+		long start = System.nanoTime();
+		for (int r = 2; r < 2 + legacySample; r++)
+			legacy.setCellData("Sheet0", "runmode", r, "PASS");
+		double legacyPerWrite = (System.nanoTime() - start) / 1e6 / legacySample;
+		System.out.printf("legacy      : %.1f ms/write, ~%.1f s for %d rows%n", legacyPerWrite, legacyPerWrite * rows / 1000, rows);
+
+		File bufferedFile = copy(source, "buffered");
+		ExcelReader buffered = new ExcelReader(bufferedFile.getPath(), true);
+		buffered.enableWriteBehind(Integer.MAX_VALUE, Long.MAX_VALUE);
+		start = System.nanoTime();
+		for (int r = 2; r <= rows + 1; r++)
+			buffered.setCellData("Sheet0", "runmode", r, "PASS");
+		buffered.flush();
+		double bufferedMs = (System.nanoTime() - start) / 1e6;
+		System.out.printf("write-behind: %.1f s for %d rows%n", bufferedMs / 1000, rows);
+		System.out.println("write-behind result row " + (rows + 1) + ": "
+				+ new ExcelReader(bufferedFile.getPath(), true).getCellData("Sheet0", "runmode", rows + 1));
+	}
+
+	private static File copy(File source, String suffix) throws IOException {
+		File target = new File(source.getParentFile(), source.getName().replace(".xlsx", "_" + suffix + ".xlsx"));
+		Files.copy(source.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING);
+		Files.deleteIfExists(new File(target.getPath() + ".journal").toPath());
+		return target;
+	}
+}
@@ -1,80 +1,74 @@
 package com.w2a.testcases;
 
 import com.w2a.base.TestBase;
+import com.w2a.testdata.AddCustomerTestRow;
 import com.w2a.utilities.ExtentStepLogger;
+import com.w2a.utilities.SmartWait;
 
 import com.w2a.utilities.TestUtil;
 import org.openqa.selenium.Alert;
-import org.openqa.selenium.By;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.support.ui.ExpectedConditions;
 import org.openqa.selenium.support.ui.Wait;
-import org.openqa.selenium.support.ui.WebDriverWait;
 import org.testng.Assert;
-import org.testng.SkipException;
 import org.testng.annotations.BeforeClass;
 import org.testng.annotations.Test;
 
-import java.util.Hashtable;
 
 public class AddCustomerTest extends TestBase {
 
 //    @BeforeClass
 //    public void loginAsManager() {
 //        getDriver().get(config.getProperty("testsiteurl"));
-//        getWait().until(ExpectedConditions.elementToBeClickable(By.cssSelector(OR.getProperty("bmlBtn_CSS")))).click();
+//        getWait().until(ExpectedConditions.elementToBeClickable(locator("bmlBtn_CSS"))).click();
 //    }
 
-    @Test(dataProviderClass = TestUtil.class, dataProvider = "dp")
-    public void addCustomerTest(Hashtable<String, String> data) throws InterruptedException {
+    @Test(dataProviderClass = TestUtil.class, dataProvider = "dpTyped")
+    public void addCustomerTest(AddCustomerTestRow data) throws InterruptedException {
         long threadId = Thread.currentThread().getId();
         logger.info("Test STARTING on thread: " + threadId);
         WebDriver driver = getDriver();
-        WebDriverWait wait = getWait();
+        SmartWait wait = getWait();
 
         driver.get(config.getProperty("testsiteurl"));
-        wait.until(ExpectedConditions.elementToBeClickable(By.cssSelector(OR.getProperty("bmlBtn_CSS")))).click();
+        wait.until(ExpectedConditions.elementToBeClickable(locator("bmlBtn_CSS"))).click();
 
-        if (!data.get("runmode").equals("Y")) {
-            throw new SkipException("Skipping as run mode is 'N'");
-        }
-        
         // Log test start information
         ExtentStepLogger.logTestStart("Add Customer Test", "Test to add a new customer with provided details");
         
         // Log test data
-        ExtentStepLogger.logTestData("First Name", data.get("firstname"));
-        ExtentStepLogger.logTestData("Last Name", data.get("lastname"));
-        ExtentStepLogger.logTestData("Post Code", data.get("postcode"));
-        ExtentStepLogger.logTestData("Expected Alert Text", data.get("allerttext"));
+        ExtentStepLogger.logTestData("First Name", data.firstname);
+        ExtentStepLogger.logTestData("Last Name", data.lastname);
+        ExtentStepLogger.logTestData("Post Code", data.postcode);
+        ExtentStepLogger.logTestData("Expected Alert Text", data.alerttext);
         
         try {
             ExtentStepLogger.logSection("Customer Addition Process");
             
             // Navigate to Add Customer page
             ExtentStepLogger.logStep("Click on Add Customer button");
-            wait.until(ExpectedConditions.elementToBeClickable(By.cssSelector(OR.getProperty("addCustBtn_CSS")))).click();
+            wait.until(ExpectedConditions.elementToBeClickable(locator("addCustBtn_CSS"))).click();
             ExtentStepLogger.logPassWithScreenshot("Successfully clicked Add Customer button", driver, "AddCustomer_Clicked");
 
             // Fill customer form
             ExtentStepLogger.logSection("Customer Form Filling");
             
-            ExtentStepLogger.logStep("Enter first name: " + data.get("firstname"));
-            driver.findElement(By.cssSelector(OR.getProperty("firstname_CSS"))).sendKeys(data.get("firstname"));
-            ExtentStepLogger.logPass("Successfully entered first name: " + data.get("firstname"));
+            ExtentStepLogger.logStep("Enter first name: " + data.firstname);
+            type("firstname_CSS", data.firstname);
+            ExtentStepLogger.logPass("Successfully entered first name: " + data.firstname);
 
-            ExtentStepLogger.logStep("Enter last name: " + data.get("lastname"));
-            driver.findElement(By.cssSelector(OR.getProperty("lastname_CSS"))).sendKeys(data.get("lastname"));
-            ExtentStepLogger.logPass("Successfully entered last name: " + data.get("lastname"));
+            ExtentStepLogger.logStep("Enter last name: " + data.lastname);
+            type("lastname_CSS", data.lastname);
+            ExtentStepLogger.logPass("Successfully entered last name: " + data.lastname);
 
-            ExtentStepLogger.logStep("Enter post code: " + data.get("postcode"));
-            driver.findElement(By.cssSelector(OR.getProperty("postcode_CSS"))).sendKeys(data.get("postcode"));
-            ExtentStepLogger.logPassWithScreenshot("Successfully entered post code: " + data.get("postcode"), driver, "Form_Filled");
+            ExtentStepLogger.logStep("Enter post code: " + data.postcode);
+            type("postcode_CSS", data.postcode);
+            ExtentStepLogger.logPassWithScreenshot("Successfully entered post code: " + data.postcode, driver, "Form_Filled");
 
             // Submit form
             ExtentStepLogger.logSection("Form Submission");
             ExtentStepLogger.logStep("Click on Add Customer submit button");
-            driver.findElement(By.cssSelector(OR.getProperty("addbtn_CSS"))).click();
+            click("addbtn_CSS");
             ExtentStepLogger.logPass("Successfully submitted customer form");
 
             // Handle alert
@@ -86,11 +80,11 @@ public class AddCustomerTest extends TestBase {
             
             // Verification
             ExtentStepLogger.logStep("Verify alert text contains expected text");
-            boolean alertVerification = alertText.contains(data.get("alerttext"));
-            ExtentStepLogger.logVerification("Alert Text Verification", data.get("alerttext"), alertText, alertVerification);
+            boolean alertVerification = alertText.contains(data.alerttext);
+            ExtentStepLogger.logVerification("Alert Text Verification", data.alerttext, alertText, alertVerification);
             
             Assert.assertTrue(alertVerification, 
-                "Alert text '" + alertText + "' does not contain expected text '" + data.get("alerttext") + "'");
+                "Alert text '" + alertText + "' does not contain expected text '" + data.alerttext + "'");
             
             ExtentStepLogger.logStep("Accept the alert");
             alert.accept();
@@ -98,8 +92,8 @@ public class AddCustomerTest extends TestBase {
             
 
         } catch (Exception e) {
-            ExtentStepLogger.logFailWithScreenshot("Test failed for customer: " + data.get("firstname") + " " + data.get("lastname") + " - " + e.getMessage(), driver, "Customer_Add_Failed");
-            TestBase.logError("Test failed for customer: " + data.get("firstname") + " " + data.get("lastname") + " - " + e.getMessage());
+            ExtentStepLogger.logFailWithScreenshot("Test failed for customer: " + data.firstname + " " + data.lastname + " - " + e.getMessage(), driver, "Customer_Add_Failed");
+            TestBase.logError("Test failed for customer: " + data.firstname + " " + data.lastname + " - " + e.getMessage());
             throw e;
         }
 
@@ -1,7 +1,6 @@
 package com.w2a.testcases;
 
 import com.w2a.base.TestBase;
-import org.openqa.selenium.By;
 import org.testng.Assert;
 import org.testng.annotations.Test;
 
@@ -11,8 +10,9 @@ public class LoginTest extends TestBase {
         long threadId = Thread.currentThread().getId();
         logger.info("Test STARTING on thread: " + threadId);
         logger.info("LoginTest: Start executing BankManagerLoginTest");
-        getDriver().findElement(By.cssSelector(OR.getProperty("bmlBtn_CSS"))).click();
-        Assert.assertTrue(isElementPresent(By.cssSelector(OR.getProperty("addCustBtn_CSS"))), "Login not successfully");
+        getWait().clickable(locator("bmlBtn_CSS")).click();
+        // no implicit wait any more: give the manager page explicit.wait to show up
+        Assert.assertTrue(getWait().isPresent(locator("addCustBtn_CSS")), "Login not successfully");
         Thread.sleep(3000);
     }
 
@@ -1,67 +1,72 @@
 package com.w2a.testcases;
 
 import com.w2a.base.TestBase;
+import com.w2a.testdata.OpenAccountTestRow;
 import com.w2a.utilities.TestUtil;
 import com.w2a.utilities.ExtentStepLogger;
 import com.w2a.utilities.DropdownUtils;
+import com.w2a.utilities.SmartWait;
 import org.openqa.selenium.Alert;
 import org.openqa.selenium.By;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
 import org.openqa.selenium.support.ui.ExpectedConditions;
-import org.openqa.selenium.support.ui.WebDriverWait;
 import org.testng.Assert;
 import org.testng.annotations.BeforeClass;
+import org.testng.annotations.DataProvider;
 import org.testng.annotations.Test;
 
-import java.util.Hashtable;
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 public class OpenAccountTest extends TestBase {
 
 //    @BeforeClass
 //    public void loginAsManager() {
 //        getDriver().get(config.getProperty("testsiteurl"));
-//        getWait().until(ExpectedConditions.elementToBeClickable(By.cssSelector(OR.getProperty("bmlBtn_CSS")))).click();
+//        getWait().until(ExpectedConditions.elementToBeClickable(locator("bmlBtn_CSS"))).click();
 //    }
     
 
 
-    @Test(description = "Test Open Account with Valid Data", dataProviderClass = TestUtil.class, dataProvider = "dp")
-    public void openAccountTest(Hashtable<String, String> data) throws InterruptedException {
+    @Test(description = "Test Open Account with Valid Data", dataProviderClass = TestUtil.class, dataProvider = "dpTyped")
+    public void openAccountTest(OpenAccountTestRow data) throws InterruptedException {
         long threadId = Thread.currentThread().getId();
         logger.info("Test STARTING on thread: " + threadId);
         WebDriver driver = getDriver();
-        WebDriverWait wait = getWait();
+        SmartWait wait = getWait();
         driver.get(config.getProperty("testsiteurl"));
-        wait.until(ExpectedConditions.elementToBeClickable(By.cssSelector(OR.getProperty("bmlBtn_CSS")))).click();
+        wait.until(ExpectedConditions.elementToBeClickable(locator("bmlBtn_CSS"))).click();
         ExtentStepLogger.logTestStart("Open Account Test", "Test opening account with valid customer and currency");
         
         // Log test data
-        ExtentStepLogger.logTestData("Customer", data.get("customer"));
-        ExtentStepLogger.logTestData("Currency", data.get("currency"));
+        ExtentStepLogger.logTestData("Customer", data.customer);
+        ExtentStepLogger.logTestData("Currency", data.currency);
 
         
         try {
             ExtentStepLogger.logSection("Navigate to Open Account Page");
             ExtentStepLogger.logStep("Click on Open Account button");
-            WebElement openAccountSelector = driver.findElement(By.cssSelector(OR.getProperty("openaccount_CSS")));
+            WebElement openAccountSelector = wait.visible(locator("openaccount_CSS"));
             wait.until(ExpectedConditions.elementToBeClickable(openAccountSelector)).click();
             ExtentStepLogger.logPass("Successfully navigated to Open Account page");
             
             ExtentStepLogger.logSection("Select Customer");
-            By customerDropdownLocator = By.cssSelector(OR.getProperty("customer_CSS"));
-            boolean customerSelected = DropdownUtils.selectDropdownOption(driver, customerDropdownLocator, "Customer", data.get("customer"));
-            Assert.assertTrue(customerSelected, "Failed to select customer: " + data.get("customer"));
+            By customerDropdownLocator = locator("customer_CSS");
+            boolean customerSelected = DropdownUtils.selectDropdownOption(driver, customerDropdownLocator, "Customer", data.customer);
+            Assert.assertTrue(customerSelected, "Failed to select customer: " + data.customer);
             
             ExtentStepLogger.logSection("Select Currency");
-            By currencyDropdownLocator = By.cssSelector(OR.getProperty("currency_CSS"));
-            boolean currencySelected = DropdownUtils.selectDropdownOption(driver, currencyDropdownLocator, "Currency", data.get("currency"));
-            Assert.assertTrue(currencySelected, "Failed to select currency: " + data.get("currency"));
+            By currencyDropdownLocator = locator("currency_CSS");
+            boolean currencySelected = DropdownUtils.selectDropdownOption(driver, currencyDropdownLocator, "Currency", data.currency);
+            Assert.assertTrue(currencySelected, "Failed to select currency: " + data.currency);
             
             ExtentStepLogger.logSection("Submit Account Opening Form");
             ExtentStepLogger.logStep("Click on Process button to open account");
-            WebElement processButton = driver.findElement(By.cssSelector(OR.getProperty("process_CSS")));
+            WebElement processButton = wait.visible(locator("process_CSS"));
             wait.until(ExpectedConditions.elementToBeClickable(processButton)).click();
             ExtentStepLogger.logPassWithScreenshot("Successfully submitted account opening form", driver, "Account_Form_Submitted");
             
@@ -75,90 +80,83 @@ public class OpenAccountTest extends TestBase {
             Assert.assertTrue(alertVerification,
                     "Alert text '" + alertText + "' does not contain expected text '" );
             
-            ExtentStepLogger.logPass("Account opened successfully for customer: " + data.get("customer") + " with currency: " + data.get("currency"));
+            ExtentStepLogger.logPass("Account opened successfully for customer: " + data.customer + " with currency: " + data.currency);
             
         } catch (Exception e) {
-            ExtentStepLogger.logFailWithScreenshot("Open account test failed for customer: " + data.get("customer") + ", currency: " + data.get("currency") + " - " + e.getMessage(), driver, "OpenAccount_Failed");
+            ExtentStepLogger.logFailWithScreenshot("Open account test failed for customer: " + data.customer + ", currency: " + data.currency + " - " + e.getMessage(), driver, "OpenAccount_Failed");
             TestBase.logError("Open account test failed: " + e.getMessage());
             throw e;
         }
     }
 
-    @Test(description = "Test All Customer and Currency Combinations")
-    public void testAllCustomerCurrencyCombinations() throws InterruptedException {
+    // the dropdown options are read once, here; every chunk of combinations is its own parallel
+    // invocation with its own driver (combinations.chunkSize, combinations.strength)
+    @DataProvider(name = "customerCurrencyCombinations", parallel = true)
+    public Object[][] customerCurrencyCombinations(Method m) {
+        Map<String, By> dropdowns = new LinkedHashMap<>();
+        dropdowns.put("customer", locator("customer_CSS"));
+        dropdowns.put("currency", locator("currency_CSS"));
+        return TestUtil.dropdownCombinations(m, driver -> {
+            SmartWait wait = new SmartWait(driver, Duration.ofSeconds(Integer.parseInt(config.getProperty("explicit.wait"))));
+            driver.get(config.getProperty("testsiteurl"));
+            wait.until(ExpectedConditions.elementToBeClickable(locator("bmlBtn_CSS"))).click();
+            wait.until(ExpectedConditions.elementToBeClickable(locator("openaccount_CSS"))).click();
+        }, dropdowns);
+    }
+
+    @Test(description = "Test All Customer and Currency Combinations", dataProvider = "customerCurrencyCombinations")
+    public void testAllCustomerCurrencyCombinations(List<Map<String, String>> combinations) throws InterruptedException {
         long threadId = Thread.currentThread().getId();
         logger.info("Test STARTING on thread: " + threadId);
         WebDriver driver = getDriver();
-        WebDriverWait wait = getWait();
+        SmartWait wait = getWait();
         driver.get(config.getProperty("testsiteurl"));
-        wait.until(ExpectedConditions.elementToBeClickable(By.cssSelector(OR.getProperty("bmlBtn_CSS")))).click();
-        ExtentStepLogger.logTestStart("All Combinations Test", "Test all possible customer and currency combinations");
+        wait.until(ExpectedConditions.elementToBeClickable(locator("bmlBtn_CSS"))).click();
+        ExtentStepLogger.logTestStart("Customer and Currency Combinations", "Test " + combinations.size() + " customer and currency combinations");
+        ExtentStepLogger.logTestData("Combinations", combinations.toString());
         
         try {
             ExtentStepLogger.logSection("Navigate to Open Account Page");
             ExtentStepLogger.logStep("Click on Open Account button");
-            WebElement openAccountSelector = driver.findElement(By.cssSelector(OR.getProperty("openaccount_CSS")));
+            WebElement openAccountSelector = wait.visible(locator("openaccount_CSS"));
             wait.until(ExpectedConditions.elementToBeClickable(openAccountSelector)).click();
             ExtentStepLogger.logPass("Successfully navigated to Open Account page");
             
-            // Get all available options
-            By customerDropdownLocator = By.cssSelector(OR.getProperty("customer_CSS"));
-            By currencyDropdownLocator = By.cssSelector(OR.getProperty("currency_CSS"));
-            
-            List<String> customerOptions = DropdownUtils.getAllDropdownOptions(driver, customerDropdownLocator, "Customer");
-            List<String> currencyOptions = DropdownUtils.getAllDropdownOptions(driver, currencyDropdownLocator, "Currency");
+            By customerDropdownLocator = locator("customer_CSS");
+            By currencyDropdownLocator = locator("currency_CSS");
             
-            // Remove default options
-            customerOptions.removeIf(option -> option.contains("---") || option.isEmpty());
-            currencyOptions.removeIf(option -> option.contains("---") || option.isEmpty());
-            
-            ExtentStepLogger.logTestData("Available Customers", customerOptions.toString());
-            ExtentStepLogger.logTestData("Available Currencies", currencyOptions.toString());
-            
-            ExtentStepLogger.logSection("Test All Combinations");
-            int totalCombinations = customerOptions.size() * currencyOptions.size();
+            ExtentStepLogger.logSection("Test Combinations");
             int currentCombination = 0;
             
-            for (String customer : customerOptions) {
-                for (String currency : currencyOptions) {
-                    currentCombination++;
-                    ExtentStepLogger.logStep("Testing combination " + currentCombination + "/" + totalCombinations + 
-                        ": Customer=" + customer + ", Currency=" + currency);
-                    
-                    // Select customer
-                    boolean customerSelected = DropdownUtils.selectDropdownOption(driver, customerDropdownLocator, "Customer", customer);
-                    if (!customerSelected) {
-                        ExtentStepLogger.logWarning("Failed to select customer: " + customer);
-                        continue;
-                    }
-                    
-                    // Select currency
-                    boolean currencySelected = DropdownUtils.selectDropdownOption(driver, currencyDropdownLocator, "Currency", currency);
-                    if (!currencySelected) {
-                        ExtentStepLogger.logWarning("Failed to select currency: " + currency);
-                        continue;
-                    }
-                    
-                    // Submit form
-                    WebElement processButton = driver.findElement(By.cssSelector(OR.getProperty("process_CSS")));
-                    wait.until(ExpectedConditions.elementToBeClickable(processButton)).click();
-                    Alert alert = wait.until(ExpectedConditions.alertIsPresent());
-                    alert.accept();
-                    
-                    ExtentStepLogger.logPass("Successfully tested combination: " + customer + " + " + currency);
-                    
-                    // Navigate back to form for next iteration
-//                    if (currentCombination < totalCombinations) {
-//                        wait.until(ExpectedConditions.elementToBeClickable(openAccountSelector)).click();
-//                    }
-                }
+            for (Map<String, String> combination : combinations) {
+                String customer = combination.get("customer");
+                String currency = combination.get("currency");
+                currentCombination++;
+                ExtentStepLogger.logStep("Testing combination " + currentCombination + "/" + combinations.size() + 
+                    ": Customer=" + customer + ", Currency=" + currency);
+                
+                // Select customer
+                boolean customerSelected = DropdownUtils.selectDropdownOption(driver, customerDropdownLocator, "Customer", customer);
+                Assert.assertTrue(customerSelected, "Failed to select customer: " + customer);
+                
+                // Select currency
+                boolean currencySelected = DropdownUtils.selectDropdownOption(driver, currencyDropdownLocator, "Currency", currency);
+                Assert.assertTrue(currencySelected, "Failed to select currency: " + currency);
+                
+                // Submit form
+                WebElement processButton = wait.visible(locator("process_CSS"));
+                wait.until(ExpectedConditions.elementToBeClickable(processButton)).click();
+                Alert alert = wait.until(ExpectedConditions.alertIsPresent());
+                alert.accept();
+                
+                ExtentStepLogger.logPass("Successfully tested combination: " + customer + " + " + currency);
             }
             
-            ExtentStepLogger.logPass("All customer and currency combinations tested successfully");
+            ExtentStepLogger.logPass("Customer and currency combinations tested successfully");
             
-        } catch (Exception e) {
-            ExtentStepLogger.logFailWithScreenshot("All combinations test failed: " + e.getMessage(), driver, "AllCombinations_Failed");
-            TestBase.logError("All combinations test failed: " + e.getMessage());
+        } catch (Exception | AssertionError e) {
+            ExtentStepLogger.logFailWithScreenshot("Combinations test failed: " + e.getMessage(), driver, "Combinations_Failed");
+            TestBase.logError("Combinations test failed: " + e.getMessage());
             throw e;
         }
     }
@@ -0,0 +1,101 @@
+package com.w2a.unit;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.testng.Assert;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import com.w2a.utilities.Combinations;
+import com.w2a.utilities.CsvDataSource;
+import com.w2a.utilities.TestUtil;
+
+/**
+ * Combinations must cover every t-way tuple; the coverage is recounted from the returned values,
+ * not taken from the engine's own bookkeeping.
+ */
+public class CombinationsTest {
+
+    @DataProvider(name = "dimensions")
+    public Object[][] dimensions() {
+        Map<String, List<String>> dropdowns = new LinkedHashMap<>();
+        dropdowns.put("customer", Arrays.asList("Hermoine Granger", "Harry Potter", "Ron Weasly", "Albus Dumbledore", "Neville Longbottom", "Raman Arora"));
+        dropdowns.put("currency", Arrays.asList("Dollar", "Pound", "Rupee"));
+
+        // the dropdowns plus the other inputs of an account test
+        Map<String, List<String>> account = new LinkedHashMap<>(dropdowns);
+        account.put("deposit", Arrays.asList("0", "1", "100", "99999"));
+        account.put("withdrawal", Arrays.asList("0", "1", "balance", "balance+1"));
+        account.put("browser", Arrays.asList("chrome", "firefox", "edge"));
+
+        return new Object[][] {
+                { "customer x currency", dropdowns, 1 },
+                { "customer x currency", dropdowns, 2 },
+                { "account", account, 2 },
+                { "account", account, 3 },
+                { "3^4", uniform(4, 3), 2 },
+                { "2^10", uniform(10, 2), 2 },
+                { "3^13", uniform(13, 3), 2 },
+                { "10^5", uniform(5, 10), 2 },
+                { "4^6", uniform(6, 4), 3 },
+                { "2^20", uniform(20, 2), 3 },
+        };
+    }
+
+    @Test(dataProvider = "dimensions")
+    public void everyTupleIsCovered(String label, Map<String, List<String>> dimensions, int strength) {
+        Combinations combinations = Combinations.of(dimensions, strength, 1);
+
+        List<List<String>> values = new ArrayList<>(dimensions.values());
+        int[] sizes = values.stream().mapToInt(List::size).toArray();
+        List<String[]> rows = combinations.getRows();
+        int[][] indexes = new int[rows.size()][];
+        for (int r = 0; r < indexes.length; r++) {
+            indexes[r] = new int[sizes.length];
+            for (int d = 0; d < sizes.length; d++) {
+                indexes[r][d] = values.get(d).indexOf(rows.get(r)[d]);
+                Assert.assertTrue(indexes[r][d] >= 0, label + ": unknown value " + rows.get(r)[d]);
+            }
+        }
+        Combinations.Coverage coverage = Combinations.coverage(sizes, indexes, strength);
+        Assert.assertEquals(coverage.coveredTuples, coverage.tuples, label + ", t=" + strength + ": " + coverage);
+    }
+
+    @Test
+    public void runmodeIsNotADimension() throws IOException {
+        File dir = Workbooks.file("combinations");
+        dir.mkdirs();
+        Files.write(new File(dir, "Matrix.csv").toPath(), Arrays.asList(
+                "browser,os,RunMode",
+                "chrome,windows,Y",
+                "edge,linux,y",
+                "firefox,mac,N"), StandardCharsets.UTF_8);
+
+        Combinations combinations = TestUtil.getCombinations(new CsvDataSource(dir), "Matrix", 2);
+        Assert.assertEquals(Arrays.asList(combinations.getNames()), Arrays.asList("browser", "os"));
+        for (String[] row : combinations.getRows()) {
+            Assert.assertNotEquals(row[0], "firefox", "value of a runmode N row");
+            Assert.assertNotEquals(row[1], "mac", "value of a runmode N row");
+        }
+        Assert.assertEquals(combinations.getRows().size(), 4);
+    }
+
+    private static Map<String, List<String>> uniform(int dimensions, int values) {
+        Map<String, List<String>> result = new LinkedHashMap<>();
+        for (int d = 0; d < dimensions; d++) {
+            List<String> options = new ArrayList<>();
+            for (int v = 0; v < values; v++)
+                options.add("v" + v);
+            result.put("d" + d, options);
+        }
+        return result;
+    }
+}
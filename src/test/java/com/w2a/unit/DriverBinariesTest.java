@@ -0,0 +1,51 @@
+package com.w2a.unit;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.testng.Assert;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import com.w2a.utilities.DriverBinaries;
+
+/**
+ * Offline driver resolution against a fake WebDriverManager-style cache: the newest version wins,
+ * a pinned one is found and memoised, and a missing driver fails.
+ */
+public class DriverBinariesTest {
+
+    private File cache;
+
+    @BeforeClass
+    public void createCache() throws Exception {
+        String binary = System.getProperty("os.name").toLowerCase().startsWith("windows") ? "chromedriver.exe" : "chromedriver";
+        cache = Workbooks.file("drivers");
+        for (String version : new String[] { "99.0.4844.51", "119.0.6045.105", "120.0.6099.109" }) {
+            Path driver = cache.toPath().resolve("chromedriver/linux64/" + version + "/" + binary);
+            Files.createDirectories(driver.getParent());
+            if (!Files.exists(driver))
+                Files.createFile(driver);
+        }
+    }
+
+    @Test
+    public void newestVersionWins() {
+        DriverBinaries.Resolution newest = DriverBinaries.resolve("chrome", true, cache, null);
+        Assert.assertTrue(newest.path.contains("120.0.6099.109"), newest.toString());
+    }
+
+    @Test
+    public void pinnedVersionIsFoundOnce() {
+        DriverBinaries.Resolution pinned = DriverBinaries.resolve("chrome", true, cache, "99.0.4844.51");
+        Assert.assertTrue(pinned.path.contains("99.0.4844.51"), pinned.toString());
+        Assert.assertEquals(System.getProperty("webdriver.chrome.driver"), pinned.path);
+        Assert.assertSame(DriverBinaries.resolve("chrome", true, cache, "99.0.4844.51"), pinned);
+    }
+
+    @Test(expectedExceptions = IllegalStateException.class)
+    public void missingDriverFails() {
+        DriverBinaries.resolve("firefox", true, cache, null);
+    }
+}
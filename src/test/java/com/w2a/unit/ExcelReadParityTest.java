@@ -0,0 +1,83 @@
+package com.w2a.unit;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.testng.Assert;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import com.w2a.utilities.ExcelReader;
+
+/**
+ * The streaming load and the binary cache must return the same cell text as the XSSFWorkbook (DOM)
+ * load, for every cell type and for ragged, header-only and empty sheets.
+ */
+public class ExcelReadParityTest {
+
+    private File mixed;
+    private File testdata;
+
+    @BeforeClass
+    public void createWorkbooks() throws Exception {
+        mixed = Workbooks.mixed("parity.xlsx");
+        testdata = new File(System.getProperty("user.dir"), "src/test/resources/excel/testdata.xlsx");
+    }
+
+    @Test
+    public void streamingMatchesDomForEveryCellType() throws Exception {
+        assertSameCells(mixed, new ExcelReader(mixed.getPath(), false), new ExcelReader(mixed.getPath(), true));
+    }
+
+    @Test
+    public void streamingMatchesDomForTestData() throws Exception {
+        assertSameCells(testdata, new ExcelReader(testdata.getPath(), false), new ExcelReader(testdata.getPath(), true));
+    }
+
+    @Test
+    public void booleansAndErrorsReadLikeTheDomPath() {
+        ExcelReader stream = new ExcelReader(mixed.getPath(), true);
+        Assert.assertEquals(stream.getCellData("Types", "flag", 3), "true");
+        Assert.assertEquals(stream.getCellData("Types", "flag", 2), "false");
+        Assert.assertEquals(stream.getCellData("Types", "flagText", 3), "TRUE");
+        Assert.assertEquals(stream.getCellData("Types", "error", 2), "");
+    }
+
+    @Test
+    public void binaryCacheMatchesDom() throws Exception {
+        File cacheFile = Workbooks.file("parity.xlsx.bin");
+        Files.deleteIfExists(cacheFile.toPath());
+        ExcelReader dom = new ExcelReader(mixed.getPath(), false);
+        // the first reader writes the cache, the second one reads it back
+        assertSameCells(mixed, dom, ExcelReader.withBinaryCache(mixed.getPath(), cacheFile));
+        Assert.assertTrue(cacheFile.isFile(), "cache not written");
+        assertSameCells(mixed, dom, ExcelReader.withBinaryCache(mixed.getPath(), cacheFile));
+    }
+
+    private static void assertSameCells(File workbook, ExcelReader expected, ExcelReader actual) throws Exception {
+        for (String sheetName : sheetNames(workbook)) {
+            int rows = expected.getRowCount(sheetName);
+            int columns = expected.getColumnCount(sheetName);
+            Assert.assertEquals(actual.getRowCount(sheetName), rows, sheetName + " row count");
+            Assert.assertEquals(actual.getColumnCount(sheetName), columns, sheetName + " column count");
+            for (int r = 1; r <= rows; r++)
+                for (int c = 0; c < Math.max(columns, 1); c++)
+                    Assert.assertEquals(actual.getCellData(sheetName, r, c), expected.getCellData(sheetName, r, c),
+                            sheetName + " row " + r + ", column " + c);
+        }
+    }
+
+    private static List<String> sheetNames(File workbook) throws Exception {
+        List<String> names = new ArrayList<>();
+        // opened from a stream: a workbook opened from the File is written back on close
+        try (FileInputStream in = new FileInputStream(workbook); XSSFWorkbook wb = new XSSFWorkbook(in)) {
+            for (int s = 0; s < wb.getNumberOfSheets(); s++)
+                names.add(wb.getSheetName(s));
+        }
+        return names;
+    }
+}
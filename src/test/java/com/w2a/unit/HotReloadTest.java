@@ -0,0 +1,116 @@
+package com.w2a.unit;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import com.w2a.utilities.ExcelReader;
+import com.w2a.utilities.SheetSnapshot;
+
+/**
+ * Hot reload of a watched workbook saved in place (the watcher sees the half-written file first) and
+ * through a temp file and rename: the edit becomes visible, untouched sheets keep their snapshot, and
+ * reader threads scanning the edited sheet never see a snapshot that mixes two versions of the file.
+ */
+public class HotReloadTest {
+
+    private static final int SHEETS = 2;
+
+    private File file;
+    private ExcelReader reader;
+
+    @BeforeMethod
+    public void watchWorkbook() throws Exception {
+        File source = Workbooks.customers("hotreload_source.xlsx", 2000, SHEETS);
+        file = Workbooks.file("hotreload.xlsx");
+        // saved once through XSSFWorkbook, so later saves only change the parts that were edited
+        edit(source, file, null, null, false);
+        reader = new ExcelReader(file.getPath(), true);
+        for (int s = 0; s < SHEETS; s++)
+            reader.getSnapshot("Sheet" + s);
+        reader.enableHotReload(200);
+    }
+
+    @AfterMethod(alwaysRun = true)
+    public void stopWatching() {
+        if (reader != null)
+            reader.disableHotReload();
+    }
+
+    @Test
+    public void inPlaceSave() throws Exception {
+        assertReloaded("Edited in place", false);
+    }
+
+    @Test
+    public void saveByRename() throws Exception {
+        assertReloaded("Saved by rename", true);
+    }
+
+    private void assertReloaded(String value, boolean viaRename) throws Exception {
+        SheetSnapshot untouched = reader.getSnapshot("Sheet1");
+        AtomicBoolean running = new AtomicBoolean(true);
+        AtomicReference<String> mixed = new AtomicReference<>();
+        Thread[] scanners = new Thread[4];
+        for (int t = 0; t < scanners.length; t++) {
+            scanners[t] = new Thread(() -> {
+                while (running.get() && mixed.get() == null) {
+                    // every data row carries the same alerttext, old or new, never a mix
+                    SheetSnapshot sheet = reader.getSnapshot("Sheet0");
+                    String expected = sheet.getCellData("alerttext", 2);
+                    for (int r = 3; r <= sheet.getRowCount(); r++)
+                        if (!sheet.getCellData("alerttext", r).equals(expected))
+                            mixed.compareAndSet(null, "snapshot mixes versions at row " + r);
+                    Thread.yield();
+                }
+            });
+            scanners[t].start();
+        }
+        try {
+            edit(file, file, "Sheet0", value, viaRename);
+            long deadline = System.currentTimeMillis() + 20000;
+            while (!reader.getCellData("Sheet0", "alerttext", 2).equals(value) && System.currentTimeMillis() < deadline)
+                Thread.sleep(20);
+        } finally {
+            running.set(false);
+            for (Thread scanner : scanners)
+                scanner.join();
+        }
+        Assert.assertNull(mixed.get());
+        Assert.assertEquals(reader.getCellData("Sheet0", "alerttext", 2), value, "edit not reloaded");
+        Assert.assertEquals(reader.getCellData("Sheet0", "alerttext", 2001), value);
+        Assert.assertSame(reader.getSnapshot("Sheet1"), untouched, "untouched sheet reloaded");
+    }
+
+    // sets the alerttext of every data row of a sheet (or only re-saves when sheetName is null)
+    private static void edit(File from, File to, String sheetName, String value, boolean viaRename) throws Exception {
+        XSSFWorkbook workbook;
+        try (FileInputStream in = new FileInputStream(from)) {
+            workbook = new XSSFWorkbook(in);
+        }
+        if (sheetName != null) {
+            for (int r = 1; r <= workbook.getSheet(sheetName).getLastRowNum(); r++) {
+                // inline strings (as written by SXSSF) keep their old text unless the cell is blanked first
+                workbook.getSheet(sheetName).getRow(r).getCell(3).setBlank();
+                workbook.getSheet(sheetName).getRow(r).getCell(3).setCellValue(value);
+            }
+        }
+        File target = viaRename ? new File(to.getPath() + ".saving") : to;
+        try (FileOutputStream out = new FileOutputStream(target)) {
+            workbook.write(out);
+        }
+        workbook.close();
+        if (viaRename)
+            Files.move(target.toPath(), to.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+}
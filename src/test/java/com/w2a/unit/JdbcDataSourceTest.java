@@ -0,0 +1,106 @@
+package com.w2a.unit;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import com.w2a.base.TestBase;
+import com.w2a.utilities.ConnectionPool;
+import com.w2a.utilities.JdbcDataSource;
+import com.w2a.utilities.TestUtil;
+
+/**
+ * JdbcDataSource against an in-process H2 database: the rows must equal the Excel rows of the same
+ * sheet, and data provider threads must share the pool without exceeding it.
+ */
+public class JdbcDataSourceTest {
+
+    private static final String URL = "jdbc:h2:mem:unit;DB_CLOSE_DELAY=-1";
+    private static final int CUSTOMERS = 1000;
+
+    private Object[][] excelRows;
+    private ConnectionPool pool;
+    private JdbcDataSource source;
+
+    @BeforeClass
+    public void createTables() throws Exception {
+        excelRows = TestUtil.getData(TestBase.excel, "AddCustomerTest");
+        try (Connection connection = DriverManager.getConnection(URL); Statement ddl = connection.createStatement()) {
+            ddl.execute("CREATE TABLE AddCustomerTest (\"firstname\" VARCHAR, \"lastname\" VARCHAR, \"postcode\" VARCHAR, \"alerttext\" VARCHAR, \"runmode\" VARCHAR)");
+            ddl.execute("CREATE TABLE Customers (\"firstname\" VARCHAR, \"lastname\" VARCHAR, \"postcode\" VARCHAR, \"runmode\" VARCHAR)");
+            try (PreparedStatement insert = connection.prepareStatement("INSERT INTO AddCustomerTest VALUES (?, ?, ?, ?, ?)")) {
+                for (Object[] row : excelRows) {
+                    @SuppressWarnings("unchecked")
+                    Map<String, String> data = (Map<String, String>) row[0];
+                    insert.setString(1, data.get("firstname"));
+                    insert.setString(2, data.get("lastname"));
+                    insert.setString(3, data.get("postcode"));
+                    insert.setString(4, data.get("alerttext"));
+                    insert.setString(5, data.get("runmode"));
+                    insert.executeUpdate();
+                }
+            }
+            try (PreparedStatement insert = connection.prepareStatement("INSERT INTO Customers VALUES (?, ?, ?, ?)")) {
+                for (int r = 1; r <= CUSTOMERS; r++) {
+                    insert.setString(1, "First" + r);
+                    insert.setString(2, "Last" + r);
+                    insert.setString(3, "E" + (10000 + r));
+                    insert.setString(4, r % 5 == 0 ? "N" : "Y");
+                    insert.addBatch();
+                }
+                insert.executeBatch();
+            }
+        }
+        pool = new ConnectionPool(URL, null, null, 2, 30000);
+        source = new JdbcDataSource(pool, new Properties(), 100);
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void closePool() throws Exception {
+        if (pool != null)
+            pool.close();
+    }
+
+    @Test
+    public void rowsEqualTheExcelRows() {
+        Object[][] jdbcRows = TestUtil.getData(source, "addcustomertest");
+        Assert.assertTrue(excelRows.length > 0, "no AddCustomerTest rows in testdata.xlsx");
+        Assert.assertEquals(jdbcRows.length, excelRows.length);
+        for (int i = 0; i < jdbcRows.length; i++)
+            Assert.assertEquals(jdbcRows[i][0], excelRows[i][0], "row " + i);
+    }
+
+    @Test
+    public void missingTableHasNoRows() throws Exception {
+        Assert.assertNull(source.rows("NoSuchSheet"));
+    }
+
+    @Test
+    public void threadsShareThePool() throws Exception {
+        int threads = 4;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<Integer>> results = new ArrayList<>();
+            for (int t = 0; t < threads; t++)
+                results.add(executor.submit(() -> TestUtil.getData(source, "Customers").length));
+            for (Future<Integer> result : results)
+                Assert.assertEquals((int) result.get(), CUSTOMERS - CUSTOMERS / 5);
+        } finally {
+            executor.shutdown();
+        }
+        Assert.assertTrue(pool.openConnections() <= 2, pool.openConnections() + " connections open on a pool of 2");
+    }
+}
@@ -0,0 +1,55 @@
+package com.w2a.unit;
+
+import java.io.FileInputStream;
+import java.io.StringReader;
+import java.util.Properties;
+
+import org.openqa.selenium.By;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import com.w2a.utilities.LocatorRegistry;
+
+/**
+ * OR.properties must build, and a repository with mistakes must be rejected with every mistake listed.
+ */
+public class LocatorRegistryTest {
+
+    @Test
+    public void repositoryBuilds() throws Exception {
+        Properties or = new LocatorRegistry.LocatorProperties();
+        try (FileInputStream fis = new FileInputStream(System.getProperty("user.dir") + "/src/test/resources/properties/OR.properties")) {
+            or.load(fis);
+        }
+        LocatorRegistry registry = LocatorRegistry.of(or);
+        Assert.assertEquals(registry.keys(), or.stringPropertyNames());
+        Assert.assertSame(registry.get("lastname_CSS"), registry.get("lastname_CSS"));
+        Assert.assertEquals(registry.get("lastname_CSS"), By.cssSelector(or.getProperty("lastname_CSS").trim()));
+    }
+
+    @Test
+    public void everyMistakeIsListed() throws Exception {
+        Properties broken = new LocatorRegistry.LocatorProperties();
+        broken.load(new StringReader("ok_CSS=#userSelect\nok_CSS=#customer\n"));
+        broken.setProperty("bracket_CSS", "button[ng-click='manager()'");
+        broken.setProperty("quote_CSS", "input[ng-model='fName]");
+        broken.setProperty("path_XPATH", "//button[@type='submit'");
+        broken.setProperty("space_ID", "user select");
+        broken.setProperty("empty_CSS", " ");
+        broken.setProperty("submitButton", "button[type='submit']");
+        try {
+            LocatorRegistry.of(broken);
+            Assert.fail("broken repository accepted");
+        } catch (IllegalStateException e) {
+            for (String key : new String[] { "ok_CSS: defined twice", "bracket_CSS", "quote_CSS", "path_XPATH", "space_ID", "empty_CSS", "submitButton" })
+                Assert.assertTrue(e.getMessage().contains(key), key + " not reported in: " + e.getMessage());
+        }
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void unknownKeyFails() throws Exception {
+        Properties or = new LocatorRegistry.LocatorProperties();
+        or.load(new StringReader("lastname_CSS=input[ng-model='lName']\n"));
+        LocatorRegistry.of(or).get("lastName_CSS");
+    }
+}
@@ -0,0 +1,94 @@
+package com.w2a.unit;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.testng.Assert;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import com.w2a.utilities.ExcelReader;
+import com.w2a.utilities.SheetSnapshot;
+
+/**
+ * ExcelReader.getSnapshot under concurrent first loads: a fresh reader per round, all threads
+ * released at once, each reading every cell of every sheet in its own order. Every thread's
+ * checksum must equal the single-threaded one.
+ */
+public class SheetSnapshotConcurrencyTest {
+
+    private static final int SHEETS = 4;
+    private static final int ROUNDS = 3;
+
+    private File workbook;
+
+    @BeforeClass
+    public void createWorkbook() throws Exception {
+        workbook = Workbooks.customers("snapshot_concurrency.xlsx", 500, SHEETS);
+    }
+
+    @DataProvider(name = "modes")
+    public Object[][] modes() {
+        List<Object[]> modes = new ArrayList<>();
+        for (boolean streaming : new boolean[] { false, true })
+            for (int threads : new int[] { 1, 4, 32 })
+                modes.add(new Object[] { streaming, threads });
+        return modes.toArray(new Object[modes.size()][]);
+    }
+
+    @Test(dataProvider = "modes")
+    public void everyThreadSeesTheSameCells(boolean streaming, int threads) throws Exception {
+        long expected = checksum(new ExcelReader(workbook.getPath(), streaming), 0);
+        for (int round = 0; round < ROUNDS; round++) {
+            List<Long> results = run(new ExcelReader(workbook.getPath(), streaming), threads);
+            for (int t = 0; t < results.size(); t++)
+                Assert.assertEquals((long) results.get(t), expected, "round " + round + ", thread " + t);
+        }
+    }
+
+    private static List<Long> run(ExcelReader reader, int threads) throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<Long>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                final int offset = t;
+                futures.add(pool.submit(() -> {
+                    start.await();
+                    return checksum(reader, offset);
+                }));
+            }
+            start.countDown();
+            List<Long> results = new ArrayList<>();
+            for (Future<Long> future : futures)
+                results.add(future.get());
+            return results;
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    // order-independent checksum over every cell; offset only changes the visiting order
+    private static long checksum(ExcelReader reader, int offset) {
+        long sum = 0;
+        for (int s = 0; s < SHEETS; s++) {
+            String sheetName = "Sheet" + ((s + offset) % SHEETS);
+            SheetSnapshot snapshot = reader.getSnapshot(sheetName);
+            int rowCount = snapshot.getRowCount();
+            for (int i = 0; i < rowCount; i++) {
+                int rowNum = (i + offset * 31) % rowCount + 1;
+                for (int c = 0; c < snapshot.getColumnCount(); c++) {
+                    String value = snapshot.getCellData(rowNum, c);
+                    sum += (long) (sheetName.hashCode() * 31 + rowNum) * 131 + c + value.hashCode() * 7919L;
+                }
+            }
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,76 @@
+package com.w2a.unit;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.List;
+
+import org.testng.Assert;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import com.w2a.utilities.CsvDataSource;
+import com.w2a.utilities.ExcelDataSource;
+import com.w2a.utilities.ExcelReader;
+import com.w2a.utilities.JsonLinesDataSource;
+import com.w2a.utilities.SyntheticDataGenerator;
+import com.w2a.utilities.TestDataSource;
+
+/**
+ * Seeded AddCustomerTest and OpenAccountTest rows written as xlsx, CSV and JSON-lines must stream
+ * back through their TestDataSource equal to the generator's rows, with the requested runmode ratio.
+ */
+public class SyntheticDataTest {
+
+    private static final int ROWS = 2000;
+
+    private List<SyntheticDataGenerator> sheets;
+    private File dir;
+
+    @BeforeClass
+    public void writeFiles() throws Exception {
+        ExcelReader samples = new ExcelReader(System.getProperty("user.dir") + "/src/test/resources/excel/testdata.xlsx", true);
+        sheets = Arrays.asList(
+                new SyntheticDataGenerator(samples.getSnapshot("AddCustomerTest"), 42, 0.8),
+                new SyntheticDataGenerator(samples.getSnapshot("OpenAccountTest"), 42, 0.8));
+        dir = Workbooks.file("synthetic");
+        dir.mkdirs();
+        for (SyntheticDataGenerator.RowSink sink : new SyntheticDataGenerator.RowSink[] {
+                SyntheticDataGenerator.xlsx(new File(dir, "synthetic.xlsx")), SyntheticDataGenerator.csv(dir), SyntheticDataGenerator.jsonLines(dir) }) {
+            try (SyntheticDataGenerator.RowSink out = sink) {
+                SyntheticDataGenerator.generate(sheets, ROWS, out);
+            }
+        }
+    }
+
+    @DataProvider(name = "sources")
+    public Object[][] sources() {
+        return new Object[][] {
+                { new ExcelDataSource(new ExcelReader(new File(dir, "synthetic.xlsx").getPath(), true)) },
+                { new CsvDataSource(dir) },
+                { new JsonLinesDataSource(dir) },
+        };
+    }
+
+    @Test(dataProvider = "sources")
+    public void rowsReadBackEqual(TestDataSource source) throws Exception {
+        for (SyntheticDataGenerator sheet : sheets) {
+            String label = source.getName() + " " + sheet.getSheetName();
+            String[] header = sheet.getHeader();
+            String[] expected = new String[header.length];
+            long[] count = { 0 };
+            long[] runnable = { 0 };
+            source.stream(sheet.getSheetName(), row -> {
+                sheet.fill(++count[0], expected);
+                for (int c = 0; c < header.length; c++)
+                    Assert.assertEquals(row.get(header[c]), expected[c], label + " row " + count[0] + " column " + header[c]);
+                if (!"N".equals(row.get("runmode")))
+                    runnable[0]++;
+            });
+            Assert.assertEquals(count[0], ROWS, label);
+            // sheets without a runmode column run every row
+            double share = Arrays.asList(header).contains("runmode") ? 0.8 : 1.0;
+            Assert.assertEquals(runnable[0] / (double) ROWS, share, 0.05, label + " runnable share");
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.w2a.unit;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.NoAlertPresentException;
+import org.openqa.selenium.NoSuchSessionException;
+import org.openqa.selenium.WebDriver;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import com.w2a.utilities.WebDriverPool;
+
+/**
+ * WebDriverPool on 4 threads with stand-in drivers, every 25th invocation killing its session:
+ * a dead session is never handed out again, no more than 4 are ever open and none are left open.
+ */
+public class WebDriverPoolTest {
+
+    private static final int INVOCATIONS = 100;
+
+    private final AtomicInteger started = new AtomicInteger();
+    private final AtomicInteger live = new AtomicInteger();
+    private final AtomicInteger maxLive = new AtomicInteger();
+
+    @Test
+    public void sessionsAreReusedAndBounded() throws Exception {
+        WebDriverPool pool = new WebDriverPool(this::launch, "http://localhost/#/login", 4, 60_000);
+        ExecutorService threads = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> results = new ArrayList<>();
+            for (int i = 0; i < INVOCATIONS; i++) {
+                int invocation = i;
+                results.add(threads.submit(() -> {
+                    WebDriver driver = pool.borrow();
+                    try {
+                        // a quit session throws on use, so a test body on a dead session fails here
+                        for (int c = 0; c < 10; c++)
+                            driver.getTitle();
+                        if (invocation % 25 == 24)
+                            driver.quit(); // browser crashed mid-test
+                    } finally {
+                        pool.release(driver);
+                    }
+                }));
+            }
+            for (Future<?> result : results)
+                result.get();
+        } finally {
+            threads.shutdown();
+            pool.close();
+        }
+        Assert.assertTrue(maxLive.get() <= 4, maxLive.get() + " sessions open at once");
+        Assert.assertEquals(live.get(), 0, "sessions left open");
+        Assert.assertTrue(started.get() < INVOCATIONS, started.get() + " sessions started for " + INVOCATIONS + " invocations");
+    }
+
+    // a WebDriver that only counts its sessions
+    private WebDriver launch() {
+        started.incrementAndGet();
+        maxLive.accumulateAndGet(live.incrementAndGet(), Math::max);
+        Set<String> state = ConcurrentHashMap.newKeySet();
+        return (WebDriver) Proxy.newProxyInstance(WebDriverPoolTest.class.getClassLoader(),
+                new Class<?>[] { WebDriver.class, JavascriptExecutor.class }, (proxy, method, args) -> {
+                    if (method.getName().equals("quit")) {
+                        // like RemoteWebDriver, quitting twice is harmless
+                        if (state.add("quit"))
+                            live.decrementAndGet();
+                        return null;
+                    }
+                    if (state.contains("quit"))
+                        throw new NoSuchSessionException("Session is gone");
+                    switch (method.getName()) {
+                    case "switchTo":
+                    case "manage":
+                        // alert() throws NoAlertPresentException, deleteAllCookies() is a command
+                        return Proxy.newProxyInstance(WebDriverPoolTest.class.getClassLoader(),
+                                new Class<?>[] { method.getReturnType() }, (p, m, a) -> {
+                                    if (m.getName().equals("alert"))
+                                        throw new NoAlertPresentException();
+                                    return null;
+                                });
+                    case "hashCode":
+                        return System.identityHashCode(proxy);
+                    case "equals":
+                        return proxy == args[0];
+                    case "toString":
+                        return "StandInDriver";
+                    default:
+                        return method.getReturnType() == String.class ? "" : null;
+                    }
+                });
+    }
+}
@@ -0,0 +1,102 @@
+package com.w2a.unit;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Calendar;
+
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+
+/**
+ * Small workbooks for the unit suite, written under target/unit.
+ */
+final class Workbooks {
+
+    static final String[] COLUMNS = { "firstname", "lastname", "postcode", "alerttext", "runmode" };
+
+    private Workbooks() {
+    }
+
+    static File file(String name) {
+        File file = new File(System.getProperty("user.dir"), "target/unit/" + name);
+        file.getParentFile().mkdirs();
+        return file;
+    }
+
+    // Sheet0..Sheet<sheets-1>, each a header row and rows of customer data; every 5th row has runmode N
+    static File customers(String name, int rows, int sheets) throws IOException {
+        File target = file(name);
+        try (SXSSFWorkbook wb = new SXSSFWorkbook(100); FileOutputStream out = new FileOutputStream(target)) {
+            for (int s = 0; s < sheets; s++) {
+                Sheet sheet = wb.createSheet("Sheet" + s);
+                Row header = sheet.createRow(0);
+                for (int c = 0; c < COLUMNS.length; c++)
+                    header.createCell(c).setCellValue(COLUMNS[c]);
+                for (int r = 1; r <= rows; r++) {
+                    Row row = sheet.createRow(r);
+                    row.createCell(0).setCellValue("First" + r);
+                    row.createCell(1).setCellValue("Last" + r);
+                    row.createCell(2).setCellValue("E" + (10000 + r));
+                    row.createCell(3).setCellValue("Customer added successfully");
+                    row.createCell(4).setCellValue(r % 5 == 0 ? "N" : "Y");
+                }
+            }
+            wb.write(out);
+            wb.dispose();
+        }
+        return target;
+    }
+
+    // every cell type the readers decode, plus a ragged sheet, a sheet without data rows and an empty one
+    static File mixed(String name) throws IOException {
+        File target = file(name);
+        try (XSSFWorkbook wb = new XSSFWorkbook(); FileOutputStream out = new FileOutputStream(target)) {
+            CellStyle dateStyle = wb.createCellStyle();
+            dateStyle.setDataFormat(wb.getCreationHelper().createDataFormat().getFormat("dd-MM-yyyy"));
+
+            Sheet types = wb.createSheet("Types");
+            String[] header = { "text", "flag", "flagText", "number", "decimal", "date", "error", "formula", "blank", "last" };
+            Row row = types.createRow(0);
+            for (int c = 0; c < header.length; c++)
+                row.createCell(c).setCellValue(header[c]);
+            for (int r = 1; r <= 3; r++) {
+                row = types.createRow(r);
+                row.createCell(0).setCellValue("Row " + r);
+                row.createCell(1).setCellValue(r % 2 == 0);
+                row.createCell(2).setCellValue(r % 2 == 0 ? "TRUE" : "FALSE");
+                row.createCell(3).setCellValue(r * 100);
+                row.createCell(4).setCellValue(r + 0.25);
+                Calendar date = Calendar.getInstance();
+                date.clear();
+                date.set(2024, Calendar.JANUARY, r);
+                row.createCell(5).setCellValue(date);
+                row.getCell(5).setCellStyle(dateStyle);
+                row.createCell(6).setCellFormula("1/0");
+                row.createCell(7).setCellFormula("D" + (r + 1) + ">150");
+                row.createCell(9).setCellValue("end");
+            }
+
+            Sheet ragged = wb.createSheet("Ragged");
+            row = ragged.createRow(0);
+            row.createCell(0).setCellValue("a");
+            row.createCell(1).setCellValue("b");
+            row.createCell(2).setCellValue("c");
+            ragged.createRow(1).createCell(0).setCellValue("only a");
+            ragged.createRow(3).createCell(2).setCellValue("only c, after a missing row");
+            row = ragged.createRow(4);
+            row.createCell(0).setCellValue("a4");
+            row.createCell(4).setCellValue("past the header");
+
+            wb.createSheet("HeaderOnly").createRow(0).createCell(0).setCellValue("name");
+            wb.createSheet("Empty");
+
+            wb.getCreationHelper().createFormulaEvaluator().evaluateAll();
+            wb.write(out);
+        }
+        return target;
+    }
+}
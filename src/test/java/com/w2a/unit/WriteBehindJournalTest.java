@@ -0,0 +1,93 @@
+package com.w2a.unit;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+
+import org.testng.Assert;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import com.w2a.utilities.ExcelReader;
+import com.w2a.utilities.ExcelWriteBuffer;
+
+/**
+ * Write-behind recovery: writes journaled by a run that never flushed are replayed by the next
+ * reader, and a commit only drops the writes it covered from the journal.
+ */
+public class WriteBehindJournalTest {
+
+    private File source;
+
+    @BeforeClass
+    public void createWorkbook() throws Exception {
+        source = Workbooks.customers("write_behind.xlsx", 20, 1);
+    }
+
+    @Test
+    public void unflushedWritesAreReplayed() throws Exception {
+        File workbook = copy("crash");
+        ExcelReader crashed = new ExcelReader(workbook.getPath(), true);
+        crashed.enableWriteBehind(Integer.MAX_VALUE, Long.MAX_VALUE);
+        Assert.assertTrue(crashed.setCellData("Sheet0", "firstname", 2, "Recovered\tvalue"));
+        Assert.assertTrue(crashed.setCellData("Sheet0", "lastname", 3, "http", "file:///tmp/shot.png"));
+        // no flush: the file still holds the old values
+        Assert.assertEquals(new ExcelReader(workbook.getPath(), true).getCellData("Sheet0", "firstname", 2), "First1");
+
+        ExcelReader restarted = new ExcelReader(workbook.getPath(), true);
+        restarted.enableWriteBehind(500, 30000);
+        Assert.assertEquals(restarted.getCellData("Sheet0", "firstname", 2), "Recovered\tvalue");
+        Assert.assertEquals(restarted.getCellData("Sheet0", "lastname", 3), "http");
+        Assert.assertFalse(journal(workbook).exists(), "journal left after the replay");
+
+        ExcelReader reopened = new ExcelReader(workbook.getPath(), true);
+        Assert.assertEquals(reopened.getCellData("Sheet0", "firstname", 2), "Recovered\tvalue");
+        Assert.assertEquals(reopened.getCellData("Sheet0", "firstname", 4), "First3");
+    }
+
+    @Test
+    public void flushCommitsAndRemovesTheJournal() throws Exception {
+        File workbook = copy("flush");
+        ExcelReader reader = new ExcelReader(workbook.getPath(), true);
+        reader.enableWriteBehind(Integer.MAX_VALUE, Long.MAX_VALUE);
+        for (int r = 2; r <= 21; r++)
+            Assert.assertTrue(reader.setCellData("Sheet0", "runmode", r, "PASS"));
+        Assert.assertTrue(journal(workbook).exists(), "writes not journaled");
+        Assert.assertTrue(reader.flush());
+        Assert.assertFalse(journal(workbook).exists(), "journal left after the flush");
+
+        ExcelReader reopened = new ExcelReader(workbook.getPath(), true);
+        for (int r = 2; r <= 21; r++)
+            Assert.assertEquals(reopened.getCellData("Sheet0", "runmode", r), "PASS", "row " + r);
+    }
+
+    @Test
+    public void committedKeepsWritesAddedAfterDrain() throws Exception {
+        File workbook = copy("commit");
+        ExcelWriteBuffer buffer = new ExcelWriteBuffer(workbook.getPath(), Integer.MAX_VALUE, Long.MAX_VALUE);
+        buffer.add(new ExcelWriteBuffer.PendingWrite("Sheet0", "runmode", 2, "PASS", null));
+        buffer.add(new ExcelWriteBuffer.PendingWrite("Sheet0", "runmode", 3, "FAIL", null));
+        List<ExcelWriteBuffer.PendingWrite> drained = buffer.drain();
+        buffer.add(new ExcelWriteBuffer.PendingWrite("Sheet0", "runmode", 4, "SKIP", null));
+        buffer.committed(drained.size());
+        buffer.closeJournal();
+
+        List<ExcelWriteBuffer.PendingWrite> recovered = new ExcelWriteBuffer(workbook.getPath(), Integer.MAX_VALUE, Long.MAX_VALUE).recover();
+        Assert.assertEquals(recovered.size(), 1);
+        Assert.assertEquals(recovered.get(0).rowNum, 4);
+        Assert.assertEquals(recovered.get(0).data, "SKIP");
+    }
+
+    private File copy(String suffix) throws IOException {
+        File target = Workbooks.file(source.getName().replace(".xlsx", "_" + suffix + ".xlsx"));
+        Files.copy(source.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        Files.deleteIfExists(journal(target).toPath());
+        return target;
+    }
+
+    private static File journal(File workbook) {
+        return new File(workbook.getPath() + ".journal");
+    }
+}
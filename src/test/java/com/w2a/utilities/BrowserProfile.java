@@ -0,0 +1,52 @@
+package com.w2a.utilities;
+
+import java.util.Locale;
+
+import org.openqa.selenium.PageLoadStrategy;
+import org.openqa.selenium.chrome.ChromeOptions;
+
+/**
+ * How createDriver starts Chrome, chosen with browser.profile in Config.properties or -Dbrowser.profile.
+ *
+ * DEBUG is the visible browser the suite always used, full screen, pages loaded completely.
+ * FAST is for unattended runs: new headless mode at a fixed small viewport, no extensions, no
+ * background networking or component updates, and the eager page load strategy, which returns from
+ * get() once the DOM is ready instead of waiting for images and stylesheets. The tests wait for their
+ * elements explicitly, so they do not depend on the full load.
+ */
+public enum BrowserProfile {
+
+    FAST, DEBUG;
+
+    /**
+     * @param name fast or debug, any case
+     */
+    public static BrowserProfile of(String name) {
+        try {
+            return valueOf(name.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown browser.profile '" + name + "', expected fast or debug");
+        }
+    }
+
+    /**
+     * @return true if the window should be made full screen after start, which a headless one does not need
+     */
+    public boolean isFullscreen() {
+        return this == DEBUG;
+    }
+
+    /**
+     * @param windowSize Viewport of the headless window as width,height, e.g. 1280,800
+     */
+    public ChromeOptions chromeOptions(String windowSize) {
+        ChromeOptions options = new ChromeOptions();
+        if (this == DEBUG)
+            return options;
+        options.addArguments("--headless=new", "--window-size=" + windowSize,
+                "--disable-extensions", "--disable-background-networking", "--disable-component-update",
+                "--disable-default-apps", "--disable-sync", "--no-first-run", "--no-default-browser-check");
+        options.setPageLoadStrategy(PageLoadStrategy.EAGER);
+        return options;
+    }
+}
@@ -0,0 +1,316 @@
+package com.w2a.utilities;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeFormatterBuilder;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoField;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.CellType;
+import org.apache.poi.ss.usermodel.CellValue;
+import org.apache.poi.ss.usermodel.Date1904Support;
+import org.apache.poi.ss.usermodel.DateUtil;
+import org.apache.poi.ss.usermodel.FormulaEvaluator;
+
+/**
+ * Turns cells into the text ExcelReader reports and into typed values.
+ * Numbers read as String.valueOf(double), date-formatted numbers as MM/dd/yy, booleans as true/false.
+ * Formula cells are decoded from their evaluated result. All methods are stateless and thread-safe;
+ * the formatters are immutable and shared, so no formatter or Calendar is built per cell.
+ */
+public final class CellDecoder {
+
+    /**
+     * Version of the cell text produced here; raise it whenever format() would return different text
+     * for some cell, so caches of decoded sheets (ExcelBinaryCache) are rebuilt instead of trusted
+     */
+    public static final int OUTPUT_VERSION = 2;
+
+    /**
+     * MM/dd/yy; two-digit years resolve within 80 years back and 20 years ahead, like SimpleDateFormat
+     */
+    public static final DateTimeFormatter DATE_FORMAT = new DateTimeFormatterBuilder()
+            .appendPattern("MM/dd/")
+            .appendValueReduced(ChronoField.YEAR, 2, 2, LocalDate.now().minusYears(80))
+            .toFormatter(Locale.ROOT);
+
+    // parsing also takes single-digit days and months and four-digit years
+    private static final DateTimeFormatter[] PARSED_DATE_FORMATS = {
+            new DateTimeFormatterBuilder()
+                    .appendPattern("M/d/")
+                    .appendValueReduced(ChronoField.YEAR, 2, 4, LocalDate.now().minusYears(80))
+                    .toFormatter(Locale.ROOT),
+            DateTimeFormatter.ISO_LOCAL_DATE
+    };
+
+    private static final long DAY_MILLIS = 86_400_000L;
+    // epoch days of serial date 0: 30 Dec 1899 in the 1900 date system, 1 Jan 1904 in the 1904 one
+    private static final long EPOCH_DAY_1900 = LocalDate.of(1899, 12, 30).toEpochDay();
+    private static final long EPOCH_DAY_1904 = LocalDate.of(1904, 1, 1).toEpochDay();
+
+    private static final int MAX_CACHED_FORMATS = 1024;
+    private static final Map<String, Boolean> DATE_FORMATS = new ConcurrentHashMap<>();
+
+    private CellDecoder() {
+    }
+
+    /**
+     * @param cell Cell to format, may be null
+     * @param evaluator Evaluator of the cell's workbook, or null to use the result cached in the file
+     * @return the cell text, "" for missing, blank and error cells
+     */
+    public static String format(Cell cell, FormulaEvaluator evaluator) {
+        if (cell == null)
+            return "";
+        switch (cell.getCellType()) {
+            case STRING:
+                return cell.getStringCellValue();
+            case NUMERIC:
+                return formatNumber(cell, cell.getNumericCellValue());
+            case BOOLEAN:
+                return String.valueOf(cell.getBooleanCellValue());
+            case FORMULA:
+                return formatFormula(cell, evaluator);
+            default:
+                return "";
+        }
+    }
+
+    /**
+     * @param value Raw numeric cell value
+     * @param dateFormatted true if the cell style is a date format
+     * @param use1904Windowing true for workbooks using the 1904 date system
+     * @return the value the way ExcelReader reports it
+     */
+    public static String formatNumber(double value, boolean dateFormatted, boolean use1904Windowing) {
+        if (!dateFormatted || !DateUtil.isValidExcelDate(value))
+            return String.valueOf(value);
+        // MM/dd/yy written directly; same text as DATE_FORMAT without its per-call parsing context
+        LocalDate date = excelDate(value, use1904Windowing);
+        int month = date.getMonthValue();
+        int day = date.getDayOfMonth();
+        int year = Math.floorMod(date.getYear(), 100);
+        return new String(new char[] { digit(month / 10), digit(month % 10), '/', digit(day / 10), digit(day % 10), '/',
+                digit(year / 10), digit(year % 10) });
+    }
+
+    private static char digit(int value) {
+        return (char) ('0' + value);
+    }
+
+    /**
+     * @return the calendar date of an Excel serial date; the time of day is dropped after rounding to the
+     *         millisecond, as DateUtil does. Unlike DateUtil.getLocalDateTime this allocates only the LocalDate.
+     */
+    static LocalDate excelDate(double value, boolean use1904Windowing) {
+        long wholeDays = (long) Math.floor(value);
+        if (Math.round((value - wholeDays) * DAY_MILLIS) >= DAY_MILLIS)
+            wholeDays++;
+        if (use1904Windowing)
+            return LocalDate.ofEpochDay(wholeDays + EPOCH_DAY_1904);
+        // serial 60 is Excel's fictitious 29 Feb 1900, so earlier serials are one day closer to the epoch
+        return LocalDate.ofEpochDay(wholeDays + (wholeDays < 61 ? EPOCH_DAY_1900 + 1 : EPOCH_DAY_1900));
+    }
+
+    /**
+     * DateUtil.isADateFormat, remembered per format string: a workbook has a handful of formats, and the
+     * check builds and matches several regular expressions on every call
+     */
+    public static boolean isDateFormat(int formatIndex, String formatString) {
+        if (formatString == null)
+            return DateUtil.isInternalDateFormat(formatIndex);
+        Boolean known = DATE_FORMATS.get(formatString);
+        if (known == null) {
+            known = DateUtil.isADateFormat(formatIndex, formatString);
+            if (DATE_FORMATS.size() < MAX_CACHED_FORMATS)
+                DATE_FORMATS.put(formatString, known);
+        }
+        return known;
+    }
+
+    private static String formatNumber(Cell cell, double value) {
+        return formatNumber(value, isDateFormatted(cell), isDate1904(cell));
+    }
+
+    // from the style alone, so it also works for formulas whose cached result has a different type
+    private static boolean isDateFormatted(Cell cell) {
+        CellStyle style = cell.getCellStyle();
+        return style != null && isDateFormat(style.getDataFormat(), style.getDataFormatString());
+    }
+
+    private static boolean isDate1904(Cell cell) {
+        Object workbook = cell.getSheet().getWorkbook();
+        return workbook instanceof Date1904Support && ((Date1904Support) workbook).isDate1904();
+    }
+
+    private static String formatFormula(Cell cell, FormulaEvaluator evaluator) {
+        CellValue value = evaluate(cell, evaluator);
+        if (value == null) {
+            switch (cell.getCachedFormulaResultType()) {
+                case NUMERIC:
+                    return formatNumber(cell, cell.getNumericCellValue());
+                case STRING:
+                    return cell.getStringCellValue();
+                case BOOLEAN:
+                    return String.valueOf(cell.getBooleanCellValue());
+                default:
+                    return "";
+            }
+        }
+        switch (value.getCellType()) {
+            case NUMERIC:
+                return formatNumber(cell, value.getNumberValue());
+            case STRING:
+                return value.getStringValue();
+            case BOOLEAN:
+                return String.valueOf(value.getBooleanValue());
+            default:
+                return "";
+        }
+    }
+
+    // null when there is no evaluator or the formula cannot be evaluated (external links, unsupported functions)
+    private static CellValue evaluate(Cell cell, FormulaEvaluator evaluator) {
+        if (evaluator == null)
+            return null;
+        try {
+            return evaluator.evaluate(cell);
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+
+    /**
+     * @return the numeric value of a numeric cell or numeric formula, read without formatting it
+     * @throws IllegalArgumentException if the cell holds anything else
+     */
+    public static double toDouble(Cell cell, FormulaEvaluator evaluator) {
+        if (cell != null && cell.getCellType() == CellType.NUMERIC)
+            return cell.getNumericCellValue();
+        if (cell != null && cell.getCellType() == CellType.FORMULA) {
+            CellValue value = evaluate(cell, evaluator);
+            if (value != null && value.getCellType() == CellType.NUMERIC)
+                return value.getNumberValue();
+            if (value == null && cell.getCachedFormulaResultType() == CellType.NUMERIC)
+                return cell.getNumericCellValue();
+        }
+        return toDouble(format(cell, evaluator));
+    }
+
+    /**
+     * @throws IllegalArgumentException if the cell is not a whole number within long range
+     */
+    public static long toLong(Cell cell, FormulaEvaluator evaluator) {
+        double value = toDouble(cell, evaluator);
+        return toLong(value, String.valueOf(value));
+    }
+
+    /**
+     * @throws IllegalArgumentException if the cell is not a whole number within int range
+     */
+    public static int toInt(Cell cell, FormulaEvaluator evaluator) {
+        long value = toLong(cell, evaluator);
+        return toInt(value, String.valueOf(value));
+    }
+
+    /**
+     * @return the date of a date-formatted cell or formula, or the parsed text otherwise
+     */
+    public static LocalDate toDate(Cell cell, FormulaEvaluator evaluator) {
+        boolean numeric = cell != null && (cell.getCellType() == CellType.NUMERIC || cell.getCellType() == CellType.FORMULA);
+        if (numeric && isDateFormatted(cell)) {
+            double value = toDouble(cell, evaluator);
+            if (DateUtil.isValidExcelDate(value))
+                return excelDate(value, isDate1904(cell));
+        }
+        return toDate(format(cell, evaluator));
+    }
+
+    /**
+     * @return the value of a boolean cell or formula, or the parsed text otherwise
+     */
+    public static boolean toBoolean(Cell cell, FormulaEvaluator evaluator) {
+        if (cell != null && cell.getCellType() == CellType.BOOLEAN)
+            return cell.getBooleanCellValue();
+        return toBoolean(format(cell, evaluator));
+    }
+
+    /**
+     * @param text Cell text, e.g. "42", "42.0" (how numeric cells read) or "4.2E7"
+     * @throws IllegalArgumentException if the text is not a number
+     */
+    public static double toDouble(String text) {
+        try {
+            return Double.parseDouble(text.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Not a number: '" + text + "'");
+        }
+    }
+
+    /**
+     * @param text Cell text; "42.0" is accepted since numeric cells read that way
+     * @throws IllegalArgumentException if the text is not a whole number within long range
+     */
+    public static long toLong(String text) {
+        String trimmed = text.trim();
+        try {
+            return Long.parseLong(trimmed);
+        } catch (NumberFormatException e) {
+            // fall through to the double form
+        }
+        return toLong(toDouble(trimmed), text);
+    }
+
+    private static long toLong(double value, String source) {
+        if (value != Math.rint(value) || value < Long.MIN_VALUE || value >= 0x1p63)
+            throw new IllegalArgumentException("Not a whole number: '" + source + "'");
+        return (long) value;
+    }
+
+    /**
+     * @throws IllegalArgumentException if the text is not a whole number within int range
+     */
+    public static int toInt(String text) {
+        return toInt(toLong(text), text);
+    }
+
+    private static int toInt(long value, String source) {
+        if (value < Integer.MIN_VALUE || value > Integer.MAX_VALUE)
+            throw new IllegalArgumentException("Out of int range: '" + source + "'");
+        return (int) value;
+    }
+
+    /**
+     * @param text MM/dd/yy (how date cells read), M/d/yyyy or ISO yyyy-MM-dd (CSV, JSON and database sources)
+     * @throws IllegalArgumentException if the text is not a date in one of these forms
+     */
+    public static LocalDate toDate(String text) {
+        String trimmed = text.trim();
+        for (DateTimeFormatter format : PARSED_DATE_FORMATS) {
+            try {
+                return LocalDate.parse(trimmed, format);
+            } catch (DateTimeParseException e) {
+                // try the next form
+            }
+        }
+        throw new IllegalArgumentException("Not a date: '" + text + "'");
+    }
+
+    /**
+     * @param text true/false or Y/N (the runmode convention), case-insensitive
+     * @throws IllegalArgumentException for anything else
+     */
+    public static boolean toBoolean(String text) {
+        String trimmed = text.trim();
+        if (trimmed.equalsIgnoreCase("true") || trimmed.equalsIgnoreCase("Y"))
+            return true;
+        if (trimmed.equalsIgnoreCase("false") || trimmed.equalsIgnoreCase("N"))
+            return false;
+        throw new IllegalArgumentException("Not a boolean: '" + text + "'");
+    }
+}
@@ -0,0 +1,328 @@
+package com.w2a.utilities;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * Covering sets of value combinations over named dimensions (dropdowns, data columns).
+ *
+ * Strength t means every combination of values of any t dimensions appears in at least one row:
+ * 1 is each value at least once, 2 pairwise, and t at or above the number of dimensions is the full
+ * Cartesian product. Rows for t below that are built greedily in the AETG manner: each row starts
+ * from an uncovered t-tuple, the remaining dimensions take the value covering most uncovered tuples,
+ * and the best of a few seeded candidates is kept. The result is small, not provably minimal, and
+ * the same for the same input and seed.
+ */
+public final class Combinations {
+
+    private static final int CANDIDATES = 20;
+
+    /**
+     * Share of the t-tuples a set of rows covers
+     */
+    public static final class Coverage {
+        public final int strength;
+        public final int rows;
+        public final long exhaustiveRows;
+        public final long tuples;
+        public final long coveredTuples;
+
+        Coverage(int strength, int rows, long exhaustiveRows, long tuples, long coveredTuples) {
+            this.strength = strength;
+            this.rows = rows;
+            this.exhaustiveRows = exhaustiveRows;
+            this.tuples = tuples;
+            this.coveredTuples = coveredTuples;
+        }
+
+        public double percent() {
+            return tuples == 0 ? 100 : coveredTuples * 100.0 / tuples;
+        }
+
+        @Override
+        public String toString() {
+            return rows + " rows cover " + coveredTuples + "/" + tuples + " " + strength + "-wise combinations ("
+                    + Math.round(percent() * 10) / 10.0 + "%), exhaustive is " + exhaustiveRows + " rows";
+        }
+    }
+
+    private final String[] names;
+    private final List<List<String>> values;
+    private final int[][] rows;
+    private final Coverage coverage;
+
+    private Combinations(String[] names, List<List<String>> values, int[][] rows, Coverage coverage) {
+        this.names = names;
+        this.values = values;
+        this.rows = rows;
+        this.coverage = coverage;
+    }
+
+    /**
+     * @param dimensions Values per dimension, in column order; a dimension without values is left out
+     * @param strength 1 for each value once, 2 for pairwise, ...; 0 or more than the dimensions for all combinations
+     * @param seed Tie-breaking seed; the same seed gives the same rows
+     */
+    public static Combinations of(Map<String, ? extends List<String>> dimensions, int strength, long seed) {
+        List<String> names = new ArrayList<>();
+        List<List<String>> values = new ArrayList<>();
+        for (Map.Entry<String, ? extends List<String>> dimension : dimensions.entrySet()) {
+            if (dimension.getValue().isEmpty())
+                continue;
+            names.add(dimension.getKey());
+            values.add(Collections.unmodifiableList(new ArrayList<>(dimension.getValue())));
+        }
+        int[] sizes = new int[values.size()];
+        for (int d = 0; d < sizes.length; d++)
+            sizes[d] = values.get(d).size();
+        int t = strength <= 0 ? sizes.length : Math.min(strength, sizes.length);
+        int[][] rows = sizes.length == 0 ? new int[0][] : t == sizes.length ? exhaustive(sizes) : cover(sizes, t, seed);
+        return new Combinations(names.toArray(new String[0]), values, rows, coverage(sizes, rows, t));
+    }
+
+    /**
+     * @return dimension names of the row values, in order
+     */
+    public String[] getNames() {
+        return names.clone();
+    }
+
+    /**
+     * @return the rows, each holding one value per dimension in getNames() order
+     */
+    public List<String[]> getRows() {
+        List<String[]> result = new ArrayList<>(rows.length);
+        for (int[] row : rows) {
+            String[] cells = new String[row.length];
+            for (int d = 0; d < row.length; d++)
+                cells[d] = values.get(d).get(row[d]);
+            result.add(cells);
+        }
+        return result;
+    }
+
+    /**
+     * @return the rows as maps from dimension name to value
+     */
+    public List<Map<String, String>> getRowMaps() {
+        List<Map<String, String>> result = new ArrayList<>(rows.length);
+        for (String[] cells : getRows()) {
+            Map<String, String> row = new LinkedHashMap<>();
+            for (int d = 0; d < cells.length; d++)
+                row.put(names[d], cells[d]);
+            result.add(row);
+        }
+        return result;
+    }
+
+    public Coverage getCoverage() {
+        return coverage;
+    }
+
+    /**
+     * @param sizes Values per dimension
+     * @param rows Rows of value indexes, e.g. an existing data sheet
+     * @param strength t; 0 or more than the dimensions means all of them
+     * @return how many t-tuples the rows cover
+     */
+    public static Coverage coverage(int[] sizes, int[][] rows, int strength) {
+        int t = strength <= 0 ? sizes.length : Math.min(strength, sizes.length);
+        Tuples tuples = new Tuples(sizes, t);
+        BitSet covered = new BitSet();
+        for (int[] row : rows)
+            tuples.mark(row, covered);
+        return new Coverage(t, rows.length, product(sizes), tuples.total, covered.cardinality());
+    }
+
+    private static int[][] exhaustive(int[] sizes) {
+        long count = product(sizes);
+        if (count > Integer.MAX_VALUE - 8)
+            throw new IllegalArgumentException("Too many combinations to enumerate: " + count);
+        int[][] rows = new int[(int) count][];
+        int[] row = new int[sizes.length];
+        for (int r = 0; r < rows.length; r++) {
+            rows[r] = row.clone();
+            // odometer, last dimension fastest, like nested loops
+            for (int d = sizes.length - 1; d >= 0; d--) {
+                if (++row[d] < sizes[d])
+                    break;
+                row[d] = 0;
+            }
+        }
+        return rows;
+    }
+
+    private static int[][] cover(int[] sizes, int t, long seed) {
+        Tuples tuples = new Tuples(sizes, t);
+        BitSet uncovered = new BitSet();
+        uncovered.set(0, (int) tuples.total);
+        SplittableRandom random = new SplittableRandom(seed);
+        List<int[]> rows = new ArrayList<>();
+        int[] order = new int[sizes.length];
+        while (!uncovered.isEmpty()) {
+            int[] best = null;
+            int bestGain = -1;
+            for (int candidate = 0; candidate < CANDIDATES; candidate++) {
+                int[] row = new int[sizes.length];
+                Arrays.fill(row, -1);
+                // seed the row with an uncovered tuple, starting the search at a random point
+                int start = uncovered.nextSetBit(random.nextInt((int) tuples.total));
+                tuples.assign(start < 0 ? uncovered.nextSetBit(0) : start, row);
+                shuffle(order, random);
+                for (int d : order) {
+                    if (row[d] >= 0)
+                        continue;
+                    int bestValue = 0;
+                    int bestCount = -1;
+                    int offset = random.nextInt(sizes[d]);
+                    for (int i = 0; i < sizes[d]; i++) {
+                        int v = (offset + i) % sizes[d];
+                        row[d] = v;
+                        int count = tuples.countNew(row, d, uncovered);
+                        if (count > bestCount) {
+                            bestCount = count;
+                            bestValue = v;
+                        }
+                    }
+                    row[d] = bestValue;
+                }
+                int gain = tuples.countNew(row, -1, uncovered);
+                if (gain > bestGain) {
+                    bestGain = gain;
+                    best = row;
+                }
+            }
+            tuples.clear(best, uncovered);
+            rows.add(best);
+        }
+        return rows.toArray(new int[rows.size()][]);
+    }
+
+    private static void shuffle(int[] order, SplittableRandom random) {
+        for (int i = 0; i < order.length; i++)
+            order[i] = i;
+        for (int i = order.length - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int swap = order[i];
+            order[i] = order[j];
+            order[j] = swap;
+        }
+    }
+
+    private static long product(int[] sizes) {
+        long product = 1;
+        for (int size : sizes)
+            product = size == 0 || product <= Long.MAX_VALUE / size ? product * size : Long.MAX_VALUE;
+        return product;
+    }
+
+    /**
+     * Numbering of all t-tuples: each t-subset of dimensions (in lexicographic order) gets a block of
+     * ids, and a tuple's id within the block is its values read as a mixed-radix number.
+     */
+    private static final class Tuples {
+        final int[] sizes;
+        final int[][] subsets;
+        final int[] offsets;
+        final int[][] subsetsOf; // per dimension, the subsets containing it
+        final long total;
+
+        Tuples(int[] sizes, int t) {
+            this.sizes = sizes;
+            List<int[]> all = new ArrayList<>();
+            subsets(sizes.length, t, 0, new int[t], 0, all);
+            this.subsets = all.toArray(new int[all.size()][]);
+            this.offsets = new int[subsets.length];
+            long next = 0;
+            for (int s = 0; s < subsets.length; s++) {
+                if (next > Integer.MAX_VALUE - 8)
+                    throw new IllegalArgumentException("Too many " + t + "-wise combinations: more than " + next);
+                offsets[s] = (int) next;
+                long block = 1;
+                for (int d : subsets[s])
+                    block *= sizes[d];
+                next += block;
+            }
+            this.total = next;
+            List<List<Integer>> byDimension = new ArrayList<>();
+            for (int d = 0; d < sizes.length; d++)
+                byDimension.add(new ArrayList<>());
+            for (int s = 0; s < subsets.length; s++)
+                for (int d : subsets[s])
+                    byDimension.get(d).add(s);
+            this.subsetsOf = new int[sizes.length][];
+            for (int d = 0; d < sizes.length; d++)
+                subsetsOf[d] = byDimension.get(d).stream().mapToInt(Integer::intValue).toArray();
+        }
+
+        private static void subsets(int n, int t, int from, int[] current, int depth, List<int[]> out) {
+            if (depth == t) {
+                out.add(current.clone());
+                return;
+            }
+            for (int d = from; d <= n - (t - depth); d++) {
+                current[depth] = d;
+                subsets(n, t, d + 1, current, depth + 1, out);
+            }
+        }
+
+        // id of the subset's tuple in the row, or -1 while one of its dimensions is unassigned
+        int id(int s, int[] row) {
+            int id = 0;
+            for (int d : subsets[s]) {
+                if (row[d] < 0)
+                    return -1;
+                id = id * sizes[d] + row[d];
+            }
+            return offsets[s] + id;
+        }
+
+        // writes the values of tuple id into the row
+        void assign(int id, int[] row) {
+            int s = Arrays.binarySearch(offsets, id);
+            if (s < 0)
+                s = -s - 2;
+            int rest = id - offsets[s];
+            int[] dims = subsets[s];
+            for (int i = dims.length - 1; i >= 0; i--) {
+                row[dims[i]] = rest % sizes[dims[i]];
+                rest /= sizes[dims[i]];
+            }
+        }
+
+        // uncovered tuples the (partial) row completes: those containing dimension d, or all if d < 0
+        int countNew(int[] row, int d, BitSet uncovered) {
+            int count = 0;
+            if (d < 0) {
+                for (int s = 0; s < subsets.length; s++) {
+                    int id = id(s, row);
+                    if (id >= 0 && uncovered.get(id))
+                        count++;
+                }
+            } else {
+                for (int s : subsetsOf[d]) {
+                    int id = id(s, row);
+                    if (id >= 0 && uncovered.get(id))
+                        count++;
+                }
+            }
+            return count;
+        }
+
+        void clear(int[] row, BitSet uncovered) {
+            for (int s = 0; s < subsets.length; s++)
+                uncovered.clear(id(s, row));
+        }
+
+        void mark(int[] row, BitSet covered) {
+            for (int s = 0; s < subsets.length; s++)
+                covered.set(id(s, row));
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package com.w2a.utilities;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Small fixed-size JDBC connection pool for the test data backends. Connections are opened lazily
+ * up to maxSize, checked with isValid() when borrowed, and replaced if they went stale.
+ * Callers must hand every borrowed connection back with {@link #release(Connection)}.
+ */
+public class ConnectionPool implements AutoCloseable {
+
+    private static final int VALIDATION_TIMEOUT_SECONDS = 2;
+
+    private final String url;
+    private final String user;
+    private final String password;
+    private final long borrowTimeoutMillis;
+    private final BlockingQueue<Connection> idle;
+    private final AtomicInteger open = new AtomicInteger();
+    private final int maxSize;
+    private volatile boolean closed;
+
+    /**
+     * @param url JDBC url
+     * @param user Database user, may be null
+     * @param password Database password, may be null
+     * @param maxSize Maximum number of open connections
+     * @param borrowTimeoutMillis How long borrow() waits for a free connection before failing
+     */
+    public ConnectionPool(String url, String user, String password, int maxSize, long borrowTimeoutMillis) {
+        this.url = url;
+        this.user = user;
+        this.password = password;
+        this.maxSize = Math.max(maxSize, 1);
+        this.borrowTimeoutMillis = borrowTimeoutMillis;
+        this.idle = new ArrayBlockingQueue<>(this.maxSize);
+    }
+
+    /**
+     * @return an open connection; blocks while all maxSize connections are in use
+     * @throws SQLException if no connection can be opened or none became free in time
+     */
+    public Connection borrow() throws SQLException {
+        if (closed)
+            throw new SQLException("Connection pool is closed");
+        while (true) {
+            Connection connection = idle.poll();
+            if (connection == null && reserve())
+                return open();
+            if (connection == null) {
+                try {
+                    connection = idle.poll(borrowTimeoutMillis, TimeUnit.MILLISECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new SQLException("Interrupted while waiting for a connection", e);
+                }
+                if (connection == null)
+                    throw new SQLException("No connection free after " + borrowTimeoutMillis + " ms (pool size " + maxSize + ")");
+            }
+            if (connection.isValid(VALIDATION_TIMEOUT_SECONDS))
+                return connection;
+            discard(connection);
+        }
+    }
+
+    /**
+     * Returns a borrowed connection; it is closed instead if the pool was closed meanwhile
+     */
+    public void release(Connection connection) {
+        if (connection == null)
+            return;
+        try {
+            if (!connection.getAutoCommit())
+                connection.setAutoCommit(true);
+        } catch (SQLException e) {
+            discard(connection);
+            return;
+        }
+        if (closed || !idle.offer(connection))
+            discard(connection);
+    }
+
+    /**
+     * @return number of connections currently open (idle or borrowed)
+     */
+    public int openConnections() {
+        return open.get();
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        Connection connection;
+        while ((connection = idle.poll()) != null)
+            discard(connection);
+    }
+
+    private boolean reserve() {
+        while (true) {
+            int current = open.get();
+            if (current >= maxSize)
+                return false;
+            if (open.compareAndSet(current, current + 1))
+                return true;
+        }
+    }
+
+    private Connection open() throws SQLException {
+        try {
+            return user == null ? DriverManager.getConnection(url) : DriverManager.getConnection(url, user, password);
+        } catch (SQLException | RuntimeException e) {
+            open.decrementAndGet();
+            throw e;
+        }
+    }
+
+    private void discard(Connection connection) {
+        open.decrementAndGet();
+        try {
+            connection.close();
+        } catch (SQLException e) {
+            // already broken
+        }
+    }
+}
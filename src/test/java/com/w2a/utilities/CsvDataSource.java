@@ -0,0 +1,166 @@
+package com.w2a.utilities;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * TestDataSource over one CSV file per sheet: {@code <dir>/<sheetName>.csv}, UTF-8, first record
+ * is the header. Quoted fields (RFC 4180) may contain commas, doubled quotes and line breaks.
+ *
+ * Rows are parsed one at a time straight from a char buffer into a reused StringBuilder,
+ * so the only allocations per row are its field Strings and the values array.
+ */
+public class CsvDataSource implements TestDataSource {
+
+    private final File dir;
+
+    /**
+     * @param dir Directory holding the .csv files
+     */
+    public CsvDataSource(File dir) {
+        this.dir = dir;
+    }
+
+    @Override
+    public String getName() {
+        return "csv";
+    }
+
+    @Override
+    public Iterator<DataRow> rows(String sheetName) throws IOException {
+        File file = DataFiles.find(dir, sheetName, ".csv");
+        if (file == null)
+            return null;
+        return new Rows(new InputStreamReader(new FileInputStream(file), StandardCharsets.UTF_8), file.getName());
+    }
+
+    private static final class Rows implements Iterator<DataRow>, Closeable {
+
+        private final Reader reader;
+        private final String fileName;
+        private final char[] buffer = new char[1 << 16];
+        private final StringBuilder field = new StringBuilder(64);
+        private int position;
+        private int limit;
+        private boolean eof;
+
+        private HeaderIndex header;
+        private String[] record = new String[16];
+        private int width;
+        private DataRow next;
+
+        Rows(Reader reader, String fileName) throws IOException {
+            this.reader = reader;
+            this.fileName = fileName;
+            if (fill() && buffer[0] == '\uFEFF')
+                position = 1;
+            header = new HeaderIndex(readRecord() ? Arrays.copyOf(record, width) : new String[0]);
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (next != null)
+                return true;
+            try {
+                if (!readRecord()) {
+                    close();
+                    return false;
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot read " + fileName, e);
+            }
+            // a blank line is an empty row, the same as an empty row in a sheet
+            next = new DataRow(header, width == 1 && record[0].isEmpty() ? new String[0] : Arrays.copyOf(record, width));
+            return true;
+        }
+
+        @Override
+        public DataRow next() {
+            if (!hasNext())
+                throw new NoSuchElementException();
+            DataRow row = next;
+            next = null;
+            return row;
+        }
+
+        @Override
+        public void close() throws IOException {
+            reader.close();
+        }
+
+        // reads the next record into record[0..width); false at end of file
+        private boolean readRecord() throws IOException {
+            width = 0;
+            if (position >= limit && !fill())
+                return false;
+            boolean quoted = false;
+            boolean wasQuoted = false;
+            field.setLength(0);
+            while (true) {
+                if (position >= limit && !fill()) {
+                    addField();
+                    return true;
+                }
+                char c = buffer[position++];
+                if (quoted) {
+                    if (c != '"') {
+                        field.append(c);
+                    } else if (peek() == '"') {
+                        field.append('"');
+                        position++;
+                    } else {
+                        quoted = false;
+                    }
+                } else if (c == '"' && field.length() == 0 && !wasQuoted) {
+                    quoted = true;
+                    wasQuoted = true;
+                } else if (c == ',') {
+                    addField();
+                    wasQuoted = false;
+                } else if (c == '\n' || c == '\r') {
+                    if (c == '\r' && peek() == '\n')
+                        position++;
+                    addField();
+                    return true;
+                } else {
+                    field.append(c);
+                }
+            }
+        }
+
+        private int peek() throws IOException {
+            if (position >= limit && !fill())
+                return -1;
+            return buffer[position];
+        }
+
+        private void addField() {
+            if (width == record.length)
+                record = Arrays.copyOf(record, width * 2);
+            record[width++] = field.toString();
+            field.setLength(0);
+        }
+
+        private boolean fill() throws IOException {
+            if (eof)
+                return false;
+            int read = reader.read(buffer, 0, buffer.length);
+            if (read <= 0) {
+                eof = true;
+                return false;
+            }
+            position = 0;
+            limit = read;
+            return true;
+        }
+    }
+}
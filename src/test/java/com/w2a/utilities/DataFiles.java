@@ -0,0 +1,29 @@
+package com.w2a.utilities;
+
+import java.io.File;
+
+/**
+ * File lookup shared by the file-per-sheet TestDataSource backends
+ */
+final class DataFiles {
+
+    private DataFiles() {
+    }
+
+    /**
+     * @return {@code <dir>/<sheetName><extension>}, matching the name case-insensitively like Excel sheet names,
+     *         or null if there is no such file
+     */
+    static File find(File dir, String sheetName, String extension) {
+        File exact = new File(dir, sheetName + extension);
+        if (exact.isFile())
+            return exact;
+        File[] files = dir.listFiles();
+        if (files == null)
+            return null;
+        for (File file : files)
+            if (file.isFile() && file.getName().equalsIgnoreCase(sheetName + extension))
+                return file;
+        return null;
+    }
+}
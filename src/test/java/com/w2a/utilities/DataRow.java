@@ -0,0 +1,127 @@
+package com.w2a.utilities;
+
+import java.time.LocalDate;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Hashtable;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * One data provider row as a read-only Map from header name to cell text.
+ * All rows of a sheet share the sheet's HeaderIndex; a row only holds its values in a flat array,
+ * so there is no per-row key table and no locking on get().
+ */
+public final class DataRow extends AbstractMap<String, String> {
+
+    private final HeaderIndex header;
+    private final String[] values;
+    private Set<Entry<String, String>> entries;
+
+    /**
+     * @param header Shared header of the sheet
+     * @param values Cell values in column order (not copied); missing or null cells read as ""
+     */
+    public DataRow(HeaderIndex header, String[] values) {
+        this.header = header;
+        this.values = values;
+    }
+
+    @Override
+    public String get(Object key) {
+        if (!(key instanceof String))
+            return null;
+        int colNum = header.indexOf((String) key);
+        return colNum < 0 ? null : valueAt(colNum);
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return key instanceof String && header.indexOf((String) key) >= 0;
+    }
+
+    @Override
+    public int size() {
+        return header.keyColumns().length;
+    }
+
+    @Override
+    public Set<Entry<String, String>> entrySet() {
+        if (entries == null)
+            entries = new EntrySet();
+        return entries;
+    }
+
+    /**
+     * @return a mutable copy for tests that still take a Hashtable parameter
+     */
+    public Hashtable<String, String> toHashtable() {
+        return new Hashtable<>(this);
+    }
+
+    /**
+     * Typed reads of the cell text through CellDecoder
+     * @throws IllegalArgumentException if there is no such column or the text is not convertible
+     */
+    public int getInt(String key) {
+        return CellDecoder.toInt(require(key));
+    }
+
+    public long getLong(String key) {
+        return CellDecoder.toLong(require(key));
+    }
+
+    public double getDouble(String key) {
+        return CellDecoder.toDouble(require(key));
+    }
+
+    public LocalDate getDate(String key) {
+        return CellDecoder.toDate(require(key));
+    }
+
+    public boolean getBoolean(String key) {
+        return CellDecoder.toBoolean(require(key));
+    }
+
+    private String require(String key) {
+        int colNum = header.indexOf(key);
+        if (colNum < 0)
+            throw new IllegalArgumentException("No column " + key);
+        return valueAt(colNum);
+    }
+
+    private String valueAt(int colNum) {
+        String value = colNum < values.length ? values[colNum] : null;
+        return value == null ? "" : value;
+    }
+
+    private final class EntrySet extends AbstractSet<Entry<String, String>> {
+
+        @Override
+        public int size() {
+            return DataRow.this.size();
+        }
+
+        @Override
+        public Iterator<Entry<String, String>> iterator() {
+            int[] columns = header.keyColumns();
+            return new Iterator<Entry<String, String>>() {
+                private int next;
+
+                @Override
+                public boolean hasNext() {
+                    return next < columns.length;
+                }
+
+                @Override
+                public Entry<String, String> next() {
+                    if (!hasNext())
+                        throw new NoSuchElementException();
+                    int colNum = columns[next++];
+                    return new SimpleImmutableEntry<>(header.nameAt(colNum), valueAt(colNum));
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package com.w2a.utilities;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import io.github.bonigarcia.wdm.WebDriverManager;
+
+/**
+ * Resolves the driver binary (chromedriver, ...) once per browser and JVM and points Selenium at it
+ * through its system property, so later sessions start without version detection or downloads.
+ *
+ * Online, WebDriverManager detects the browser and downloads the matching driver into its cache.
+ * Offline, the binary is looked up under a local directory instead, with no network access: either
+ * the driver file itself or a copy of a WebDriverManager cache (chromedriver/linux64/120.0.6099.109/...)
+ * from a machine that was online. The newest version found is used unless a version is pinned.
+ */
+public final class DriverBinaries {
+
+    /**
+     * Where a browser's driver came from
+     */
+    public static final class Resolution {
+        public final String browser;
+        // null for drivers that come with the browser (safaridriver)
+        public final String path;
+        public final boolean offline;
+        public final long millis;
+
+        Resolution(String browser, String path, boolean offline, long millis) {
+            this.browser = browser;
+            this.path = path;
+            this.offline = offline;
+            this.millis = millis;
+        }
+
+        @Override
+        public String toString() {
+            return browser + " driver " + (path == null ? "built in" : path) + " (" + (offline ? "offline" : "WebDriverManager")
+                    + ", resolved in " + millis + " ms)";
+        }
+    }
+
+    private static final Map<String, Resolution> resolved = new HashMap<>();
+
+    private DriverBinaries() {
+    }
+
+    /**
+     * @param browser chrome, firefox, edge or safari
+     * @param offline true to look only under cacheDir
+     * @param cacheDir Directory searched offline
+     * @param version Driver version to use offline, e.g. 120.0.6099.109; null or empty for the newest there
+     * @return the first resolution for these arguments in this JVM; later calls return it without resolving again
+     * @throws IllegalStateException if offline and no matching driver is under cacheDir
+     */
+    public static synchronized Resolution resolve(String browser, boolean offline, File cacheDir, String version) {
+        String name = browser.toLowerCase(Locale.ROOT);
+        String key = name + (offline ? " offline " + cacheDir.getAbsolutePath() + " " + version : " online");
+        Resolution resolution = resolved.get(key);
+        if (resolution == null) {
+            long start = System.nanoTime();
+            String path = offline ? findOffline(name, cacheDir, version) : resolveOnline(name);
+            resolution = new Resolution(name, path, offline, (System.nanoTime() - start) / 1_000_000);
+            resolved.put(key, resolution);
+        }
+        String property = systemProperty(name);
+        if (resolution.path != null && property != null)
+            System.setProperty(property, resolution.path);
+        return resolution;
+    }
+
+    private static String resolveOnline(String browser) {
+        WebDriverManager manager = WebDriverManager.getInstance(browser);
+        manager.setup();
+        return manager.getDownloadedDriverPath();
+    }
+
+    private static String findOffline(String browser, File cacheDir, String version) {
+        if (browser.equals("safari"))
+            return null;
+        String name = driverName(browser);
+        if (!cacheDir.isDirectory())
+            throw new IllegalStateException("Offline driver directory " + cacheDir.getAbsolutePath() + " does not exist");
+        List<Path> candidates;
+        try (Stream<Path> files = Files.walk(cacheDir.toPath())) {
+            candidates = files.filter(Files::isRegularFile)
+                    .filter(f -> f.getFileName().toString().equals(name) || f.getFileName().toString().equals(name + ".exe"))
+                    .filter(f -> version == null || version.isEmpty() || f.toString().contains(File.separator + version + File.separator))
+                    .collect(Collectors.toList());
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot search " + cacheDir.getAbsolutePath() + " for " + name, e);
+        }
+        boolean windows = System.getProperty("os.name", "").toLowerCase(Locale.ROOT).startsWith("windows");
+        return candidates.stream()
+                .filter(f -> windows == f.getFileName().toString().endsWith(".exe"))
+                .max(Comparator.comparing(Path::toString, DriverBinaries::compareVersions))
+                .map(f -> f.toAbsolutePath().toString())
+                .orElseThrow(() -> new IllegalStateException("No " + name + (version == null || version.isEmpty() ? "" : " " + version)
+                        + " under " + cacheDir.getAbsolutePath() + " for offline driver resolution"));
+    }
+
+    private static String driverName(String browser) {
+        switch (browser) {
+        case "chrome":
+            return "chromedriver";
+        case "firefox":
+            return "geckodriver";
+        case "edge":
+            return "msedgedriver";
+        default:
+            throw new IllegalArgumentException("No driver binary known for browser: " + browser);
+        }
+    }
+
+    private static String systemProperty(String browser) {
+        switch (browser) {
+        case "chrome":
+            return "webdriver.chrome.driver";
+        case "firefox":
+            return "webdriver.gecko.driver";
+        case "edge":
+            return "webdriver.edge.driver";
+        default:
+            return null;
+        }
+    }
+
+    // paths compared by their runs of digits as numbers, so .../120.0/... sorts after .../99.0/...
+    private static int compareVersions(String a, String b) {
+        String[] as = a.split("\\D+");
+        String[] bs = b.split("\\D+");
+        for (int i = 0; i < Math.min(as.length, bs.length); i++) {
+            if (as[i].isEmpty() || bs[i].isEmpty() || as[i].equals(bs[i]))
+                continue;
+            int byLength = Integer.compare(as[i].length(), bs[i].length());
+            return byLength != 0 ? byLength : as[i].compareTo(bs[i]);
+        }
+        return a.compareTo(b);
+    }
+}
@@ -6,7 +6,6 @@ import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
 import org.openqa.selenium.support.ui.ExpectedConditions;
 import org.openqa.selenium.support.ui.Select;
-import org.openqa.selenium.support.ui.WebDriverWait;
 
 import java.time.Duration;
 import java.util.ArrayList;
@@ -209,7 +208,7 @@ public class DropdownUtils {
     // -----------------
 
     private static WebElement waitForClickable(WebDriver driver, By locator) {
-        WebDriverWait wait = new WebDriverWait(driver, Duration.ofSeconds(DEFAULT_TIMEOUT_SECONDS));
+        SmartWait wait = new SmartWait(driver, Duration.ofSeconds(DEFAULT_TIMEOUT_SECONDS));
         return wait.until(ExpectedConditions.elementToBeClickable(locator));
     }
 }
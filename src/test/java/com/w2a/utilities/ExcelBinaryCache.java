@@ -0,0 +1,210 @@
+package com.w2a.utilities;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compact binary copy of every sheet of a workbook, so later runs can skip POI entirely.
+ *
+ * Layout (big-endian): magic, version, CellDecoder.OUTPUT_VERSION, workbook size, mtime, SHA-256 and
+ * original parse time; a string table (count, offsets[count + 1], UTF-8 blob); then per sheet its name
+ * index, row count, header width, column count, the header cells and (rowCount - 1) * columnCount string
+ * indexes in row order. The header row keeps its own width, so getColumnCount() and the DataRow keys come back as parsed.
+ * The file is memory-mapped on load and only trusted while the workbook key still matches.
+ */
+public final class ExcelBinaryCache {
+
+    private static final int MAGIC = 0x584C5343; // "XLSC"
+    private static final int VERSION = 3;
+    private static final int HASH_LENGTH = 32;
+
+    /**
+     * Sheets restored from a cache file, in workbook order
+     */
+    public static final class Contents {
+        public final List<SheetSnapshot> sheets;
+        public final long parseMillis;
+
+        Contents(List<SheetSnapshot> sheets, long parseMillis) {
+            this.sheets = sheets;
+            this.parseMillis = parseMillis;
+        }
+    }
+
+    private ExcelBinaryCache() {
+    }
+
+    /**
+     * Writes the cache atomically (temp file + rename)
+     * @param cacheFile Cache file to create or replace
+     * @param workbook Workbook the sheets were parsed from; its size, mtime and hash become the cache key
+     * @param sheets All sheets of the workbook
+     * @param parseMillis How long parsing the workbook took, reported when the cache is used
+     * @throws IOException if the cache cannot be written
+     */
+    public static void write(File cacheFile, File workbook, List<SheetSnapshot> sheets, long parseMillis) throws IOException {
+        Map<String, Integer> strings = new LinkedHashMap<>();
+        for (SheetSnapshot sheet : sheets) {
+            strings.putIfAbsent(sheet.getSheetName(), strings.size());
+            for (int r = 1; r <= sheet.getRowCount(); r++)
+                for (int c = 0; c < sheet.getWidth(); c++)
+                    strings.putIfAbsent(sheet.getCellData(r, c), strings.size());
+        }
+
+        File dir = cacheFile.getAbsoluteFile().getParentFile();
+        dir.mkdirs();
+        Path temp = Files.createTempFile(dir.toPath(), cacheFile.getName(), ".tmp");
+        try {
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temp.toFile()), 1 << 16))) {
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+                out.writeInt(CellDecoder.OUTPUT_VERSION);
+                out.writeLong(workbook.length());
+                out.writeLong(workbook.lastModified());
+                out.write(sha256(workbook));
+                out.writeLong(parseMillis);
+
+                List<byte[]> encoded = new ArrayList<>(strings.size());
+                for (String value : strings.keySet())
+                    encoded.add(value.getBytes(StandardCharsets.UTF_8));
+                out.writeInt(encoded.size());
+                int offset = 0;
+                out.writeInt(offset);
+                for (byte[] bytes : encoded) {
+                    offset += bytes.length;
+                    out.writeInt(offset);
+                }
+                for (byte[] bytes : encoded)
+                    out.write(bytes);
+
+                out.writeInt(sheets.size());
+                for (SheetSnapshot sheet : sheets) {
+                    out.writeInt(strings.get(sheet.getSheetName()));
+                    int headerWidth = sheet.getRowCount() == 0 ? 0 : sheet.getHeader().size();
+                    out.writeInt(sheet.getRowCount());
+                    out.writeInt(headerWidth);
+                    out.writeInt(sheet.getWidth());
+                    for (int c = 0; c < headerWidth; c++)
+                        out.writeInt(strings.get(sheet.getCellData(1, c)));
+                    for (int r = 2; r <= sheet.getRowCount(); r++)
+                        for (int c = 0; c < sheet.getWidth(); c++)
+                            out.writeInt(strings.get(sheet.getCellData(r, c)));
+                }
+            }
+            try {
+                Files.move(temp, cacheFile.toPath(), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, cacheFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * Loads the cache if it still matches the workbook. Size and mtime are compared first;
+     * if only the mtime differs (e.g. a fresh checkout) the content hash decides.
+     * @return the cached sheets, or null if there is no cache or it is stale
+     * @throws IOException if the cache file cannot be read
+     */
+    public static Contents load(File cacheFile, File workbook) throws IOException {
+        if (!cacheFile.isFile() || !workbook.isFile())
+            return null;
+
+        try (FileChannel channel = FileChannel.open(cacheFile.toPath(), StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            // a cache written by another layout or another decoder holds text this build would not produce
+            if (buffer.remaining() < 28 + HASH_LENGTH + 8 || buffer.getInt() != MAGIC || buffer.getInt() != VERSION
+                    || buffer.getInt() != CellDecoder.OUTPUT_VERSION)
+                return null;
+
+            long size = buffer.getLong();
+            long mtime = buffer.getLong();
+            byte[] hash = new byte[HASH_LENGTH];
+            buffer.get(hash);
+            long parseMillis = buffer.getLong();
+
+            if (size != workbook.length())
+                return null;
+            if (mtime != workbook.lastModified() && !Arrays.equals(hash, sha256(workbook)))
+                return null;
+
+            int stringCount = buffer.getInt();
+            int[] offsets = new int[stringCount + 1];
+            for (int i = 0; i <= stringCount; i++)
+                offsets[i] = buffer.getInt();
+            int blobStart = buffer.position();
+            String[] strings = new String[stringCount];
+            byte[] scratch = new byte[256];
+            for (int i = 0; i < stringCount; i++) {
+                int length = offsets[i + 1] - offsets[i];
+                if (length > scratch.length)
+                    scratch = new byte[length];
+                buffer.position(blobStart + offsets[i]);
+                buffer.get(scratch, 0, length);
+                strings[i] = new String(scratch, 0, length, StandardCharsets.UTF_8);
+            }
+            buffer.position(blobStart + offsets[stringCount]);
+
+            int sheetCount = buffer.getInt();
+            List<SheetSnapshot> sheets = new ArrayList<>(sheetCount);
+            for (int s = 0; s < sheetCount; s++) {
+                String name = strings[buffer.getInt()];
+                int rowCount = buffer.getInt();
+                int headerWidth = buffer.getInt();
+                int width = buffer.getInt();
+                SheetSnapshot.Builder builder = SheetSnapshot.builder(name);
+                if (rowCount > 0) {
+                    String[] header = new String[headerWidth];
+                    for (int c = 0; c < headerWidth; c++)
+                        header[c] = strings[buffer.getInt()];
+                    builder.addRow(0, header);
+                }
+                for (int r = 1; r < rowCount; r++) {
+                    String[] cells = new String[width];
+                    for (int c = 0; c < width; c++)
+                        cells[c] = strings[buffer.getInt()];
+                    builder.addRow(r, cells);
+                }
+                sheets.add(builder.build());
+            }
+            return new Contents(sheets, parseMillis);
+        } catch (RuntimeException e) {
+            // truncated or foreign file: treat as a cache miss
+            return null;
+        }
+    }
+
+    static byte[] sha256(File file) throws IOException {
+        try (InputStream in = new FileInputStream(file)) {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] chunk = new byte[1 << 16];
+            int read;
+            while ((read = in.read(chunk)) != -1)
+                digest.update(chunk, 0, read);
+            return digest.digest();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IOException(e);
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.w2a.utilities;
+
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.function.Consumer;
+
+/**
+ * TestDataSource over an ExcelReader: rows() reads the sheet snapshot, stream() parses the sheet
+ * with SAX when it has not been materialised yet.
+ */
+public class ExcelDataSource implements TestDataSource {
+
+    private final ExcelReader excel;
+
+    public ExcelDataSource(ExcelReader excel) {
+        this.excel = excel;
+    }
+
+    @Override
+    public String getName() {
+        return "excel";
+    }
+
+    /**
+     * @return the sheet's snapshot, or null if there is no such sheet
+     */
+    public SheetSnapshot snapshot(String sheetName) {
+        return excel.getSnapshot(sheetName);
+    }
+
+    @Override
+    public Iterator<DataRow> rows(String sheetName) {
+        SheetSnapshot sheet = excel.getSnapshot(sheetName);
+        return sheet == null ? null : sheet.rows();
+    }
+
+    @Override
+    public boolean stream(String sheetName, Consumer<DataRow> handler) throws IOException {
+        HeaderIndex[] header = new HeaderIndex[1];
+        int[] expected = { 1 };
+        return excel.streamRows(sheetName, (rowIndex, cells) -> {
+            if (rowIndex == 0) {
+                header[0] = new HeaderIndex(cells);
+                return;
+            }
+            if (header[0] == null)
+                header[0] = new HeaderIndex(new String[0]);
+            // rows missing from the file are still rows, the same as in the snapshot
+            for (; expected[0] < rowIndex; expected[0]++)
+                handler.accept(new DataRow(header[0], new String[0]));
+            handler.accept(new DataRow(header[0], cells));
+            expected[0] = rowIndex + 1;
+        });
+    }
+}
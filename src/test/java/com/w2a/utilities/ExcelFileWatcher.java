@@ -0,0 +1,100 @@
+package com.w2a.utilities;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.concurrent.TimeUnit;
+
+import com.w2a.base.TestBase;
+
+/**
+ * Watches one workbook through a WatchService on its directory and calls ExcelReader.reload()
+ * once the file has been quiet for the debounce period, since editors save in several steps
+ * (temp file, rename, metadata). Events for other files in the directory (such as the
+ * write-behind journal) are ignored. A failed reload, e.g. of a file that is still being written
+ * in place, is retried with a doubling delay, up to five times; the end of the write triggers
+ * another reload in any case.
+ */
+final class ExcelFileWatcher implements Closeable {
+
+    private static final int MAX_ATTEMPTS = 5;
+
+    private final ExcelReader reader;
+    private final Path file;
+    private final long debounceMillis;
+    private final WatchService watchService;
+    private final Thread thread;
+
+    ExcelFileWatcher(ExcelReader reader, Path file, long debounceMillis) throws IOException {
+        this.reader = reader;
+        this.file = file.toAbsolutePath();
+        this.debounceMillis = debounceMillis;
+        Path dir = this.file.getParent();
+        this.watchService = dir.getFileSystem().newWatchService();
+        dir.register(watchService, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+        this.thread = new Thread(this::run, "excel-watch-" + this.file.getFileName());
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    private void run() {
+        long quietAt = -1; // when to reload, -1 while nothing is pending
+        int attempts = 0;
+        try {
+            while (true) {
+                WatchKey key = quietAt < 0 ? watchService.take()
+                        : watchService.poll(Math.max(quietAt - System.currentTimeMillis(), 0), TimeUnit.MILLISECONDS);
+                if (key != null) {
+                    if (touchesFile(key))
+                        quietAt = System.currentTimeMillis() + debounceMillis;
+                    continue;
+                }
+                if (System.currentTimeMillis() < quietAt)
+                    continue;
+                try {
+                    int changed = reader.reload();
+                    TestBase.logger.info("ExcelReader: " + file.getFileName() + " changed on disk, " + changed + " sheets reloaded");
+                    quietAt = -1;
+                    attempts = 0;
+                } catch (IOException | RuntimeException e) {
+                    if (++attempts < MAX_ATTEMPTS) {
+                        quietAt = System.currentTimeMillis() + (debounceMillis << attempts);
+                        TestBase.logger.debug("ExcelReader: reload of " + file + " failed, retrying: " + e.getMessage());
+                    } else {
+                        TestBase.logger.warn("ExcelReader: giving up reloading " + file + " until it changes again: " + e.getMessage());
+                        quietAt = -1;
+                        attempts = 0;
+                    }
+                }
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            // closed
+        }
+    }
+
+    // drains the key; true if any event concerns the workbook (or events were lost)
+    private boolean touchesFile(WatchKey key) {
+        boolean touched = false;
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW || file.getFileName().equals(event.context()))
+                touched = true;
+        }
+        key.reset();
+        return touched;
+    }
+
+    @Override
+    public void close() {
+        try {
+            watchService.close();
+        } catch (IOException e) {
+            // the thread stops either way once interrupted
+        }
+        thread.interrupt();
+    }
+}
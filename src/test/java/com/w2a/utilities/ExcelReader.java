@@ -6,12 +6,26 @@ import org.apache.poi.common.usermodel.HyperlinkType;
 import org.apache.poi.ss.usermodel.*;
 import org.apache.poi.xssf.usermodel.*;
 
+import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
-import java.text.SimpleDateFormat;
-import java.util.Calendar;
-import java.util.Date;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiFunction;
+import java.util.function.Function;
 
 
 public class ExcelReader {
@@ -23,10 +37,106 @@ public class ExcelReader {
 	private XSSFSheet sheet = null;
 	private XSSFRow row   =null;
 	private XSSFCell cell = null;
+	// evaluates formula cells of the DOM; caches results until the workbook is written or reloaded
+	private FormulaEvaluator formulaEvaluator = null;
+	private XSSFWorkbook evaluatorWorkbook = null;
+
+	// streaming (read-only) mode: sheets are parsed through the SAX event model on first use
+	private volatile ExcelStreamingLoader streamingLoader = null;
+	// sheet names when every sheet was restored from the binary cache and no loader was opened
+	private List<String> cachedSheetNames = null;
+
+	// immutable per-sheet copies (lower-cased sheet name), safe to read from any thread
+	private final Map<String, SheetSnapshot> snapshots = new ConcurrentHashMap<>();
+
+	// header row name->column index per sheet (lower-cased sheet name), dropped on header writes
+	private final Map<String, HeaderIndex> headerIndexes = new ConcurrentHashMap<>();
+
+	// key column value->rows per sheet and column (see rowKeyName), kept current by writes, dropped with the header
+	private final Map<String, RowKeyIndex> rowKeyIndexes = new ConcurrentHashMap<>();
+
+	// write-behind mode: setCellData calls are journaled and committed in batches by flush()
+	private ExcelWriteBuffer writeBuffer = null;
+
+	// hot reload: the watcher calls reload() when the file changes on disk
+	private ExcelFileWatcher watcher = null;
+	// zip part checksums of the file the snapshots were last reconciled with, see reload()
+	private Map<String, Long> loadedChecksums = null;
 
 	public ExcelReader(String path) {
+		this(path, false);
+	}
+
+	/**
+	 * @param path Path to the .xlsx file
+	 * @param streaming true to serve reads from the SAX event model instead of the XSSFWorkbook DOM.
+	 *                  The DOM is then only loaded if a write or sheet operation needs it.
+	 */
+	public ExcelReader(String path, boolean streaming) {
 
 		this.path=path;
+		if (streaming) {
+			try {
+				streamingLoader = new ExcelStreamingLoader(path);
+				return;
+			} catch (Exception e) {
+				TestBase.logger.warn("ExcelReader: streaming mode unavailable, falling back to XSSFWorkbook: " + e.getMessage());
+			}
+		}
+		loadWorkbook();
+	}
+
+	// all sheets restored from a binary cache; nothing is read from the workbook until a write or a reload needs it
+	private ExcelReader(String path, List<SheetSnapshot> cachedSheets) {
+		this.path = path;
+		List<String> names = new ArrayList<>();
+		for (SheetSnapshot cached : cachedSheets) {
+			names.add(cached.getSheetName());
+			snapshots.put(cached.getSheetName().toLowerCase(Locale.ROOT), cached);
+		}
+		this.cachedSheetNames = names;
+	}
+
+	/**
+	 * Opens a workbook in streaming mode, restoring every sheet from a binary cache when the cache
+	 * still matches the workbook (size/mtime, then content hash). On a miss all sheets are parsed
+	 * once and the cache is rewritten for the next run.
+	 * @param path Path to the .xlsx file
+	 * @param cacheFile Binary cache file, created if missing
+	 */
+	public static ExcelReader withBinaryCache(String path, File cacheFile) {
+		long start = System.nanoTime();
+		try {
+			ExcelBinaryCache.Contents cached = ExcelBinaryCache.load(cacheFile, new File(path));
+			if (cached != null) {
+				ExcelReader reader = new ExcelReader(path, cached.sheets);
+				long loadMillis = (System.nanoTime() - start) / 1_000_000;
+				TestBase.logger.info("ExcelReader: loaded " + cached.sheets.size() + " sheets from binary cache " + cacheFile
+						+ " in " + loadMillis + " ms (parsing the workbook took " + cached.parseMillis + " ms, saved "
+						+ (cached.parseMillis - loadMillis) + " ms)");
+				return reader;
+			}
+		} catch (IOException e) {
+			TestBase.logger.warn("ExcelReader: ignoring unreadable binary cache " + cacheFile + ": " + e.getMessage());
+		}
+
+		ExcelReader reader = new ExcelReader(path, true);
+		if (!reader.isStreaming())
+			return reader;
+		List<SheetSnapshot> sheets = new ArrayList<>();
+		for (String sheetName : reader.streamingLoader.getSheetNames())
+			sheets.add(reader.getSnapshot(sheetName));
+		long parseMillis = (System.nanoTime() - start) / 1_000_000;
+		try {
+			ExcelBinaryCache.write(cacheFile, new File(path), sheets, parseMillis);
+			TestBase.logger.info("ExcelReader: binary cache " + cacheFile + " rebuilt, workbook parse took " + parseMillis + " ms");
+		} catch (IOException e) {
+			TestBase.logger.warn("ExcelReader: unable to write binary cache " + cacheFile + ": " + e.getMessage());
+		}
+		return reader;
+	}
+
+	private void loadWorkbook() {
 		try {
 			fis = new FileInputStream(path);
 			workbook = new XSSFWorkbook(fis);
@@ -36,12 +146,213 @@ public class ExcelReader {
 			TestBase.logger.error("ExcelReader: file path not exist", e.getMessage());
 			e.printStackTrace();
 		}
+	}
+
+	// loads the DOM on demand when the reader was opened in streaming mode
+	private void ensureWorkbook() {
+		if (workbook == null)
+			loadWorkbook();
+	}
+
+	// the formula evaluator of the current DOM, rebuilt when the workbook object was replaced
+	private FormulaEvaluator formulaEvaluator() {
+		if (formulaEvaluator == null || evaluatorWorkbook != workbook) {
+			formulaEvaluator = workbook.getCreationHelper().createFormulaEvaluator();
+			evaluatorWorkbook = workbook;
+		}
+		return formulaEvaluator;
+	}
+
+	// true if reads are served from snapshots (streamed or restored from the binary cache) rather than the DOM
+	public boolean isStreaming() {
+		return streamingLoader != null || cachedSheetNames != null;
+	}
 
+	// resolves a sheet name case-insensitively without touching the DOM; null if there is no such sheet
+	private String resolveSheetName(String sheetName) {
+		if (streamingLoader != null)
+			return streamingLoader.resolveSheetName(sheetName);
+		for (String name : cachedSheetNames) {
+			if (name.equalsIgnoreCase(sheetName))
+				return name;
+		}
+		return null;
 	}
 
+	/**
+	 * Returns an immutable snapshot of a sheet, materialised once and shared by all threads.
+	 * Only the first load of a sheet is serialised; reads never lock.
+	 * @param sheetName Sheet name (case-insensitive)
+	 * @return the snapshot, or null if the sheet does not exist
+	 */
+	public SheetSnapshot getSnapshot(String sheetName) {
+		String key = sheetName.toLowerCase(Locale.ROOT);
+		SheetSnapshot snapshot = snapshots.get(key);
+		if (snapshot != null)
+			return snapshot;
+		synchronized (snapshots) {
+			snapshot = snapshots.get(key);
+			if (snapshot == null) {
+				snapshot = loadSnapshot(sheetName);
+				if (snapshot != null)
+					snapshots.put(key, snapshot);
+			}
+		}
+		return snapshot;
+	}
+
+	private SheetSnapshot loadSnapshot(String sheetName) {
+		if (isStreaming()) {
+			String resolved = resolveSheetName(sheetName);
+			if (resolved == null)
+				return null;
+			SheetSnapshot.Builder builder = SheetSnapshot.builder(resolved);
+			try {
+				if (streamingLoader == null)
+					streamingLoader = new ExcelStreamingLoader(path);
+				streamingLoader.parseSheet(resolved, builder::addRow);
+			} catch (IOException e) {
+				TestBase.logger.error("ExcelReader: unable to stream sheet " + resolved, e);
+				return null;
+			}
+			return builder.build();
+		}
+
+		// local cursors only, so a concurrent legacy getCellData cannot disturb the copy
+		int index = workbook.getSheetIndex(sheetName);
+		if (index == -1)
+			return null;
+		XSSFSheet source = workbook.getSheetAt(index);
+		SheetSnapshot.Builder builder = SheetSnapshot.builder(source.getSheetName());
+		// one evaluator per load: every formula is evaluated once and shared sub-results are cached
+		FormulaEvaluator evaluator = workbook.getCreationHelper().createFormulaEvaluator();
+		for (int r = 0; r <= source.getLastRowNum(); r++) {
+			XSSFRow sourceRow = source.getRow(r);
+			if (sourceRow == null || sourceRow.getLastCellNum() <= 0) {
+				builder.addRow(r, null);
+				continue;
+			}
+			String[] cells = new String[sourceRow.getLastCellNum()];
+			for (int c = 0; c < cells.length; c++) {
+				try {
+					cells[c] = CellDecoder.format(sourceRow.getCell(c), evaluator);
+				} catch (Exception e) {
+					cells[c] = "";
+				}
+			}
+			builder.addRow(r, cells);
+		}
+		return builder.build();
+	}
+
+	/**
+	 * Streams the rows of a sheet to the handler without keeping them. Served from the snapshot if the
+	 * sheet is already materialised (or the DOM is loaded), otherwise parsed straight from the file.
+	 * @param sheetName Sheet name (case-insensitive)
+	 * @param handler Row callback; row 0 is the header
+	 * @return false if the sheet does not exist
+	 * @throws IOException if the sheet cannot be parsed
+	 */
+	public boolean streamRows(String sheetName, ExcelStreamingLoader.SheetRowHandler handler) throws IOException {
+		SheetSnapshot snapshot = isStreaming() ? snapshots.get(sheetName.toLowerCase(Locale.ROOT)) : getSnapshot(sheetName);
+		if (snapshot != null) {
+			for (int r = 1; r <= snapshot.getRowCount(); r++) {
+				String[] cells = new String[snapshot.getWidth()];
+				for (int c = 0; c < cells.length; c++)
+					cells[c] = snapshot.getCellData(r, c);
+				handler.row(r - 1, cells);
+			}
+			return true;
+		}
+		if (!isStreaming())
+			return false;
+		ExcelStreamingLoader loader = streamingLoader != null ? streamingLoader : new ExcelStreamingLoader(path);
+		return loader.parseSheet(sheetName, handler);
+	}
+
+	// drops the snapshot of a sheet (or of all sheets if sheetName is null) after the file was rewritten
+	private void invalidateSnapshot(String sheetName) {
+		if (isStreaming()) {
+			try {
+				// sheet names may have changed, so re-read the workbook metadata
+				streamingLoader = new ExcelStreamingLoader(path);
+			} catch (IOException e) {
+				TestBase.logger.warn("ExcelReader: unable to refresh streaming metadata: " + e.getMessage());
+			}
+		}
+		if (sheetName == null)
+			snapshots.clear();
+		else
+			snapshots.remove(sheetName.toLowerCase(Locale.ROOT));
+		// cached formula results may depend on the cells just written
+		formulaEvaluator = null;
+	}
+
+	// returns the cached header index of a sheet, building it from row 1 on first use; null if the sheet has no header
+	public HeaderIndex getHeaderIndex(String sheetName){
+		if (isStreaming()) {
+			SheetSnapshot snapshot = getSnapshot(sheetName);
+			return snapshot == null || snapshot.getColumnCount() <= 0 ? null : snapshot.getHeader();
+		}
+		String key = sheetName.toLowerCase(Locale.ROOT);
+		HeaderIndex header = headerIndexes.get(key);
+		if (header != null)
+			return header;
+
+		int index = workbook.getSheetIndex(sheetName);
+		if (index == -1)
+			return null;
+		XSSFRow headerRow = workbook.getSheetAt(index).getRow(0);
+		if (headerRow == null || headerRow.getLastCellNum() <= 0)
+			return null;
+		String[] cells = new String[headerRow.getLastCellNum()];
+		for (int i = 0; i < cells.length; i++) {
+			try {
+				cells[i] = CellDecoder.format(headerRow.getCell(i), null);
+			} catch (Exception e) {
+				cells[i] = "";
+			}
+		}
+		header = new HeaderIndex(cells);
+		headerIndexes.put(key, header);
+		return header;
+	}
+
+	// drops the cached header index of a sheet, or of all sheets if sheetName is null, with its row-key indexes
+	private void invalidateHeader(String sheetName) {
+		if (sheetName == null) {
+			headerIndexes.clear();
+			rowKeyIndexes.clear();
+		} else {
+			headerIndexes.remove(sheetName.toLowerCase(Locale.ROOT));
+			String prefix = sheetName.toLowerCase(Locale.ROOT) + '\u0000';
+			rowKeyIndexes.keySet().removeIf(name -> name.startsWith(prefix));
+		}
+	}
+
+	// returns the row-key index of a column, reading the column once on first use
+	private RowKeyIndex getRowKeyIndex(String sheetName, int colNum) {
+		return rowKeyIndexes.computeIfAbsent(rowKeyName(sheetName, colNum),
+				name -> new RowKeyIndex(getRowCount(sheetName), rowNum -> getCellData(sheetName, rowNum, colNum)));
+	}
+
+	// keeps a built row-key index in step with a successful (or buffered) write
+	private void rowKeyWritten(String sheetName, int colNum, int rowNum, String data) {
+		RowKeyIndex index = rowKeyIndexes.get(rowKeyName(sheetName, colNum));
+		if (index != null)
+			index.put(rowNum, data);
+	}
+
+	private static String rowKeyName(String sheetName, int colNum) {
+		return sheetName.toLowerCase(Locale.ROOT) + '\u0000' + colNum;
+	}
 
 	// returns the row count in a sheet
 	public int getRowCount(String sheetName){
+		if (isStreaming()) {
+			SheetSnapshot snapshot = getSnapshot(sheetName);
+			return snapshot == null ? 0 : snapshot.getRowCount();
+		}
 		int index = workbook.getSheetIndex(sheetName);
 		if(index==-1)
 			return 0;
@@ -61,19 +372,22 @@ public class ExcelReader {
 			if(rowNum <=0)
 				return "";
 
-		int index = workbook.getSheetIndex(sheetName);
-		int col_Num=-1;
-		if(index==-1)
+		HeaderIndex header = getHeaderIndex(sheetName);
+		int col_Num = header == null ? -1 : header.indexOf(colName);
+		if(col_Num==-1)
 			return "";
 
-		sheet = workbook.getSheetAt(index);
-		row=sheet.getRow(0);
-		for(int i=0;i<row.getLastCellNum();i++){
-			//System.out.println(row.getCell(i).getStringCellValue().trim());
-			if(row.getCell(i).getStringCellValue().trim().equals(colName.trim()))
-				col_Num=i;
+		if (writeBuffer != null) {
+			String pending = writeBuffer.pendingValue(sheetName, header.nameAt(col_Num), rowNum);
+			if (pending != null)
+				return pending;
 		}
-		if(col_Num==-1)
+
+		if (isStreaming())
+			return getSnapshot(sheetName).getCellData(rowNum, col_Num);
+
+		int index = workbook.getSheetIndex(sheetName);
+		if(index==-1)
 			return "";
 
 		sheet = workbook.getSheetAt(index);
@@ -81,39 +395,7 @@ public class ExcelReader {
 		if(row==null)
 			return "";
 		cell = row.getCell(col_Num);
-
-		if(cell==null)
-			return "";
-
-		if(cell.getCellType()== CellType.STRING)
-			  return cell.getStringCellValue();
-		else if(cell.getCellType()== CellType.NUMERIC || cell.getCellType()==CellType.FORMULA ){
-
-			  String cellText  = String.valueOf(cell.getNumericCellValue());
-			  if (DateUtil.isCellDateFormatted(cell)) {
-
-				  double d = cell.getNumericCellValue();
-
-				  Calendar cal =Calendar.getInstance();
-				  cal.setTime(DateUtil.getJavaDate(d));
-		            cellText =
-		             (String.valueOf(cal.get(Calendar.YEAR))).substring(2);
-		           cellText = cal.get(Calendar.DAY_OF_MONTH) + "/" +
-		                      cal.get(Calendar.MONTH)+1 + "/" +
-		                      cellText;
-
-
-
-		         }
-
-
-
-			  return cellText;
-		  }else if(cell.getCellType()==CellType.BLANK)
-		      return "";
-		  else
-			  return String.valueOf(cell.getBooleanCellValue());
-
+		return CellDecoder.format(cell, formulaEvaluator());
 		}
 		catch(Exception e){
 
@@ -131,6 +413,18 @@ public class ExcelReader {
 			if(rowNum <=0)
 				return "";
 
+		if (writeBuffer != null && writeBuffer.size() > 0) {
+			HeaderIndex header = getHeaderIndex(sheetName);
+			String pending = header == null ? null : writeBuffer.pendingValue(sheetName, header.nameAt(colNum), rowNum);
+			if (pending != null)
+				return pending;
+		}
+
+		if (isStreaming()) {
+			SheetSnapshot snapshot = getSnapshot(sheetName);
+			return snapshot == null ? "" : snapshot.getCellData(rowNum, colNum);
+		}
+
 		int index = workbook.getSheetIndex(sheetName);
 
 		if(index==-1)
@@ -142,37 +436,7 @@ public class ExcelReader {
 		if(row==null)
 			return "";
 		cell = row.getCell(colNum);
-		if(cell==null)
-			return "";
-
-	  if(cell.getCellType()==CellType.STRING)
-		  return cell.getStringCellValue();
-	  else if(cell.getCellType()==CellType.NUMERIC || cell.getCellType()==CellType.FORMULA ){
-
-		  String cellText  = String.valueOf(cell.getNumericCellValue());
-		  if (DateUtil.isCellDateFormatted(cell)) {
-//	            format in form of M/D/YY
-//			  double d = cell.getNumericCellValue();
-//
-//			  Calendar cal =Calendar.getInstance();
-//			  cal.setTime(DateUtil.getJavaDate(d));
-//	            cellText =
-//	             (String.valueOf(cal.get(Calendar.YEAR))).substring(2);
-//	           cellText = cal.get(Calendar.MONTH)+1 + "/" +
-//	                      cal.get(Calendar.DAY_OF_MONTH) + "/" +
-//	                      cellText;
-			  Date date = cell.getDateCellValue();
-			  SimpleDateFormat sdf = new SimpleDateFormat("MM/dd/yy");
-			  cellText = sdf.format(date);
-	         }
-
-
-
-		  return cellText;
-	  }else if(cell.getCellType()==CellType.BLANK)
-	      return "";
-	  else
-		  return String.valueOf(cell.getBooleanCellValue());
+		return CellDecoder.format(cell, formulaEvaluator());
 		}
 		catch(Exception e){
 
@@ -184,50 +448,92 @@ public class ExcelReader {
 
 
 
-	// returns true if data is set successfully else false
-	public boolean setCellData(String sheetName,String colName,int rowNum, String data){
-		try{
-		fis = new FileInputStream(path);
-		workbook = new XSSFWorkbook(fis);
-
-		if(rowNum<=0)
-			return false;
+	/**
+	 * Typed reads: the DOM cell is decoded directly (numbers and dates are never formatted and re-parsed);
+	 * snapshot and buffered values are parsed from their text. Formulas are read from their evaluated result.
+	 * @param sheetName Sheet name
+	 * @param colName Header name
+	 * @param rowNum 1-based row number
+	 * @throws IllegalArgumentException if the column does not exist or the cell is not convertible (including empty cells)
+	 */
+	public int getInt(String sheetName, String colName, int rowNum) {
+		return decodeCell(sheetName, colName, rowNum, CellDecoder::toInt, CellDecoder::toInt);
+	}
 
-		int index = workbook.getSheetIndex(sheetName);
-		int colNum=-1;
-		if(index==-1)
-			return false;
+	public long getLong(String sheetName, String colName, int rowNum) {
+		return decodeCell(sheetName, colName, rowNum, CellDecoder::toLong, CellDecoder::toLong);
+	}
 
+	public double getDouble(String sheetName, String colName, int rowNum) {
+		return decodeCell(sheetName, colName, rowNum, CellDecoder::toDouble, CellDecoder::toDouble);
+	}
 
-		sheet = workbook.getSheetAt(index);
+	// accepts date cells, MM/dd/yy or M/d/yyyy text and ISO yyyy-MM-dd text
+	public LocalDate getDate(String sheetName, String colName, int rowNum) {
+		return decodeCell(sheetName, colName, rowNum, CellDecoder::toDate, CellDecoder::toDate);
+	}
 
+	// accepts boolean cells, true/false and Y/N
+	public boolean getBoolean(String sheetName, String colName, int rowNum) {
+		return decodeCell(sheetName, colName, rowNum, CellDecoder::toBoolean, CellDecoder::toBoolean);
+	}
 
-		row=sheet.getRow(0);
-		for(int i=0;i<row.getLastCellNum();i++){
-			//System.out.println(row.getCell(i).getStringCellValue().trim());
-			if(row.getCell(i).getStringCellValue().trim().equals(colName))
-				colNum=i;
+	// local cursors only, so typed reads do not disturb a concurrent getCellData
+	private <T> T decodeCell(String sheetName, String colName, int rowNum,
+			BiFunction<Cell, FormulaEvaluator, T> fromCell, Function<String, T> fromText) {
+		HeaderIndex header = getHeaderIndex(sheetName);
+		int colNum = header == null ? -1 : header.indexOf(colName);
+		if (colNum == -1 || rowNum <= 0)
+			throw new IllegalArgumentException("row " + rowNum + " or column " + colName + " does not exist in sheet " + sheetName);
+		try {
+			String pending = writeBuffer == null ? null : writeBuffer.pendingValue(sheetName, header.nameAt(colNum), rowNum);
+			if (pending != null)
+				return fromText.apply(pending);
+			if (isStreaming())
+				return fromText.apply(getSnapshot(sheetName).getCellData(rowNum, colNum));
+			XSSFRow sourceRow = workbook.getSheetAt(workbook.getSheetIndex(sheetName)).getRow(rowNum - 1);
+			return fromCell.apply(sourceRow == null ? null : sourceRow.getCell(colNum), formulaEvaluator());
+		} catch (IllegalArgumentException e) {
+			throw new IllegalArgumentException(sheetName + "!" + colName + rowNum + ": " + e.getMessage(), e);
 		}
-		if(colNum==-1)
-			return false;
+	}
 
-		sheet.autoSizeColumn(colNum);
-		row = sheet.getRow(rowNum-1);
-		if (row == null)
-			row = sheet.createRow(rowNum-1);
 
-		cell = row.getCell(colNum);
-		if (cell == null)
-	        cell = row.createCell(colNum);
 
 
-	    cell.setCellValue(data);
+	// returns true if data is set successfully else false
+	public boolean setCellData(String sheetName,String colName,int rowNum, String data){
+		return setCellData(sheetName, colName, rowNum, data, null);
+	}
 
-	    fileOut = new FileOutputStream(path);
 
+
+	// returns true if data is set successfully else false; url == null writes a plain value
+	public boolean setCellData(String sheetName,String colName,int rowNum, String data,String url){
+
+		try{
+		if(rowNum<=0)
+			return false;
+
+		if (writeBuffer != null)
+			return bufferCellData(sheetName, colName, rowNum, data, url);
+
+		fis = new FileInputStream(path);
+		workbook = new XSSFWorkbook(fis);
+		fis.close();
+
+		if(!applyCellData(sheetName, colName, rowNum, data, url, null))
+			return false;
+		sheet.autoSizeColumn(cell.getColumnIndex());
+
+	    fileOut = new FileOutputStream(path);
 		workbook.write(fileOut);
 
 	    fileOut.close();
+	    invalidateSnapshot(sheetName);
+	    rowKeyWritten(sheetName, cell.getColumnIndex(), rowNum, data);
+	    if (rowNum == 1)
+	    	invalidateHeader(sheetName);
 
 		}
 		catch(Exception e){
@@ -239,34 +545,20 @@ public class ExcelReader {
 
 
 
-	// returns true if data is set successfully else false
-	public boolean setCellData(String sheetName,String colName,int rowNum, String data,String url){
-
-		try{
-		fis = new FileInputStream(path);
-		workbook = new XSSFWorkbook(fis);
-
-		if(rowNum<=0)
-			return false;
-
+	// writes one value into the in-memory workbook; plain values match colName exactly, hyperlinks ignore case
+	private boolean applyCellData(String sheetName, String colName, int rowNum, String data, String url, CellStyle linkStyle) {
 		int index = workbook.getSheetIndex(sheetName);
 		int colNum=-1;
 		if(index==-1)
 			return false;
 
-
-		sheet = workbook.getSheetAt(index);
-
-		row=sheet.getRow(0);
-		for(int i=0;i<row.getLastCellNum();i++){
-
-			if(row.getCell(i).getStringCellValue().trim().equalsIgnoreCase(colName))
-				colNum=i;
-		}
-
+		HeaderIndex header = getHeaderIndex(sheetName);
+		if (header != null)
+			colNum = url == null ? header.indexOf(colName) : header.indexOfIgnoreCase(colName);
 		if(colNum==-1)
 			return false;
-		sheet.autoSizeColumn(colNum);
+
+		sheet = workbook.getSheetAt(index);
 		row = sheet.getRow(rowNum-1);
 		if (row == null)
 			row = sheet.createRow(rowNum-1);
@@ -274,37 +566,273 @@ public class ExcelReader {
 		cell = row.getCell(colNum);
 		if (cell == null)
 	        cell = row.createCell(colNum);
+		else if (cell.getCellType() == CellType.STRING)
+			cell.setBlank(); // inline strings (as written by SXSSF) would otherwise keep their old text
 
 	    cell.setCellValue(data);
-	    CreationHelper createHelper = workbook.getCreationHelper();
+	    if (url == null)
+	    	return true;
 
+	    CreationHelper createHelper = workbook.getCreationHelper();
 	    //cell style for hyperlinks
+	    if (linkStyle == null)
+	    	linkStyle = createLinkStyle();
 
+	    Hyperlink link = createHelper.createHyperlink(HyperlinkType.FILE);
+	    link.setAddress(url);
+	    cell.setHyperlink(link);
+	    cell.setCellStyle(linkStyle);
+	    return true;
+	}
+
+	private CellStyle createLinkStyle() {
 	    CellStyle hlink_style = workbook.createCellStyle();
 	    XSSFFont hlink_font = workbook.createFont();
 	    hlink_font.setUnderline(XSSFFont.U_SINGLE);
 	    hlink_font.setColor(IndexedColors.BLUE.getIndex());
 	    hlink_style.setFont(hlink_font);
 	    //hlink_style.setWrapText(true);
+	    return hlink_style;
+	}
 
-	    Hyperlink link = createHelper.createHyperlink(HyperlinkType.FILE);
-	    link.setAddress(url);
-	    cell.setHyperlink(link);
-	    cell.setCellStyle(hlink_style);
 
-	    fileOut = new FileOutputStream(path);
-		workbook.write(fileOut);
 
-	    fileOut.close();
+	/**
+	 * Watches the workbook file and calls {@link #reload()} whenever it changes on disk, so a long-running
+	 * session picks up edits without a restart. Changes are compared against the file as it is now.
+	 * @param debounceMillis Wait until the file has been quiet this long before reloading
+	 * @throws IOException if the directory cannot be watched
+	 */
+	public synchronized void enableHotReload(long debounceMillis) throws IOException {
+		if (watcher != null)
+			return;
+		if (isStreaming()) {
+			ExcelStreamingLoader loader = new ExcelStreamingLoader(path);
+			loadedChecksums = loader.partChecksums();
+			// sheets restored from the binary cache had no loader; keep this one as the baseline shared strings
+			if (streamingLoader == null)
+				streamingLoader = loader;
+		}
+		watcher = new ExcelFileWatcher(this, Paths.get(path), debounceMillis);
+		TestBase.logger.info("ExcelReader: watching " + path + " for changes");
+	}
 
+	public synchronized void disableHotReload() {
+		if (watcher != null) {
+			watcher.close();
+			watcher = null;
 		}
-		catch(Exception e){
-			e.printStackTrace();
-			return false;
+	}
+
+	public boolean isHotReload() {
+		return watcher != null;
+	}
+
+	/**
+	 * Brings the reader up to date with the file on disk.
+	 *
+	 * In streaming mode only loaded sheets whose zip part changed are parsed again; all loaded sheets are
+	 * when the styles changed or existing shared strings moved (appended strings are fine). A parsed sheet replaces the old snapshot only if its content
+	 * hash differs, so anything cached on an unchanged snapshot (e.g. RunmodeIndex) is kept. All replacements
+	 * are built before the first is swapped in, and each swap replaces a whole immutable snapshot, so readers
+	 * see the old or the new copy of a sheet, never a partial one. Sheets not loaded yet load from the new file.
+	 *
+	 * In DOM mode the workbook is loaded again in full.
+	 * @return number of sheets replaced or dropped
+	 * @throws IOException if the file cannot be read, or changed again while it was being read
+	 */
+	public synchronized int reload() throws IOException {
+		long start = System.nanoTime();
+		if (!isStreaming()) {
+			loadWorkbook();
+			invalidateSnapshot(null);
+			invalidateHeader(null);
+			return workbook == null ? 0 : workbook.getNumberOfSheets();
+		}
+
+		long stamp = fileStamp();
+		ExcelStreamingLoader loader = new ExcelStreamingLoader(path);
+		Map<String, Long> checksums = loader.partChecksums();
+		if (fileStamp() != stamp)
+			throw new IOException(path + " changed again while reloading");
+
+		Map<String, Long> previous = loadedChecksums;
+		ExcelStreamingLoader older = streamingLoader;
+		boolean sharedChanged = previous == null || !checksums.get("").equals(previous.get(""))
+				|| older == null || !loader.keepsSharedStrings(older);
+		int parsed = 0;
+		Map<String, SheetSnapshot> replacements = new HashMap<>();
+		List<String> dropped = new ArrayList<>();
+		// first loads wait on the same lock, so none can slip in an old copy during the swap
+		synchronized (snapshots) {
+			for (Map.Entry<String, SheetSnapshot> entry : snapshots.entrySet()) {
+				SheetSnapshot current = entry.getValue();
+				String resolved = loader.resolveSheetName(current.getSheetName());
+				if (resolved == null) {
+					dropped.add(entry.getKey());
+					continue;
+				}
+				if (!sharedChanged && resolved.equals(current.getSheetName()) && checksums.get(resolved).equals(previous.get(resolved)))
+					continue;
+				SheetSnapshot.Builder builder = SheetSnapshot.builder(resolved);
+				loader.parseSheet(resolved, builder::addRow);
+				SheetSnapshot fresh = builder.build();
+				parsed++;
+				if (fresh.contentHash() != current.contentHash())
+					replacements.put(entry.getKey(), fresh);
+			}
+			streamingLoader = loader;
+			snapshots.putAll(replacements);
+			for (String key : dropped)
+				snapshots.remove(key);
+			loadedChecksums = checksums;
+		}
+		for (String key : replacements.keySet())
+			invalidateHeader(key);
+		for (String key : dropped)
+			invalidateHeader(key);
+		// the DOM copy kept for writes is stale now; the next write loads the new file
+		workbook = null;
+		formulaEvaluator = null;
+		TestBase.logger.info("ExcelReader: reload of " + path + " parsed " + parsed + " of " + (snapshots.size() + dropped.size())
+				+ " loaded sheets, replaced " + replacements.size() + ", dropped " + dropped.size()
+				+ " in " + (System.nanoTime() - start) / 1_000_000 + " ms");
+		return replacements.size() + dropped.size();
+	}
+
+	// changes whenever the file is rewritten
+	private long fileStamp() {
+		File file = new File(path);
+		return file.lastModified() * 31 + file.length();
+	}
+
+	/**
+	 * Switches setCellData (and addHyperLink) to write-behind: writes are journaled and buffered
+	 * in memory, then committed to the workbook in one atomic file replace by {@link #flush()}.
+	 * Writes left in the journal by a run that crashed before flushing are replayed first.
+	 * @param maxPending Flush automatically once this many writes are buffered
+	 * @param maxAgeMillis Flush automatically once the oldest buffered write is this old
+	 */
+	public synchronized void enableWriteBehind(int maxPending, long maxAgeMillis) {
+		writeBuffer = new ExcelWriteBuffer(path, maxPending, maxAgeMillis);
+		try {
+			List<ExcelWriteBuffer.PendingWrite> recovered = writeBuffer.recover();
+			if (!recovered.isEmpty()) {
+				TestBase.logger.warn("ExcelReader: replaying " + recovered.size() + " unflushed writes from " + writeBuffer.getJournal());
+				flush();
+			}
+		} catch (IOException e) {
+			TestBase.logger.error("ExcelReader: unable to read write-behind journal " + writeBuffer.getJournal(), e);
 		}
+	}
+
+	public boolean isWriteBehind() {
+		return writeBuffer != null;
+	}
+
+	// buffers a write after the same checks setCellData does, flushing when a threshold is reached
+	private boolean bufferCellData(String sheetName, String colName, int rowNum, String data, String url) throws IOException {
+		if (!isSheetExist(sheetName))
+			return false;
+		HeaderIndex header = getHeaderIndex(sheetName);
+		int colNum = header == null ? -1 : (url == null ? header.indexOf(colName) : header.indexOfIgnoreCase(colName));
+		if (colNum == -1)
+			return false;
+
+		rowKeyWritten(sheetName, colNum, rowNum, data);
+		if (writeBuffer.add(new ExcelWriteBuffer.PendingWrite(sheetName, header.nameAt(colNum), rowNum, data, url)))
+			return flush();
 		return true;
 	}
 
+	/**
+	 * Commits all buffered writes: they are applied to the in-memory workbook (loaded once),
+	 * written to a temp file next to the workbook and moved over it, then the journal is cleared.
+	 * @return true if there was nothing to flush or the commit succeeded
+	 */
+	public synchronized boolean flush() {
+		if (writeBuffer == null || writeBuffer.size() == 0)
+			return true;
+
+		List<ExcelWriteBuffer.PendingWrite> writes = writeBuffer.drain();
+		try {
+			ensureWorkbook();
+			CellStyle linkStyle = null;
+			Map<XSSFSheet, Set<Integer>> touched = new HashMap<>();
+			Set<String> headerSheets = new HashSet<>();
+			for (ExcelWriteBuffer.PendingWrite write : writes) {
+				if (write.url != null && linkStyle == null)
+					linkStyle = createLinkStyle();
+				if (!applyCellData(write.sheetName, write.colName, write.rowNum, write.data, write.url, linkStyle)) {
+					TestBase.logger.warn("ExcelReader: dropped buffered write to " + write.sheetName + "!" + write.colName + write.rowNum);
+					// it was indexed when it was buffered
+					headerSheets.add(write.sheetName);
+					continue;
+				}
+				touched.computeIfAbsent(sheet, s -> new HashSet<>()).add(cell.getColumnIndex());
+				if (write.rowNum == 1)
+					headerSheets.add(write.sheetName);
+			}
+			// autosize each touched column once per flush rather than once per write
+			for (Map.Entry<XSSFSheet, Set<Integer>> entry : touched.entrySet())
+				for (int colNum : entry.getValue())
+					entry.getKey().autoSizeColumn(colNum);
+
+			writeWorkbookAtomically();
+			writeBuffer.committed(writes.size());
+			for (String sheetName : headerSheets)
+				invalidateHeader(sheetName);
+			invalidateSnapshot(null);
+			TestBase.logger.info("ExcelReader: flushed " + writes.size() + " buffered writes to " + path);
+			return true;
+		} catch (Exception e) {
+			// buffer and journal are kept, so the writes are retried on the next flush or start
+			TestBase.logger.error("ExcelReader: write-behind flush failed, " + writes.size() + " writes kept in " + writeBuffer.getJournal(), e);
+			return false;
+		}
+	}
+
+	// addColumn/removeColumn: re-read the file, or in write-behind mode commit pending writes and keep the in-memory workbook
+	private void openForStructureChange() throws IOException {
+		if (writeBuffer == null) {
+			fis = new FileInputStream(path);
+			workbook = new XSSFWorkbook(fis);
+			fis.close();
+		} else {
+			flush();
+			ensureWorkbook();
+		}
+	}
+
+	private void saveStructureChange() throws IOException {
+		if (writeBuffer == null) {
+			fileOut = new FileOutputStream(path);
+			workbook.write(fileOut);
+			fileOut.close();
+		} else {
+			writeWorkbookAtomically();
+		}
+	}
+
+	// writes the in-memory workbook to a temp file in the same directory and renames it over the workbook
+	private void writeWorkbookAtomically() throws IOException {
+		Path target = Paths.get(path).toAbsolutePath();
+		Path temp = Files.createTempFile(target.getParent(), target.getFileName().toString(), ".tmp");
+		try {
+			try (FileOutputStream out = new FileOutputStream(temp.toFile())) {
+				workbook.write(out);
+				out.getFD().sync();
+			}
+			try {
+				Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+			} catch (AtomicMoveNotSupportedException e) {
+				Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+			}
+		} finally {
+			Files.deleteIfExists(temp);
+		}
+	}
+
 
 
 	// returns true if sheet is created successfully else false
@@ -312,10 +840,13 @@ public class ExcelReader {
 
 		FileOutputStream fileOut;
 		try {
+			 ensureWorkbook();
 			 workbook.createSheet(sheetname);
 			 fileOut = new FileOutputStream(path);
 			 workbook.write(fileOut);
 		     fileOut.close();
+		     invalidateSnapshot(null);
+		     invalidateHeader(null);
 		} catch (Exception e) {
 			e.printStackTrace();
 			return false;
@@ -325,6 +856,7 @@ public class ExcelReader {
 
 	// returns true if sheet is removed successfully else false if sheet does not exist
 	public boolean removeSheet(String sheetName){
+		ensureWorkbook();
 		int index = workbook.getSheetIndex(sheetName);
 		if(index==-1)
 			return false;
@@ -335,6 +867,8 @@ public class ExcelReader {
 			fileOut = new FileOutputStream(path);
 			workbook.write(fileOut);
 		    fileOut.close();
+		    invalidateSnapshot(null);
+		    invalidateHeader(null);
 		} catch (Exception e) {
 			e.printStackTrace();
 			return false;
@@ -346,8 +880,7 @@ public class ExcelReader {
 
 
 		try{
-			fis = new FileInputStream(path);
-			workbook = new XSSFWorkbook(fis);
+			openForStructureChange();
 			int index = workbook.getSheetIndex(sheetName);
 			if(index==-1)
 				return false;
@@ -371,9 +904,9 @@ public class ExcelReader {
 	        cell.setCellValue(colName);
 	        cell.setCellStyle(style);
 
-	        fileOut = new FileOutputStream(path);
-			workbook.write(fileOut);
-		    fileOut.close();
+	        saveStructureChange();
+		    invalidateSnapshot(sheetName);
+		    invalidateHeader(sheetName);
 
 		}catch(Exception e){
 			e.printStackTrace();
@@ -392,8 +925,7 @@ public class ExcelReader {
 		try{
 		if(!isSheetExist(sheetName))
 			return false;
-		fis = new FileInputStream(path);
-		workbook = new XSSFWorkbook(fis);
+		openForStructureChange();
 		sheet=workbook.getSheet(sheetName);
 		XSSFCellStyle style = workbook.createCellStyle();
 		style.setFillForegroundColor(IndexedColors.GREY_40_PERCENT.getIndex());
@@ -412,9 +944,9 @@ public class ExcelReader {
 				}
 			}
 		}
-		fileOut = new FileOutputStream(path);
-		workbook.write(fileOut);
-	    fileOut.close();
+		saveStructureChange();
+	    invalidateSnapshot(sheetName);
+	    invalidateHeader(sheetName);
 		}
 		catch(Exception e){
 			e.printStackTrace();
@@ -427,6 +959,8 @@ public class ExcelReader {
 
   // find whether sheets exists
 	public boolean isSheetExist(String sheetName){
+		if (isStreaming())
+			return resolveSheetName(sheetName) != null;
 		int index = workbook.getSheetIndex(sheetName);
 		if(index==-1){
 			index=workbook.getSheetIndex(sheetName.toUpperCase());
@@ -446,6 +980,9 @@ public class ExcelReader {
 		if(!isSheetExist(sheetName))
 		 return -1;
 
+		if (isStreaming())
+			return getSnapshot(sheetName).getColumnCount();
+
 		sheet = workbook.getSheet(sheetName);
 		row = sheet.getRow(0);
 
@@ -467,28 +1004,30 @@ public class ExcelReader {
 		if(!isSheetExist(sheetName))
 			 return false;
 
-	    sheet = workbook.getSheet(sheetName);
-
-	    for(int i=2;i<=getRowCount(sheetName);i++){
-	    	if(getCellData(sheetName, 0, i).equalsIgnoreCase(testCaseName)){
-
-	    		setCellData(sheetName, screenShotColName, i+index, message,url);
-	    		break;
-	    	}
-	    }
+	    // test case names are in the first column
+	    int rowNum = getRowKeyIndex(sheetName, 0).firstRow(testCaseName);
+	    if (rowNum != -1)
+	    	setCellData(sheetName, screenShotColName, rowNum+index, message,url);
 
 
 		return true;
 	}
+	// returns the first row (from 2) whose colName cell equals cellValue ignoring case, else -1; O(1) after the first lookup
 	public int getCellRowNum(String sheetName,String colName,String cellValue){
+		HeaderIndex header = getHeaderIndex(sheetName);
+		int colNum = header == null ? -1 : header.indexOf(colName);
+		if (colNum == -1)
+			return -1;
+		return getRowKeyIndex(sheetName, colNum).firstRow(cellValue);
+	}
 
-		for(int i=2;i<=getRowCount(sheetName);i++){
-	    	if(getCellData(sheetName,colName , i).equalsIgnoreCase(cellValue)){
-	    		return i;
-	    	}
-	    }
-		return -1;
-
+	// returns every row (from 2) whose colName cell equals cellValue ignoring case, in ascending order
+	public int[] getCellRowNums(String sheetName, String colName, String cellValue) {
+		HeaderIndex header = getHeaderIndex(sheetName);
+		int colNum = header == null ? -1 : header.indexOf(colName);
+		if (colNum == -1)
+			return new int[0];
+		return getRowKeyIndex(sheetName, colNum).rows(cellValue);
 	}
 
 
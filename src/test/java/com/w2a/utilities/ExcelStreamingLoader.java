@@ -0,0 +1,280 @@
+package com.w2a.utilities;
+
+import org.apache.poi.openxml4j.exceptions.OpenXML4JException;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackagePart;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.ss.usermodel.DataFormatter;
+import org.apache.poi.ss.util.CellReference;
+import org.apache.poi.util.XMLHelper;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.apache.poi.xssf.eventusermodel.XSSFSheetXMLHandler;
+import org.apache.poi.xssf.model.StylesTable;
+import org.apache.poi.xssf.usermodel.XSSFComment;
+import org.apache.poi.xssf.usermodel.XSSFRelation;
+import org.xml.sax.Attributes;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.XMLReader;
+import org.xml.sax.helpers.XMLFilterImpl;
+
+import javax.xml.parsers.ParserConfigurationException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * Read-only .xlsx loader built on the POI XSSF event (SAX) model.
+ * Shared strings and styles are parsed once; each sheet is then streamed row by row
+ * to a {@link SheetRowHandler} without ever building the XSSFWorkbook DOM.
+ */
+public class ExcelStreamingLoader {
+
+    /**
+     * Receives the rows of a sheet in document order
+     */
+    public interface SheetRowHandler {
+        /**
+         * @param rowIndex 0-based row index as stored in the sheet
+         * @param cells formatted cell values, null for missing cells
+         */
+        void row(int rowIndex, String[] cells);
+    }
+
+    private final String path;
+    private final ReadOnlySharedStringsTable sharedStrings;
+    private final StylesTable styles;
+    private final List<String> sheetNames;
+    // zip entry of each sheet, and of the styles every sheet's text depends on
+    private final Map<String, String> sheetEntries;
+    private final List<String> styleEntries;
+
+    /**
+     * Opens the workbook once to read the shared strings, styles and sheet names
+     * @param path Path to the .xlsx file
+     * @throws IOException if the file cannot be read or is not a valid workbook
+     */
+    public ExcelStreamingLoader(String path) throws IOException {
+        this.path = path;
+        try (OPCPackage pkg = OPCPackage.open(path, PackageAccess.READ)) {
+            XSSFReader reader = new XSSFReader(pkg);
+            this.sharedStrings = new ReadOnlySharedStringsTable(pkg);
+            this.styles = reader.getStylesTable();
+            List<String> names = new ArrayList<>();
+            Map<String, String> entries = new HashMap<>();
+            XSSFReader.SheetIterator sheets = (XSSFReader.SheetIterator) reader.getSheetsData();
+            while (sheets.hasNext()) {
+                // the iterator opens each sheet's stream; only its name and part are needed here
+                InputStream stream = sheets.next();
+                try {
+                    names.add(sheets.getSheetName());
+                    entries.put(sheets.getSheetName(), entryName(sheets.getSheetPart()));
+                } finally {
+                    stream.close();
+                }
+            }
+            this.sheetNames = Collections.unmodifiableList(names);
+            this.sheetEntries = entries;
+            List<String> styleParts = new ArrayList<>();
+            for (PackagePart part : pkg.getPartsByContentType(XSSFRelation.STYLES.getContentType()))
+                styleParts.add(entryName(part));
+            this.styleEntries = styleParts;
+        } catch (OpenXML4JException | SAXException e) {
+            throw new IOException("Unable to open workbook " + path, e);
+        }
+    }
+
+    public String getPath() {
+        return path;
+    }
+
+    /**
+     * @return sheet names in workbook order
+     */
+    public List<String> getSheetNames() {
+        return sheetNames;
+    }
+
+    /**
+     * Cheap per-sheet change detection: reads the CRC-32 and size of each part from the zip directory,
+     * without inflating anything. A sheet's text also depends on the styles (date formats), reported
+     * under the key "" (not a valid sheet name), and on the shared strings, see {@link #keepsSharedStrings}.
+     * @return sheet name (as stored) to checksum, for the file as it is on disk now
+     * @throws IOException if the file cannot be read as a zip, e.g. while it is being rewritten
+     */
+    public Map<String, Long> partChecksums() throws IOException {
+        Map<String, Long> checksums = new HashMap<>();
+        try (ZipFile zip = new ZipFile(path)) {
+            long styleChecksum = 17;
+            for (String entry : styleEntries)
+                styleChecksum = styleChecksum * 31 + checksum(zip, entry);
+            checksums.put("", styleChecksum);
+            for (Map.Entry<String, String> sheet : sheetEntries.entrySet())
+                checksums.put(sheet.getKey(), checksum(zip, sheet.getValue()));
+        }
+        return checksums;
+    }
+
+    /**
+     * Editors append new strings to the shared strings table and keep the existing indexes, so a sheet
+     * whose own part did not change still reads the same. Some tools rebuild the table instead.
+     * @param older Loader of an earlier version of the same workbook
+     * @return true if every string of the older table is still at the same index
+     */
+    public boolean keepsSharedStrings(ExcelStreamingLoader older) {
+        if (sharedStrings.getUniqueCount() < older.sharedStrings.getUniqueCount())
+            return false;
+        for (int i = 0; i < older.sharedStrings.getUniqueCount(); i++) {
+            if (!sharedStrings.getItemAt(i).getString().equals(older.sharedStrings.getItemAt(i).getString()))
+                return false;
+        }
+        return true;
+    }
+
+    // CRC-32 in the high half, size in the low half; -1 if the entry is missing
+    private static long checksum(ZipFile zip, String entryName) {
+        ZipEntry entry = zip.getEntry(entryName);
+        return entry == null ? -1 : entry.getCrc() << 32 | (entry.getSize() & 0xffffffffL);
+    }
+
+    // part names are absolute ("/xl/worksheets/sheet1.xml"), zip entries are not
+    private static String entryName(PackagePart part) {
+        return part.getPartName().getName().substring(1);
+    }
+
+    /**
+     * Resolves a sheet name case-insensitively, the same way XSSFWorkbook.getSheetIndex does
+     * @param sheetName Requested sheet name
+     * @return the sheet name as stored in the workbook, or null if there is no such sheet
+     */
+    public String resolveSheetName(String sheetName) {
+        for (String name : sheetNames) {
+            if (name.equalsIgnoreCase(sheetName)) {
+                return name;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Streams one sheet to the handler
+     * @param sheetName Sheet name (case-insensitive)
+     * @param handler Row callback
+     * @return false if the sheet does not exist
+     * @throws IOException if the sheet cannot be parsed
+     */
+    public boolean parseSheet(String sheetName, SheetRowHandler handler) throws IOException {
+        String resolved = resolveSheetName(sheetName);
+        if (resolved == null)
+            return false;
+
+        try (OPCPackage pkg = OPCPackage.open(path, PackageAccess.READ)) {
+            XSSFReader reader = new XSSFReader(pkg);
+            XSSFReader.SheetIterator sheets = (XSSFReader.SheetIterator) reader.getSheetsData();
+            while (sheets.hasNext()) {
+                try (InputStream sheetStream = sheets.next()) {
+                    if (sheets.getSheetName().equals(resolved)) {
+                        RowCollector collector = new RowCollector(handler);
+                        CellTypeFilter filter = new CellTypeFilter(XMLHelper.newXMLReader(), collector);
+                        filter.setContentHandler(new XSSFSheetXMLHandler(styles, null, sharedStrings,
+                                collector, new LegacyCellFormatter(), false));
+                        filter.parse(new InputSource(sheetStream));
+                        return true;
+                    }
+                }
+            }
+            return false;
+        } catch (OpenXML4JException | SAXException | ParserConfigurationException e) {
+            throw new IOException("Unable to parse sheet " + sheetName + " of " + path, e);
+        }
+    }
+
+    /**
+     * Passes each {@code <c>} element's t attribute to the RowCollector before XSSFSheetXMLHandler
+     * reports the cell, which happens when the element ends
+     */
+    private static final class CellTypeFilter extends XMLFilterImpl {
+
+        private final RowCollector collector;
+
+        CellTypeFilter(XMLReader parent, RowCollector collector) {
+            super(parent);
+            this.collector = collector;
+        }
+
+        @Override
+        public void startElement(String uri, String localName, String qName, Attributes atts) throws SAXException {
+            if ("c".equals(localName))
+                collector.cellType = atts.getValue("t");
+            super.startElement(uri, localName, qName, atts);
+        }
+    }
+
+    /**
+     * Collects the cells of the current row and hands the row over on endRow.
+     * XSSFSheetXMLHandler reports booleans as TRUE/FALSE and errors as ERROR:#...; they are turned
+     * into the text CellDecoder gives the DOM path (true/false, "") by the cell's type, so a string
+     * cell that happens to read TRUE is left alone.
+     */
+    private static final class RowCollector implements XSSFSheetXMLHandler.SheetContentsHandler {
+
+        private final SheetRowHandler handler;
+        private String[] cells = new String[16];
+        private int width;
+        private int currentRow;
+        // t attribute of the cell being parsed: b, e, s, str, inlineStr or n (null)
+        String cellType;
+
+        RowCollector(SheetRowHandler handler) {
+            this.handler = handler;
+        }
+
+        @Override
+        public void startRow(int rowNum) {
+            currentRow = rowNum;
+            width = 0;
+        }
+
+        @Override
+        public void endRow(int rowNum) {
+            handler.row(currentRow, Arrays.copyOf(cells, width));
+            Arrays.fill(cells, 0, width, null);
+        }
+
+        @Override
+        public void cell(String cellReference, String formattedValue, XSSFComment comment) {
+            if (cellReference == null)
+                return;
+            int col = new CellReference(cellReference).getCol();
+            if (col >= cells.length)
+                cells = Arrays.copyOf(cells, Math.max(col + 1, cells.length * 2));
+            if ("b".equals(cellType))
+                formattedValue = String.valueOf("TRUE".equals(formattedValue));
+            else if ("e".equals(cellType))
+                formattedValue = "";
+            cells[col] = formattedValue;
+            if (col + 1 > width)
+                width = col + 1;
+        }
+    }
+
+    /**
+     * Formats numeric cells (and numeric formula results) through CellDecoder, the same as the DOM path.
+     * Holds no formatter state, so concurrent parseSheet calls can share it.
+     */
+    private static final class LegacyCellFormatter extends DataFormatter {
+
+        @Override
+        public String formatRawCellContents(double value, int formatIndex, String formatString, boolean use1904Windowing) {
+            return CellDecoder.formatNumber(value, CellDecoder.isDateFormat(formatIndex, formatString), use1904Windowing);
+        }
+    }
+}
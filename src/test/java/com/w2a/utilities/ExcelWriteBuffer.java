@@ -0,0 +1,225 @@
+package com.w2a.utilities;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * In-memory buffer of pending cell writes for ExcelReader's write-behind mode.
+ * Every write is appended to a journal file next to the workbook and forced to disk before it is
+ * acknowledged, so writes that were not yet flushed survive a crash (of the JVM or of the machine)
+ * and are replayed on the next start.
+ */
+public class ExcelWriteBuffer {
+
+    /**
+     * One buffered setCellData call; url is null for plain values
+     */
+    public static final class PendingWrite {
+        public final String sheetName;
+        public final String colName;
+        public final int rowNum;
+        public final String data;
+        public final String url;
+
+        public PendingWrite(String sheetName, String colName, int rowNum, String data, String url) {
+            this.sheetName = sheetName;
+            this.colName = colName;
+            this.rowNum = rowNum;
+            this.data = data;
+            this.url = url;
+        }
+    }
+
+    private final File journal;
+    private final int maxPending;
+    private final long maxAgeMillis;
+
+    private final List<PendingWrite> pending = new ArrayList<>();
+    // latest pending value per cell, so reads can see writes that are not flushed yet
+    private final Map<String, String> overlay = new HashMap<>();
+    private FileOutputStream journalStream;
+    private BufferedWriter journalWriter;
+    private long firstPendingAt;
+
+    /**
+     * @param workbookPath Path of the workbook the writes belong to
+     * @param maxPending Flush once this many writes are buffered
+     * @param maxAgeMillis Flush once the oldest buffered write is this old
+     */
+    public ExcelWriteBuffer(String workbookPath, int maxPending, long maxAgeMillis) {
+        this.journal = new File(workbookPath + ".journal");
+        this.maxPending = maxPending;
+        this.maxAgeMillis = maxAgeMillis;
+    }
+
+    public File getJournal() {
+        return journal;
+    }
+
+    /**
+     * Reads writes left in the journal by a run that did not flush them
+     * @return the recovered writes, in their original order
+     * @throws IOException if the journal cannot be read
+     */
+    public synchronized List<PendingWrite> recover() throws IOException {
+        if (!journal.exists())
+            return Collections.emptyList();
+        List<PendingWrite> recovered = new ArrayList<>();
+        try (BufferedReader reader = Files.newBufferedReader(journal.toPath(), StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String[] fields = line.split("\t", -1);
+                // a torn last line from a crash mid-append is ignored
+                if (fields.length != 5)
+                    continue;
+                PendingWrite write = new PendingWrite(unescape(fields[0]), unescape(fields[1]),
+                        Integer.parseInt(fields[2]), unescape(fields[3]), fields[4].isEmpty() ? null : unescape(fields[4]));
+                pending.add(write);
+                overlay.put(key(write.sheetName, write.colName, write.rowNum), write.data);
+                recovered.add(write);
+            }
+        }
+        if (!pending.isEmpty())
+            firstPendingAt = System.currentTimeMillis();
+        return recovered;
+    }
+
+    /**
+     * Journals and buffers a write
+     * @return true if a flush threshold has been reached
+     * @throws IOException if the journal cannot be written
+     */
+    public synchronized boolean add(PendingWrite write) throws IOException {
+        if (journalWriter == null) {
+            journalStream = new FileOutputStream(journal, true);
+            journalWriter = new BufferedWriter(new OutputStreamWriter(journalStream, StandardCharsets.UTF_8));
+        }
+        journalWriter.write(line(write));
+        journalWriter.newLine();
+        journalWriter.flush();
+        journalStream.getChannel().force(true);
+
+        if (pending.isEmpty())
+            firstPendingAt = System.currentTimeMillis();
+        pending.add(write);
+        overlay.put(key(write.sheetName, write.colName, write.rowNum), write.data);
+        return pending.size() >= maxPending || System.currentTimeMillis() - firstPendingAt >= maxAgeMillis;
+    }
+
+    /**
+     * @return the buffered value of a cell, or null if the cell has no pending write
+     */
+    public synchronized String pendingValue(String sheetName, String colName, int rowNum) {
+        if (overlay.isEmpty() || colName == null)
+            return null;
+        return overlay.get(key(sheetName, colName, rowNum));
+    }
+
+    public synchronized int size() {
+        return pending.size();
+    }
+
+    /**
+     * @return the buffered writes in order; the buffer keeps them until {@link #committed()}
+     */
+    public synchronized List<PendingWrite> drain() {
+        return new ArrayList<>(pending);
+    }
+
+    /**
+     * Called once the drained writes are safely in the workbook file: drops them from the buffer and the journal.
+     * The writes added after drain() are written to a new journal, forced to disk and moved over the old
+     * one, so a crash at any point leaves either the old or the new journal, never one without them.
+     * @param count Number of writes that were committed (writes added after drain() are kept)
+     * @throws IOException if the journal cannot be replaced
+     */
+    public synchronized void committed(int count) throws IOException {
+        List<PendingWrite> remaining = new ArrayList<>(pending.subList(count, pending.size()));
+        closeJournal();
+        if (remaining.isEmpty()) {
+            Files.deleteIfExists(journal.toPath());
+        } else {
+            File dir = journal.getAbsoluteFile().getParentFile();
+            Path temp = Files.createTempFile(dir.toPath(), journal.getName(), ".tmp");
+            try {
+                try (FileOutputStream stream = new FileOutputStream(temp.toFile())) {
+                    BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(stream, StandardCharsets.UTF_8));
+                    for (PendingWrite write : remaining) {
+                        writer.write(line(write));
+                        writer.newLine();
+                    }
+                    writer.flush();
+                    stream.getChannel().force(true);
+                }
+                try {
+                    Files.move(temp, journal.toPath(), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+                } catch (AtomicMoveNotSupportedException e) {
+                    Files.move(temp, journal.toPath(), StandardCopyOption.REPLACE_EXISTING);
+                }
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+        }
+
+        pending.clear();
+        overlay.clear();
+        for (PendingWrite write : remaining) {
+            pending.add(write);
+            overlay.put(key(write.sheetName, write.colName, write.rowNum), write.data);
+        }
+        if (!pending.isEmpty())
+            firstPendingAt = System.currentTimeMillis();
+    }
+
+    public synchronized void closeJournal() throws IOException {
+        if (journalWriter != null) {
+            journalWriter.close();
+            journalWriter = null;
+            journalStream = null;
+        }
+    }
+
+    private static String line(PendingWrite write) {
+        return escape(write.sheetName) + "\t" + escape(write.colName) + "\t" + write.rowNum + "\t"
+                + escape(write.data) + "\t" + (write.url == null ? "" : escape(write.url));
+    }
+
+    private static String key(String sheetName, String colName, int rowNum) {
+        return sheetName.toLowerCase(Locale.ROOT) + "\u0000" + colName.trim().toLowerCase(Locale.ROOT) + "\u0000" + rowNum;
+    }
+
+    private static String escape(String value) {
+        if (value == null)
+            return "";
+        return value.replace("\\", "\\\\").replace("\t", "\\t").replace("\n", "\\n").replace("\r", "\\r");
+    }
+
+    private static String unescape(String value) {
+        StringBuilder out = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '\\' && i + 1 < value.length()) {
+                char next = value.charAt(++i);
+                out.append(next == 't' ? '\t' : next == 'n' ? '\n' : next == 'r' ? '\r' : next);
+            } else {
+                out.append(c);
+            }
+        }
+        return out.toString();
+    }
+}
@@ -0,0 +1,99 @@
+package com.w2a.utilities;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Immutable header-name to column-index map for one sheet, built from header row 1.
+ * Names are trimmed; when a name appears twice the right-most column wins,
+ * which matches the linear scans ExcelReader used before. A header may declare the type of its
+ * column for SheetRecordGenerator with a suffix, e.g. "postcode:int"; the column is still named
+ * "postcode" everywhere else.
+ */
+public final class HeaderIndex {
+
+    // the suffixes SheetRecordGenerator understands; anything else after a colon is part of the name
+    private static final Set<String> TYPES = new HashSet<>(Arrays.asList("string", "int", "long", "double", "boolean", "date"));
+
+    private final String[] names;
+    private final int[] keyColumns;
+    private final Map<String, Integer> exact;
+    private final Map<String, Integer> ignoreCase;
+
+    /**
+     * @param headerCells Header row values in column order, null for empty cells
+     */
+    public HeaderIndex(String[] headerCells) {
+        this.names = new String[headerCells.length];
+        Map<String, Integer> exactMap = new HashMap<>();
+        Map<String, Integer> ignoreCaseMap = new HashMap<>();
+        for (int i = 0; i < headerCells.length; i++) {
+            if (headerCells[i] == null || headerCells[i].isEmpty())
+                continue;
+            String name = columnName(headerCells[i]).intern();
+            names[i] = name;
+            exactMap.put(name, i);
+            ignoreCaseMap.put(name.toLowerCase(Locale.ROOT), i);
+        }
+        this.keyColumns = exactMap.values().stream().mapToInt(Integer::intValue).sorted().toArray();
+        this.exact = Collections.unmodifiableMap(exactMap);
+        this.ignoreCase = Collections.unmodifiableMap(ignoreCaseMap);
+    }
+
+    /**
+     * @param headerCell Header cell text, e.g. " postcode:int "
+     * @return the column name without blanks and type suffix, e.g. "postcode"
+     */
+    public static String columnName(String headerCell) {
+        String name = headerCell.trim();
+        int colon = name.lastIndexOf(':');
+        if (colon > 0 && TYPES.contains(name.substring(colon + 1).trim().toLowerCase(Locale.ROOT)))
+            name = name.substring(0, colon).trim();
+        return name;
+    }
+
+    /**
+     * @param colName Header name (surrounding blanks and a type suffix such as :int are ignored)
+     * @return 0-based column index, or -1 if there is no such column
+     */
+    public int indexOf(String colName) {
+        Integer index = exact.get(columnName(colName));
+        return index == null ? -1 : index;
+    }
+
+    /**
+     * @param colName Header name, compared case-insensitively and without a type suffix
+     * @return 0-based column index, or -1 if there is no such column
+     */
+    public int indexOfIgnoreCase(String colName) {
+        Integer index = ignoreCase.get(columnName(colName).toLowerCase(Locale.ROOT));
+        return index == null ? -1 : index;
+    }
+
+    /**
+     * @return number of header cells, including empty ones
+     */
+    public int size() {
+        return names.length;
+    }
+
+    /**
+     * @return the column of each distinct header name, left to right
+     */
+    int[] keyColumns() {
+        return keyColumns;
+    }
+
+    /**
+     * @param colNum 0-based column index
+     * @return the interned header name, or null for an empty header cell
+     */
+    public String nameAt(int colNum) {
+        return colNum >= 0 && colNum < names.length ? names[colNum] : null;
+    }
+}
@@ -0,0 +1,176 @@
+package com.w2a.utilities;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Properties;
+import java.util.regex.Pattern;
+
+/**
+ * TestDataSource over a database: a sheet is the result of a query, by default
+ * {@code SELECT * FROM <sheetName>}, or the query configured as {@code testdata.jdbc.query.<sheetName>}.
+ * Columns become the row keys by their label, so alias columns ({@code AS "firstname"}) when the
+ * database upper-cases unquoted names.
+ *
+ * Rows are streamed with a forward-only cursor and the configured fetch size; the connection stays
+ * borrowed from the pool until the iterator is exhausted. For MySQL add {@code useCursorFetch=true}
+ * to the url, otherwise the driver ignores the fetch size and reads the whole result.
+ */
+public class JdbcDataSource implements TestDataSource {
+
+    private static final Pattern IDENTIFIER = Pattern.compile("[A-Za-z_][A-Za-z0-9_]*");
+
+    private final ConnectionPool pool;
+    private final Properties config;
+    private final int fetchSize;
+
+    /**
+     * @param pool Pool the rows are read through
+     * @param config Properties holding the per-sheet testdata.jdbc.query.* overrides
+     * @param fetchSize Rows fetched per round trip
+     */
+    public JdbcDataSource(ConnectionPool pool, Properties config, int fetchSize) {
+        this.pool = pool;
+        this.config = config;
+        this.fetchSize = fetchSize;
+    }
+
+    @Override
+    public String getName() {
+        return "jdbc";
+    }
+
+    @Override
+    public Iterator<DataRow> rows(String sheetName) throws IOException {
+        String query = config.getProperty("testdata.jdbc.query." + sheetName);
+        Connection connection = null;
+        Statement statement = null;
+        try {
+            connection = pool.borrow();
+            if (query == null) {
+                String table = tableName(connection, sheetName);
+                if (table == null) {
+                    pool.release(connection);
+                    return null;
+                }
+                query = "SELECT * FROM " + table;
+            }
+            // some drivers (PostgreSQL) only honour the fetch size inside a transaction
+            connection.setAutoCommit(false);
+            statement = connection.createStatement(ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            statement.setFetchSize(fetchSize);
+            return new Rows(connection, statement, statement.executeQuery(query), sheetName);
+        } catch (SQLException | RuntimeException e) {
+            closeQuietly(statement);
+            pool.release(connection);
+            throw new IOException("Cannot query test data " + sheetName + ": " + e.getMessage(), e);
+        }
+    }
+
+    // the table matching the sheet name case-insensitively, or null; the name is never spliced in unchecked
+    private static String tableName(Connection connection, String sheetName) throws SQLException {
+        if (!IDENTIFIER.matcher(sheetName).matches())
+            return null;
+        DatabaseMetaData meta = connection.getMetaData();
+        try (ResultSet tables = meta.getTables(connection.getCatalog(), connection.getSchema(), null, new String[] { "TABLE", "VIEW" })) {
+            while (tables.next()) {
+                String table = tables.getString("TABLE_NAME");
+                if (table.equalsIgnoreCase(sheetName)) {
+                    String quote = meta.getIdentifierQuoteString().trim();
+                    return quote + table + quote;
+                }
+            }
+        }
+        return null;
+    }
+
+    private static void closeQuietly(AutoCloseable closeable) {
+        if (closeable == null)
+            return;
+        try {
+            closeable.close();
+        } catch (Exception e) {
+            // nothing left to do
+        }
+    }
+
+    private final class Rows implements Iterator<DataRow>, Closeable {
+
+        private final Connection connection;
+        private final Statement statement;
+        private final ResultSet resultSet;
+        private final String sheetName;
+        private final HeaderIndex header;
+        private final int cols;
+        private DataRow next;
+        private boolean done;
+
+        Rows(Connection connection, Statement statement, ResultSet resultSet, String sheetName) throws SQLException {
+            this.connection = connection;
+            this.statement = statement;
+            this.resultSet = resultSet;
+            this.sheetName = sheetName;
+            ResultSetMetaData meta = resultSet.getMetaData();
+            this.cols = meta.getColumnCount();
+            String[] labels = new String[cols];
+            for (int c = 0; c < cols; c++)
+                labels[c] = meta.getColumnLabel(c + 1);
+            this.header = new HeaderIndex(labels);
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (next != null)
+                return true;
+            if (done)
+                return false;
+            try {
+                if (!resultSet.next()) {
+                    close();
+                    return false;
+                }
+                String[] values = new String[cols];
+                for (int c = 0; c < cols; c++) {
+                    String value = resultSet.getString(c + 1);
+                    values[c] = value == null ? "" : value;
+                }
+                next = new DataRow(header, values);
+                return true;
+            } catch (SQLException e) {
+                close();
+                throw new IllegalStateException("Cannot read test data " + sheetName + ": " + e.getMessage(), e);
+            }
+        }
+
+        @Override
+        public DataRow next() {
+            if (!hasNext())
+                throw new NoSuchElementException();
+            DataRow row = next;
+            next = null;
+            return row;
+        }
+
+        @Override
+        public void close() {
+            if (done)
+                return;
+            done = true;
+            closeQuietly(resultSet);
+            closeQuietly(statement);
+            try {
+                connection.rollback();
+            } catch (SQLException e) {
+                // read-only cursor, nothing to undo
+            }
+            pool.release(connection);
+        }
+    }
+}
@@ -0,0 +1,220 @@
+package com.w2a.utilities;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * TestDataSource over one JSON-lines file per sheet: {@code <dir>/<sheetName>.jsonl}, UTF-8,
+ * one flat JSON object per line, e.g. {"firstname":"Raman","postcode":"A234wd","runmode":"Y"}.
+ * Strings, numbers and booleans become the cell text, null becomes "". Nested objects and arrays
+ * are rejected. Blank lines are skipped.
+ *
+ * The column order is the order in which keys are first seen; all rows share one HeaderIndex,
+ * which only grows when a line introduces a new key.
+ */
+public class JsonLinesDataSource implements TestDataSource {
+
+    private final File dir;
+
+    /**
+     * @param dir Directory holding the .jsonl files
+     */
+    public JsonLinesDataSource(File dir) {
+        this.dir = dir;
+    }
+
+    @Override
+    public String getName() {
+        return "jsonl";
+    }
+
+    @Override
+    public Iterator<DataRow> rows(String sheetName) throws IOException {
+        File file = DataFiles.find(dir, sheetName, ".jsonl");
+        if (file == null)
+            return null;
+        return new Rows(Files.newBufferedReader(file.toPath(), StandardCharsets.UTF_8), file.getName());
+    }
+
+    private static final class Rows implements Iterator<DataRow>, Closeable {
+
+        private final BufferedReader reader;
+        private final String fileName;
+        private final StringBuilder text = new StringBuilder(64);
+        private final List<String> names = new ArrayList<>();
+        private HeaderIndex header = new HeaderIndex(new String[0]);
+        private DataRow next;
+        private int lineNumber;
+        private boolean closed;
+
+        // parse position within the current line
+        private String line;
+        private int pos;
+
+        Rows(BufferedReader reader, String fileName) {
+            this.reader = reader;
+            this.fileName = fileName;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (next != null)
+                return true;
+            if (closed)
+                return false;
+            try {
+                while ((line = reader.readLine()) != null) {
+                    lineNumber++;
+                    if (lineNumber == 1 && line.startsWith("\uFEFF"))
+                        line = line.substring(1);
+                    if (line.trim().isEmpty())
+                        continue;
+                    next = parseLine();
+                    return true;
+                }
+                close();
+                return false;
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot read " + fileName, e);
+            }
+        }
+
+        @Override
+        public DataRow next() {
+            if (!hasNext())
+                throw new NoSuchElementException();
+            DataRow row = next;
+            next = null;
+            return row;
+        }
+
+        @Override
+        public void close() throws IOException {
+            closed = true;
+            reader.close();
+        }
+
+        private DataRow parseLine() {
+            pos = 0;
+            String[] row = new String[names.size()];
+            expect('{');
+            skipBlanks();
+            if (peek() == '}') {
+                pos++;
+                return new DataRow(header, row);
+            }
+            while (true) {
+                skipBlanks();
+                String key = readString();
+                skipBlanks();
+                expect(':');
+                skipBlanks();
+                String value = readValue();
+
+                // the column name as HeaderIndex stores it; a key without one ("" or blanks) is skipped,
+                // since it could never be found and would widen the header on every line
+                String name = HeaderIndex.columnName(key);
+                if (!name.isEmpty()) {
+                    int colNum = header.indexOf(name);
+                    if (colNum < 0) {
+                        // a key not seen before: widen the shared header for this and later rows
+                        names.add(name);
+                        header = new HeaderIndex(names.toArray(new String[0]));
+                        colNum = names.size() - 1;
+                    }
+                    if (colNum >= row.length)
+                        row = Arrays.copyOf(row, names.size());
+                    row[colNum] = value;
+                }
+
+                skipBlanks();
+                char c = read();
+                if (c == '}')
+                    return new DataRow(header, row);
+                if (c != ',')
+                    throw error("expected ',' or '}'");
+            }
+        }
+
+        private String readValue() {
+            char c = peek();
+            if (c == '"')
+                return readString();
+            if (c == '{' || c == '[')
+                throw error("nested objects and arrays are not supported");
+            int start = pos;
+            while (pos < line.length() && ",} \t".indexOf(line.charAt(pos)) < 0)
+                pos++;
+            String literal = line.substring(start, pos);
+            if (literal.isEmpty())
+                throw error("missing value");
+            return literal.equals("null") ? "" : literal;
+        }
+
+        private String readString() {
+            expect('"');
+            text.setLength(0);
+            while (true) {
+                char c = read();
+                if (c == '"')
+                    return text.toString();
+                if (c != '\\') {
+                    text.append(c);
+                    continue;
+                }
+                char escaped = read();
+                switch (escaped) {
+                    case 'n': text.append('\n'); break;
+                    case 't': text.append('\t'); break;
+                    case 'r': text.append('\r'); break;
+                    case 'b': text.append('\b'); break;
+                    case 'f': text.append('\f'); break;
+                    case 'u':
+                        if (pos + 4 > line.length())
+                            throw error("bad \\u escape");
+                        text.append((char) Integer.parseInt(line.substring(pos, pos + 4), 16));
+                        pos += 4;
+                        break;
+                    default: text.append(escaped);
+                }
+            }
+        }
+
+        private void skipBlanks() {
+            while (pos < line.length() && Character.isWhitespace(line.charAt(pos)))
+                pos++;
+        }
+
+        private char peek() {
+            if (pos >= line.length())
+                throw error("unexpected end of line");
+            return line.charAt(pos);
+        }
+
+        private char read() {
+            char c = peek();
+            pos++;
+            return c;
+        }
+
+        private void expect(char expected) {
+            skipBlanks();
+            if (read() != expected)
+                throw error("expected '" + expected + "'");
+        }
+
+        private IllegalArgumentException error(String message) {
+            return new IllegalArgumentException(fileName + " line " + lineNumber + ", column " + (pos + 1) + ": " + message);
+        }
+    }
+}
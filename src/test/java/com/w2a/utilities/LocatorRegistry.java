@@ -0,0 +1,159 @@
+package com.w2a.utilities;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeSet;
+
+import javax.xml.xpath.XPathExpressionException;
+import javax.xml.xpath.XPathFactory;
+
+import org.openqa.selenium.By;
+
+/**
+ * The locators of OR.properties, parsed once into By instances. The key suffix gives the strategy:
+ * _CSS (By.cssSelector), _XPATH (By.xpath) or _ID (By.id). Keys are trimmed; every entry is checked
+ * when the registry is built (known suffix, no empty locator, balanced brackets and quotes in CSS,
+ * XPath that compiles, and no key defined twice when the file was loaded into {@link LocatorProperties})
+ * and all problems are reported together, so a broken repository fails
+ * the suite at start rather than a test at its first use. Looking up a key that is not there fails
+ * at once as well instead of after a wait.
+ */
+public final class LocatorRegistry {
+
+    /**
+     * Properties that remember the keys load() saw more than once; plain Properties keep the last
+     * value of a duplicated key without a word
+     */
+    public static class LocatorProperties extends Properties {
+
+        private static final long serialVersionUID = 1L;
+
+        private final Set<String> duplicates = new LinkedHashSet<>();
+
+        @Override
+        public synchronized Object put(Object key, Object value) {
+            Object previous = super.put(key, value);
+            if (previous != null)
+                duplicates.add(String.valueOf(key));
+            return previous;
+        }
+
+        /**
+         * @return the keys defined more than once, in the order they were repeated
+         */
+        public synchronized Set<String> getDuplicates() {
+            return Collections.unmodifiableSet(new LinkedHashSet<>(duplicates));
+        }
+    }
+
+    private final Map<String, By> locators;
+
+    private LocatorRegistry(Map<String, By> locators) {
+        this.locators = Collections.unmodifiableMap(locators);
+    }
+
+    /**
+     * @param or Loaded OR.properties; duplicated keys are only detected if it is a LocatorProperties
+     * @throws IllegalStateException listing every invalid entry
+     */
+    public static LocatorRegistry of(Properties or) {
+        Map<String, By> locators = new HashMap<>();
+        List<String> problems = new ArrayList<>();
+        if (or instanceof LocatorProperties) {
+            for (String key : ((LocatorProperties) or).getDuplicates())
+                problems.add(key + ": defined twice");
+        }
+        for (String name : or.stringPropertyNames()) {
+            String key = name.trim();
+            String value = or.getProperty(name).trim();
+            if (value.isEmpty()) {
+                problems.add(key + ": empty locator");
+                continue;
+            }
+            String problem;
+            By by;
+            if (key.endsWith("_CSS")) {
+                problem = checkCss(value);
+                by = By.cssSelector(value);
+            } else if (key.endsWith("_XPATH")) {
+                problem = checkXpath(value);
+                by = By.xpath(value);
+            } else if (key.endsWith("_ID")) {
+                problem = value.matches("\\S+") ? null : "id contains whitespace";
+                by = By.id(value);
+            } else {
+                problems.add(key + ": unknown locator type, expected a _CSS, _XPATH or _ID suffix");
+                continue;
+            }
+            if (problem != null)
+                problems.add(key + "=" + value + ": " + problem);
+            else
+                locators.put(key, by);
+        }
+        if (!problems.isEmpty())
+            throw new IllegalStateException("Invalid entries in OR.properties:\n  " + String.join("\n  ", problems));
+        return new LocatorRegistry(locators);
+    }
+
+    /**
+     * @param key OR.properties key, e.g. bmlBtn_CSS
+     * @return the same By instance on every call
+     * @throws IllegalArgumentException if there is no such key
+     */
+    public By get(String key) {
+        By by = locators.get(key);
+        if (by == null)
+            throw new IllegalArgumentException("No locator '" + key + "' in OR.properties, known keys: " + keys());
+        return by;
+    }
+
+    public boolean contains(String key) {
+        return locators.containsKey(key);
+    }
+
+    public Set<String> keys() {
+        return Collections.unmodifiableSet(new TreeSet<>(locators.keySet()));
+    }
+
+    // brackets, parentheses and quotes must pair up; the browser reports anything subtler on first use
+    private static String checkCss(String css) {
+        StringBuilder open = new StringBuilder();
+        char quote = 0;
+        for (int i = 0; i < css.length(); i++) {
+            char c = css.charAt(i);
+            if (c == '\\') {
+                i++;
+            } else if (quote != 0) {
+                if (c == quote)
+                    quote = 0;
+            } else if (c == '\'' || c == '"') {
+                quote = c;
+            } else if (c == '[' || c == '(') {
+                open.append(c);
+            } else if (c == ']' || c == ')') {
+                if (open.length() == 0 || open.charAt(open.length() - 1) != (c == ']' ? '[' : '('))
+                    return "unbalanced '" + c + "' at " + i;
+                open.setLength(open.length() - 1);
+            }
+        }
+        if (quote != 0)
+            return "unclosed " + quote;
+        return open.length() == 0 ? null : "unclosed '" + open.charAt(open.length() - 1) + "'";
+    }
+
+    // browsers evaluate XPath 1.0, which is what the JDK compiles
+    private static String checkXpath(String xpath) {
+        try {
+            XPathFactory.newInstance().newXPath().compile(xpath);
+            return null;
+        } catch (XPathExpressionException e) {
+            return "invalid XPath: " + (e.getMessage() != null ? e.getMessage() : e.getCause());
+        }
+    }
+}
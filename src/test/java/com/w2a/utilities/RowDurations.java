@@ -0,0 +1,109 @@
+package com.w2a.utilities;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.w2a.base.TestBase;
+
+/**
+ * Historical duration per data row (and per plain test method), kept in target/row-durations.properties between runs.
+ * A row is identified by its test method and its values (not its row number), so inserting
+ * rows in the sheet does not shift the history. Each run is blended in as a moving average.
+ */
+public final class RowDurations {
+
+    // -Drow.durations.file lets sharded CI agents share one history (e.g. restored from a cache)
+    private static final File STORE = new File(System.getProperty("row.durations.file",
+            new File(System.getProperty("user.dir"), "target/row-durations.properties").getPath()));
+    private static final double WEIGHT_OF_NEW_RUN = 0.3;
+
+    private static final Map<String, Long> durations = new ConcurrentHashMap<>();
+    private static volatile boolean loaded;
+    private static volatile boolean dirty;
+
+    private RowDurations() {
+    }
+
+    /**
+     * @param methodName Test method the row feeds
+     * @param row Row values keyed by header
+     * @return a key that is stable across runs as long as the row values do not change
+     */
+    public static String rowKey(String methodName, Map<String, String> row) {
+        StringBuilder key = new StringBuilder(methodName);
+        for (Map.Entry<String, String> cell : new TreeMap<>(row).entrySet())
+            key.append('|').append(cell.getKey()).append('=').append(cell.getValue());
+        return key.toString();
+    }
+
+    /**
+     * @return the average duration of the row in milliseconds, or -1 if it never ran
+     */
+    public static long estimate(String rowKey) {
+        load();
+        Long millis = durations.get(rowKey);
+        return millis == null ? -1 : millis;
+    }
+
+    /**
+     * @return the summed average duration of all rows of a method (or of the method itself), or -1 if it never ran
+     */
+    public static long methodEstimate(String methodName) {
+        load();
+        long total = -1;
+        for (Map.Entry<String, Long> entry : durations.entrySet()) {
+            String key = entry.getKey();
+            if (key.equals(methodName) || key.startsWith(methodName + "|"))
+                total = Math.max(total, 0) + entry.getValue();
+        }
+        return total;
+    }
+
+    public static void record(String rowKey, long millis) {
+        load();
+        durations.merge(rowKey, millis, (old, now) -> Math.round(old * (1 - WEIGHT_OF_NEW_RUN) + now * WEIGHT_OF_NEW_RUN));
+        dirty = true;
+    }
+
+    public static synchronized void save() {
+        if (!dirty)
+            return;
+        Properties out = new Properties();
+        durations.forEach((key, millis) -> out.setProperty(key, Long.toString(millis)));
+        STORE.getParentFile().mkdirs();
+        try (OutputStream stream = new FileOutputStream(STORE)) {
+            out.store(stream, "Average test duration per data row (ms)");
+            dirty = false;
+        } catch (IOException e) {
+            TestBase.logWarning("Could not save row durations: " + e.getMessage());
+        }
+    }
+
+    private static void load() {
+        if (loaded)
+            return;
+        synchronized (RowDurations.class) {
+            if (loaded)
+                return;
+            if (STORE.isFile()) {
+                Properties in = new Properties();
+                try (InputStream stream = new FileInputStream(STORE)) {
+                    in.load(stream);
+                    for (String key : in.stringPropertyNames())
+                        durations.putIfAbsent(key, Long.parseLong(in.getProperty(key).trim()));
+                } catch (IOException | NumberFormatException e) {
+                    TestBase.logWarning("Ignoring unreadable row durations: " + e.getMessage());
+                }
+            }
+            loaded = true;
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.w2a.utilities;
+
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.IntFunction;
+
+/**
+ * Case-insensitive map from the values of one key column (TCID, test case name) to the rows holding them,
+ * so ExcelReader finds a row by key in O(1) instead of reading the column row by row.
+ * Built on first lookup per (sheet, column) and kept current by ExcelReader's writes to that column.
+ * Values are matched on their lower-cased (Locale.ROOT) form, the same as RunmodeIndex.
+ * Lookups never lock; updates are serialised.
+ */
+final class RowKeyIndex {
+
+    private static final int[] NO_ROWS = new int[0];
+
+    // key -> sorted 1-based row numbers
+    private final Map<String, int[]> rowsByKey = new ConcurrentHashMap<>();
+    // row number -> key currently indexed for it, so a write can move the row without reading the old value
+    private String[] keyOfRow;
+
+    /**
+     * @param rowCount Rows in the sheet including the header; data rows 2..rowCount are indexed
+     * @param valueAt Cell text of the key column for a 1-based row number
+     */
+    RowKeyIndex(int rowCount, IntFunction<String> valueAt) {
+        keyOfRow = new String[Math.max(rowCount + 1, 2)];
+        for (int rowNum = 2; rowNum <= rowCount; rowNum++)
+            add(rowNum, normalise(valueAt.apply(rowNum)));
+    }
+
+    /**
+     * @return the first data row holding the value, or -1
+     */
+    int firstRow(String value) {
+        int[] rows = rowsByKey.get(normalise(value));
+        return rows == null ? -1 : rows[0];
+    }
+
+    /**
+     * @return all data rows holding the value in ascending order, empty if none
+     */
+    int[] rows(String value) {
+        int[] rows = rowsByKey.get(normalise(value));
+        return rows == null ? NO_ROWS : rows.clone();
+    }
+
+    /**
+     * Records a write to the key column
+     * @param rowNum 1-based row number; header writes are not indexed
+     * @param value New cell text
+     */
+    synchronized void put(int rowNum, String value) {
+        if (rowNum < 2)
+            return;
+        if (rowNum >= keyOfRow.length)
+            keyOfRow = Arrays.copyOf(keyOfRow, Math.max(rowNum + 1, keyOfRow.length * 2));
+        String old = keyOfRow[rowNum];
+        String key = normalise(value);
+        if (key.equals(old))
+            return;
+        if (old != null)
+            rowsByKey.computeIfPresent(old, (k, rows) -> rows.length == 1 ? null : without(rows, rowNum));
+        add(rowNum, key);
+    }
+
+    private void add(int rowNum, String key) {
+        keyOfRow[rowNum] = key;
+        rowsByKey.merge(key, new int[] { rowNum }, RowKeyIndex::with);
+    }
+
+    // arrays are replaced, never changed in place, so readers always see a complete one
+    private static int[] with(int[] rows, int[] added) {
+        int at = Arrays.binarySearch(rows, added[0]);
+        if (at >= 0)
+            return rows;
+        int insert = -at - 1;
+        int[] result = new int[rows.length + 1];
+        System.arraycopy(rows, 0, result, 0, insert);
+        result[insert] = added[0];
+        System.arraycopy(rows, insert, result, insert + 1, rows.length - insert);
+        return result;
+    }
+
+    private static int[] without(int[] rows, int rowNum) {
+        int at = Arrays.binarySearch(rows, rowNum);
+        if (at < 0)
+            return rows;
+        int[] result = new int[rows.length - 1];
+        System.arraycopy(rows, 0, result, 0, at);
+        System.arraycopy(rows, at + 1, result, at, rows.length - at - 1);
+        return result;
+    }
+
+    private static String normalise(String value) {
+        return value == null ? "" : value.toLowerCase(Locale.ROOT);
+    }
+}
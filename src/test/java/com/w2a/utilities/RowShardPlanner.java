@@ -0,0 +1,137 @@
+package com.w2a.utilities;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * Orders data provider rows for a parallel data provider so the worker threads finish together.
+ *
+ * TestNG hands the next row to whichever data provider thread becomes free, so feeding the rows
+ * longest-first makes the pool run the longest-processing-time-first (LPT) schedule. The planner
+ * also simulates that schedule for the configured thread count to report the expected makespan.
+ */
+public final class RowShardPlanner {
+
+    /**
+     * Result of planning: rows in dispatch order and the simulated load of each thread
+     */
+    public static final class Plan {
+        public final Object[][] rows;
+        public final long[] shardMillis;
+        public final long serialMillis;
+
+        Plan(Object[][] rows, long[] shardMillis, long serialMillis) {
+            this.rows = rows;
+            this.shardMillis = shardMillis;
+            this.serialMillis = serialMillis;
+        }
+
+        public long makespanMillis() {
+            return Arrays.stream(shardMillis).max().orElse(0);
+        }
+    }
+
+    private RowShardPlanner() {
+    }
+
+    /**
+     * @param methodName Test method the rows feed, part of the duration key
+     * @param rows Data provider rows; rows whose first parameter is a Map are balanced by history
+     * @param threads data-provider-thread-count of the suite
+     * @return the rows longest-first; rows without history are costed at the average of the known ones
+     */
+    public static Plan plan(String methodName, Object[][] rows, int threads) {
+        long[] cost = costs(methodName, rows);
+
+        // stable sort keeps sheet order among equal estimates (e.g. on the first run)
+        List<Integer> order = longestFirst(cost);
+
+        long[] shards = new long[Math.max(threads, 1)];
+        PriorityQueue<Integer> free = new PriorityQueue<>(Comparator.comparingLong((Integer s) -> shards[s]).thenComparing(s -> s));
+        for (int s = 0; s < shards.length; s++)
+            free.add(s);
+
+        Object[][] ordered = new Object[rows.length][];
+        long serial = 0;
+        for (int i = 0; i < order.size(); i++) {
+            int row = order.get(i);
+            ordered[i] = rows[row];
+            int shard = free.poll();
+            shards[shard] += cost[row];
+            free.add(shard);
+            serial += cost[row];
+        }
+        return new Plan(ordered, shards, serial);
+    }
+
+    /**
+     * Splits rows across JVMs with the same LPT rule. Every JVM computes the same assignment as long as
+     * it sees the same rows and the same duration history.
+     * @param methodName Test method the rows feed, part of the duration key
+     * @param rows All rows of the method, in source order
+     * @param shards Number of JVMs
+     * @return the shard (0-based) of each row
+     */
+    public static int[] assign(String methodName, Object[][] rows, int shards) {
+        long[] cost = costs(methodName, rows);
+        long[] load = new long[Math.max(shards, 1)];
+        int[] assignment = new int[rows.length];
+        for (int row : longestFirst(cost)) {
+            int target = 0;
+            for (int s = 1; s < load.length; s++)
+                if (load[s] < load[target])
+                    target = s;
+            assignment[row] = target;
+            load[target] += cost[row];
+        }
+        return assignment;
+    }
+
+    /**
+     * @return the duration key of a data provider row: method plus values, or the row's toString without a Map
+     */
+    public static String rowKey(String methodName, Object[] row) {
+        if (row.length > 0 && row[0] instanceof Map)
+            return RowDurations.rowKey(methodName, asRow(row[0]));
+        // keyed like the DataRow of the same row, so history is shared with the map providers
+        if (row.length > 0 && row[0] instanceof SheetRecord)
+            return RowDurations.rowKey(methodName, ((SheetRecord) row[0]).toDataRow());
+        return methodName + "|" + Arrays.toString(row);
+    }
+
+    // estimated ms per row; rows without history are costed at the average of the known ones
+    private static long[] costs(String methodName, Object[][] rows) {
+        long[] cost = new long[rows.length];
+        long known = 0;
+        int knownCount = 0;
+        for (int i = 0; i < rows.length; i++) {
+            cost[i] = RowDurations.estimate(rowKey(methodName, rows[i]));
+            if (cost[i] >= 0) {
+                known += cost[i];
+                knownCount++;
+            }
+        }
+        long fallback = knownCount == 0 ? 1 : Math.max(known / knownCount, 1);
+        for (int i = 0; i < cost.length; i++)
+            if (cost[i] < 0)
+                cost[i] = fallback;
+        return cost;
+    }
+
+    private static List<Integer> longestFirst(long[] cost) {
+        List<Integer> order = new ArrayList<>(cost.length);
+        for (int i = 0; i < cost.length; i++)
+            order.add(i);
+        order.sort(Comparator.comparingLong((Integer i) -> cost[i]).reversed());
+        return order;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, String> asRow(Object parameter) {
+        return (Map<String, String>) parameter;
+    }
+}
@@ -0,0 +1,65 @@
+package com.w2a.utilities;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Runmodes of the test_suite sheet (TCID -> Runmode), indexed once per snapshot of that sheet,
+ * plus the row-level runmode check used by the data providers.
+ */
+public final class RunmodeIndex {
+
+    public static final String SUITE_SHEET = "test_suite";
+
+    private static volatile RunmodeIndex current;
+
+    private final SheetSnapshot source;
+    private final Map<String, Boolean> runmodes;
+
+    private RunmodeIndex(SheetSnapshot source) {
+        this.source = source;
+        Map<String, Boolean> map = new HashMap<>();
+        if (source != null) {
+            int tcid = source.getHeader().indexOfIgnoreCase("TCID");
+            int runmode = source.getHeader().indexOfIgnoreCase("Runmode");
+            for (int rNum = 2; rNum <= source.getRowCount(); rNum++) {
+                String testCase = source.getCellData(rNum, tcid).trim().toLowerCase(Locale.ROOT);
+                // the first occurrence wins, as with the old top-down scan
+                if (!testCase.isEmpty())
+                    map.putIfAbsent(testCase, source.getCellData(rNum, runmode).equalsIgnoreCase("Y"));
+            }
+        }
+        this.runmodes = Collections.unmodifiableMap(map);
+    }
+
+    /**
+     * @return the index of the current test_suite snapshot; rebuilt only when the sheet was reloaded
+     */
+    public static RunmodeIndex of(ExcelReader excel) {
+        SheetSnapshot suite = excel.getSnapshot(SUITE_SHEET);
+        RunmodeIndex index = current;
+        if (index == null || index.source != suite) {
+            index = new RunmodeIndex(suite);
+            current = index;
+        }
+        return index;
+    }
+
+    /**
+     * @param testCase TCID, compared case-insensitively
+     * @return TRUE for Runmode Y, FALSE for anything else, null if the TCID is not listed
+     */
+    public Boolean runmodeOf(String testCase) {
+        return runmodes.get(testCase.trim().toLowerCase(Locale.ROOT));
+    }
+
+    /**
+     * @return false only if the row has a runmode column whose value is not Y
+     */
+    public static boolean isRowRunnable(Map<String, String> row) {
+        String runmode = row.get("runmode");
+        return runmode == null || runmode.equalsIgnoreCase("Y");
+    }
+}
@@ -0,0 +1,86 @@
+package com.w2a.utilities;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.w2a.base.TestBase;
+
+/**
+ * What one shard was given and what happened to it, written to
+ * target/shards/shard-&lt;index&gt;-of-&lt;count&gt;.tsv at the end of the suite so the shards can be merged.
+ *
+ * Tab-separated lines after a # header:
+ * <pre>
+ * rows    method  total rows seen  rows assigned here
+ * method  class#method  assigned|not-assigned
+ * result  method  row key  PASS|FAIL|SKIP  millis
+ * </pre>
+ * Across all shards every row key and every method must appear assigned exactly once.
+ */
+public final class ShardManifest {
+
+    private static final Map<String, AtomicInteger[]> rowCounts = new ConcurrentHashMap<>();
+    private static final Map<String, Boolean> methods = new ConcurrentHashMap<>();
+    private static final Map<String, String> results = new ConcurrentHashMap<>();
+
+    private ShardManifest() {
+    }
+
+    static void row(String methodName, String rowKey, boolean assigned) {
+        AtomicInteger[] counts = rowCounts.computeIfAbsent(methodName, m -> new AtomicInteger[] { new AtomicInteger(), new AtomicInteger() });
+        counts[0].incrementAndGet();
+        if (assigned)
+            counts[1].incrementAndGet();
+    }
+
+    public static void method(String qualifiedName, boolean assigned) {
+        methods.put(qualifiedName, assigned);
+    }
+
+    public static void result(String methodName, String rowKey, String status, long millis) {
+        results.put(methodName + "\t" + escape(rowKey), status + "\t" + millis);
+    }
+
+    /**
+     * @return the manifest file, or null if sharding is off or it could not be written
+     */
+    public static File write() {
+        TestShards shards = TestShards.current();
+        if (!shards.isEnabled())
+            return null;
+        File file = new File(System.getProperty("user.dir"), "target/shards/shard-" + shards.getIndex() + "-of-" + shards.getCount() + ".tsv");
+        file.getParentFile().mkdirs();
+        try (BufferedWriter out = Files.newBufferedWriter(file.toPath(), StandardCharsets.UTF_8)) {
+            out.write("# shard " + shards.getIndex() + " of " + shards.getCount() + ", strategy " + shards.getStrategy()
+                    + ", by " + (shards.isByMethods() ? "methods" : "rows"));
+            out.newLine();
+            for (Map.Entry<String, AtomicInteger[]> entry : new TreeMap<>(rowCounts).entrySet()) {
+                out.write("rows\t" + entry.getKey() + "\t" + entry.getValue()[0] + "\t" + entry.getValue()[1]);
+                out.newLine();
+            }
+            for (Map.Entry<String, Boolean> entry : new TreeMap<>(methods).entrySet()) {
+                out.write("method\t" + entry.getKey() + "\t" + (entry.getValue() ? "assigned" : "not-assigned"));
+                out.newLine();
+            }
+            for (Map.Entry<String, String> entry : new TreeMap<>(results).entrySet()) {
+                out.write("result\t" + entry.getKey() + "\t" + entry.getValue());
+                out.newLine();
+            }
+        } catch (IOException e) {
+            TestBase.logWarning("Could not write shard manifest " + file + ": " + e.getMessage());
+            return null;
+        }
+        return file;
+    }
+
+    private static String escape(String value) {
+        return value.replace("\\", "\\\\").replace("\t", "\\t").replace("\n", "\\n").replace("\r", "\\r");
+    }
+}
@@ -0,0 +1,34 @@
+package com.w2a.utilities;
+
+/**
+ * A data row as an instance of the class SheetRecordGenerator generated for its sheet
+ * (com.w2a.testdata.AddCustomerTestRow and so on), with one public final field per column.
+ */
+public interface SheetRecord {
+
+    /**
+     * @return the snapshot the row was read from
+     */
+    SheetSnapshot getSheet();
+
+    /**
+     * @return 1-based row number in the sheet, the header being row 1
+     */
+    int getRowNum();
+
+    /**
+     * @return false only if the sheet has a runmode column whose value is not Y, the same as RunmodeIndex.isRowRunnable
+     */
+    boolean isRunnable();
+
+    /**
+     * @return the same row as a DataRow map, e.g. for RowDurations keys; built on every call
+     */
+    default DataRow toDataRow() {
+        SheetSnapshot sheet = getSheet();
+        String[] values = new String[Math.max(sheet.getColumnCount(), 0)];
+        for (int c = 0; c < values.length; c++)
+            values[c] = sheet.getCellData(getRowNum(), c);
+        return new DataRow(sheet.getHeader(), values);
+    }
+}
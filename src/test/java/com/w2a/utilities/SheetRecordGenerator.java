@@ -0,0 +1,323 @@
+package com.w2a.utilities;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellType;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.ss.usermodel.WorkbookFactory;
+
+/**
+ * Build-time generator of one immutable row class per sheet of a workbook (AddCustomerTest ->
+ * AddCustomerTestRow), with a public final field per header column, so tests read
+ * {@code data.firstname} instead of {@code data.get("firstname")} and a misspelt column no longer
+ * compiles. The generated classes implement SheetRecord and are filled by
+ * {@link SheetRecords#read(Class, SheetSnapshot)} straight from the sheet's columns.
+ *
+ * A column is typed only when its header says so, with a suffix after the name: "postcode:int",
+ * ":long", ":double", ":boolean", ":date" (LocalDate) or ":string". Columns without one, and the
+ * runmode column, are String. The data rows are never looked at, so editing test data cannot change
+ * the generated API; a cell that does not hold a value of its column's type fails when the row is read.
+ *
+ * The Maven build runs this file with the single-file source launcher in generate-test-sources,
+ * before the test classes are compiled, so it must only depend on POI and the JDK.
+ *
+ * Usage: SheetRecordGenerator workbook.xlsx outputDir package
+ */
+public final class SheetRecordGenerator {
+
+    private static final Set<String> RESERVED = new HashSet<>(Arrays.asList(
+            "abstract", "assert", "boolean", "break", "byte", "case", "catch", "char", "class", "const",
+            "continue", "default", "do", "double", "else", "enum", "extends", "final", "finally", "float",
+            "for", "goto", "if", "implements", "import", "instanceof", "int", "interface", "long", "native",
+            "new", "package", "private", "protected", "public", "return", "short", "static", "strictfp",
+            "super", "switch", "synchronized", "this", "throw", "throws", "transient", "try", "void",
+            "volatile", "while", "true", "false", "null", "var", "record", "yield",
+            // members and locals of the generated class
+            "sheet", "rowNum", "rows", "r", "SHEET"));
+
+    private enum Kind {
+        STRING("String", null), INT("int", "toInt"), LONG("long", "toLong"), DOUBLE("double", "toDouble"),
+        BOOLEAN("boolean", "toBoolean"), DATE("LocalDate", "toDate");
+
+        final String javaType;
+        final String converter;
+
+        Kind(String javaType, String converter) {
+            this.javaType = javaType;
+            this.converter = converter;
+        }
+
+        // the header suffix naming the kind, as HeaderIndex strips it
+        String suffix() {
+            return this == DATE ? "date" : javaType.toLowerCase(Locale.ROOT);
+        }
+    }
+
+    private static final class Column {
+        final String header;
+        final String field;
+        final Kind kind;
+
+        Column(String header, String field, Kind kind) {
+            this.header = header;
+            this.field = field;
+            this.kind = kind;
+        }
+    }
+
+    private SheetRecordGenerator() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 3) {
+            System.err.println("Usage: SheetRecordGenerator workbook.xlsx outputDir package");
+            System.exit(2);
+        }
+        File workbookFile = new File(args[0]);
+        Path packageDir = new File(args[1]).toPath().resolve(args[2].replace('.', File.separatorChar));
+        Map<String, String> sources = generate(workbookFile, args[2]);
+
+        Files.createDirectories(packageDir);
+        int written = 0;
+        for (Map.Entry<String, String> source : sources.entrySet()) {
+            Path file = packageDir.resolve(source.getKey() + ".java");
+            byte[] content = source.getValue().getBytes(StandardCharsets.UTF_8);
+            // unchanged files keep their timestamp, so the compiler does not redo them
+            if (Files.exists(file) && Arrays.equals(Files.readAllBytes(file), content))
+                continue;
+            Files.write(file, content);
+            written++;
+        }
+        // classes of sheets that were removed or renamed
+        try (Stream<Path> existing = Files.list(packageDir)) {
+            for (Path file : (Iterable<Path>) existing::iterator) {
+                String name = file.getFileName().toString();
+                if (name.endsWith(".java") && !sources.containsKey(name.substring(0, name.length() - 5)))
+                    Files.delete(file);
+            }
+        }
+        System.out.println("SheetRecordGenerator: " + sources.size() + " row classes from " + workbookFile.getName()
+                + ", " + written + " written");
+    }
+
+    /**
+     * @return generated source per simple class name, in sheet order
+     */
+    public static Map<String, String> generate(File workbookFile, String packageName) throws IOException {
+        Map<String, String> sources = new LinkedHashMap<>();
+        try (Workbook workbook = WorkbookFactory.create(workbookFile, null, true)) {
+            for (Sheet sheet : workbook) {
+                List<Column> columns = columns(sheet);
+                if (columns.isEmpty())
+                    continue;
+                String className = unique(typeName(sheet.getSheetName()) + "Row", sources.keySet());
+                sources.put(className, source(packageName, className, sheet.getSheetName(), workbookFile.getName(), columns));
+            }
+        }
+        return sources;
+    }
+
+    // header cells in column order; a repeated name keeps its right-most column, like HeaderIndex
+    private static List<Column> columns(Sheet sheet) {
+        Row header = sheet.getRow(0);
+        if (header == null)
+            return new ArrayList<>();
+        Map<String, Integer> byName = new LinkedHashMap<>();
+        Map<String, Kind> kinds = new LinkedHashMap<>();
+        for (int c = 0; c < header.getLastCellNum(); c++) {
+            Cell cell = header.getCell(c);
+            if (cell == null || cell.getCellType() != CellType.STRING || cell.getStringCellValue().trim().isEmpty())
+                continue;
+            String text = cell.getStringCellValue().trim();
+            Kind kind = declaredKind(text);
+            String name = kind == null ? text : text.substring(0, text.lastIndexOf(':')).trim();
+            byName.remove(name);
+            byName.put(name, c);
+            kinds.put(name, kind == null ? Kind.STRING : kind);
+        }
+        List<Column> columns = new ArrayList<>();
+        Set<String> fields = new HashSet<>();
+        byName.entrySet().stream().sorted(Map.Entry.comparingByValue()).forEach(entry -> {
+            String field = unique(fieldName(entry.getKey()), fields);
+            fields.add(field);
+            Kind kind = entry.getKey().equalsIgnoreCase("runmode") ? Kind.STRING : kinds.get(entry.getKey());
+            columns.add(new Column(entry.getKey(), field, kind));
+        });
+        return columns;
+    }
+
+    // the kind named by a "name:type" header, or null; same rule as HeaderIndex.columnName, which
+    // this file cannot call since it runs before the test classes are compiled
+    private static Kind declaredKind(String header) {
+        int colon = header.lastIndexOf(':');
+        if (colon <= 0)
+            return null;
+        String suffix = header.substring(colon + 1).trim().toLowerCase(Locale.ROOT);
+        for (Kind kind : Kind.values())
+            if (kind.suffix().equals(suffix))
+                return kind;
+        return null;
+    }
+
+    private static String source(String packageName, String className, String sheetName, String workbookName, List<Column> columns) {
+        boolean dates = columns.stream().anyMatch(column -> column.kind == Kind.DATE);
+        Column runmode = columns.stream().filter(column -> column.header.equalsIgnoreCase("runmode")).findFirst().orElse(null);
+        StringBuilder out = new StringBuilder();
+        out.append("package ").append(packageName).append(";\n\n");
+        if (dates)
+            out.append("import java.time.LocalDate;\n");
+        out.append("import java.util.ArrayList;\n");
+        out.append("import java.util.List;\n\n");
+        out.append("import com.w2a.utilities.SheetRecord;\n");
+        out.append("import com.w2a.utilities.SheetRecords;\n");
+        out.append("import com.w2a.utilities.SheetSnapshot;\n\n");
+        out.append("/**\n");
+        out.append(" * One data row of sheet \"").append(javadoc(sheetName)).append("\" in ").append(javadoc(workbookName)).append(".\n");
+        out.append(" * Generated by SheetRecordGenerator from the header row; do not edit, run mvn generate-test-sources.\n");
+        out.append(" */\n");
+        out.append("public final class ").append(className).append(" implements SheetRecord {\n\n");
+        out.append("    public static final String SHEET = \"").append(literal(sheetName)).append("\";\n\n");
+
+        for (Column column : columns) {
+            out.append("    /** column \"").append(javadoc(column.header)).append("\" */\n");
+            out.append("    public final ").append(column.kind.javaType).append(' ').append(column.field).append(";\n");
+        }
+        out.append("\n    private final SheetSnapshot sheet;\n");
+        out.append("    private final int rowNum;\n\n");
+
+        out.append("    public ").append(className).append("(SheetSnapshot sheet, int rowNum");
+        for (Column column : columns)
+            out.append(", ").append(column.kind.javaType).append(' ').append(column.field);
+        out.append(") {\n");
+        out.append("        this.sheet = sheet;\n");
+        out.append("        this.rowNum = rowNum;\n");
+        for (Column column : columns)
+            out.append("        this.").append(column.field).append(" = ").append(column.field).append(";\n");
+        out.append("    }\n\n");
+
+        out.append("    /**\n");
+        out.append("     * @return the data rows, row 2 onwards, read straight from the sheet's columns\n");
+        out.append("     * @throws IllegalStateException if a column is missing from the sheet\n");
+        out.append("     * @throws IllegalArgumentException if a typed cell does not hold a value of its type\n");
+        out.append("     */\n");
+        out.append("    public static List<").append(className).append("> from(SheetSnapshot sheet) {\n");
+        for (Column column : columns)
+            out.append("        int ").append(column.field).append(" = SheetRecords.column(sheet, \"")
+                    .append(literal(column.header)).append("\");\n");
+        out.append("        List<").append(className).append("> rows = new ArrayList<>(Math.max(sheet.getRowCount() - 1, 0));\n");
+        out.append("        for (int r = 2; r <= sheet.getRowCount(); r++)\n");
+        out.append("            rows.add(new ").append(className).append("(sheet, r");
+        for (Column column : columns) {
+            out.append(",\n                    ");
+            if (column.kind == Kind.STRING)
+                out.append("sheet.getCellData(r, ").append(column.field).append(')');
+            else
+                out.append("SheetRecords.").append(column.kind.converter).append("(sheet, r, ").append(column.field).append(')');
+        }
+        out.append("));\n");
+        out.append("        return rows;\n");
+        out.append("    }\n\n");
+
+        out.append("    @Override\n");
+        out.append("    public SheetSnapshot getSheet() {\n");
+        out.append("        return sheet;\n");
+        out.append("    }\n\n");
+        out.append("    @Override\n");
+        out.append("    public int getRowNum() {\n");
+        out.append("        return rowNum;\n");
+        out.append("    }\n\n");
+        out.append("    @Override\n");
+        out.append("    public boolean isRunnable() {\n");
+        if (runmode == null)
+            out.append("        return true;\n");
+        else
+            out.append("        return ").append(runmode.field).append(".equalsIgnoreCase(\"Y\");\n");
+        out.append("    }\n\n");
+
+        out.append("    @Override\n");
+        out.append("    public String toString() {\n");
+        out.append("        return \"").append(className).append('{');
+        for (int i = 0; i < columns.size(); i++) {
+            Column column = columns.get(i);
+            out.append(i == 0 ? "" : ", ").append(literal(column.header)).append("=\" + ").append(column.field);
+            out.append(i == columns.size() - 1 ? " + \"}\";\n" : " + \"");
+        }
+        out.append("    }\n");
+        out.append("}\n");
+        return out.toString();
+    }
+
+    // "Add Customer-test" -> AddCustomerTest, "test_suite" -> TestSuite
+    private static String typeName(String name) {
+        String field = identifier(name);
+        return Character.toUpperCase(field.charAt(0)) + field.substring(1);
+    }
+
+    // "First Name" -> firstName, "alerttext" -> alerttext, "2fa" -> _2fa, "class" -> class_
+    private static String fieldName(String name) {
+        String field = identifier(name);
+        return RESERVED.contains(field) ? field + "_" : field;
+    }
+
+    private static String identifier(String header) {
+        // all-caps headers such as TCID read better as tcid
+        String name = header.equals(header.toUpperCase(Locale.ROOT)) ? header.toLowerCase(Locale.ROOT) : header;
+        StringBuilder out = new StringBuilder();
+        boolean upper = false;
+        for (int i = 0; i < name.length(); i++) {
+            char ch = name.charAt(i);
+            if (!Character.isLetterOrDigit(ch)) {
+                upper = out.length() > 0;
+                continue;
+            }
+            if (out.length() == 0 && Character.isDigit(ch))
+                out.append('_');
+            out.append(upper ? Character.toUpperCase(ch) : out.length() == 0 ? Character.toLowerCase(ch) : ch);
+            upper = false;
+        }
+        if (out.length() == 0)
+            out.append("column");
+        return out.toString();
+    }
+
+    private static String unique(String name, Set<String> taken) {
+        String candidate = name;
+        for (int n = 2; taken.contains(candidate); n++)
+            candidate = name + n;
+        return candidate;
+    }
+
+    private static String literal(String text) {
+        StringBuilder out = new StringBuilder();
+        for (int i = 0; i < text.length(); i++) {
+            char ch = text.charAt(i);
+            if (ch == '"' || ch == '\\')
+                out.append('\\').append(ch);
+            else if (ch < 0x20 || ch > 0x7e)
+                out.append(String.format("\\u%04x", (int) ch));
+            else
+                out.append(ch);
+        }
+        return out.toString();
+    }
+
+    private static String javadoc(String text) {
+        return literal(text).replace("*/", "*\\/");
+    }
+}
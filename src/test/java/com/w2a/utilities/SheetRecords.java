@@ -0,0 +1,158 @@
+package com.w2a.utilities;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.time.LocalDate;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Reads sheets as the row classes generated by SheetRecordGenerator, and the cell conversions the
+ * generated code calls. Rows are filled from the columns of the sheet's snapshot; no DataRow map
+ * is built on the way.
+ */
+public final class SheetRecords {
+
+    // the generated static from(SheetSnapshot) and SHEET of each row class, looked up once
+    private static final ClassValue<MethodHandle> FROM = new ClassValue<MethodHandle>() {
+        @Override
+        protected MethodHandle computeValue(Class<?> type) {
+            try {
+                return MethodHandles.publicLookup().findStatic(type, "from", MethodType.methodType(List.class, SheetSnapshot.class));
+            } catch (ReflectiveOperationException e) {
+                throw new IllegalArgumentException(type.getName() + " is not a generated row class", e);
+            }
+        }
+    };
+    private static final ClassValue<String> SHEET = new ClassValue<String>() {
+        @Override
+        protected String computeValue(Class<?> type) {
+            try {
+                return (String) type.getField("SHEET").get(null);
+            } catch (ReflectiveOperationException e) {
+                throw new IllegalArgumentException(type.getName() + " is not a generated row class", e);
+            }
+        }
+    };
+
+    private SheetRecords() {
+    }
+
+    /**
+     * @param type Generated row class, e.g. AddCustomerTestRow.class
+     * @return the sheet the class was generated from
+     */
+    public static String sheetOf(Class<? extends SheetRecord> type) {
+        return SHEET.get(type);
+    }
+
+    /**
+     * @param type Generated row class of the sheet
+     * @return every data row of the sheet, in sheet order
+     * @throws IllegalStateException if the class no longer matches the sheet's header
+     */
+    @SuppressWarnings("unchecked")
+    public static <T extends SheetRecord> List<T> read(Class<T> type, SheetSnapshot sheet) {
+        try {
+            return (List<T>) FROM.get(type).invokeExact(sheet);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalStateException("Cannot read " + sheet.getSheetName() + " as " + type.getSimpleName(), e);
+        }
+    }
+
+    /**
+     * @param source Backend of the sheet; the Excel backend hands over its snapshot, others are
+     *               copied into one first
+     * @return the rows of the class's sheet, or null if the backend has no such sheet
+     * @throws IOException if the sheet cannot be read
+     */
+    public static <T extends SheetRecord> List<T> read(Class<T> type, TestDataSource source) throws IOException {
+        String sheetName = sheetOf(type);
+        SheetSnapshot sheet = source instanceof ExcelDataSource ? ((ExcelDataSource) source).snapshot(sheetName)
+                : snapshot(sheetName, source.rows(sheetName));
+        return sheet == null ? null : read(type, sheet);
+    }
+
+    // header from the first row's keys, which every row of a backend shares
+    private static SheetSnapshot snapshot(String sheetName, Iterator<DataRow> rows) {
+        if (rows == null)
+            return null;
+        SheetSnapshot.Builder builder = SheetSnapshot.builder(sheetName);
+        String[] header = null;
+        int rowIndex = 1;
+        while (rows.hasNext()) {
+            DataRow row = rows.next();
+            if (header == null) {
+                header = row.keySet().toArray(new String[0]);
+                builder.addRow(0, header);
+            }
+            String[] cells = new String[header.length];
+            for (int c = 0; c < cells.length; c++)
+                cells[c] = row.get(header[c]);
+            builder.addRow(rowIndex++, cells);
+        }
+        return builder.build();
+    }
+
+    /**
+     * @return the column of a header name the row class was generated with
+     * @throws IllegalStateException if the sheet no longer has the column
+     */
+    public static int column(SheetSnapshot sheet, String colName) {
+        int colNum = sheet.getHeader().indexOf(colName);
+        if (colNum < 0)
+            throw new IllegalStateException("Sheet " + sheet.getSheetName() + " has no column '" + colName
+                    + "'; the row classes are out of date, run mvn generate-test-sources");
+        return colNum;
+    }
+
+    public static int toInt(SheetSnapshot sheet, int rowNum, int colNum) {
+        try {
+            return CellDecoder.toInt(sheet.getCellData(rowNum, colNum));
+        } catch (IllegalArgumentException e) {
+            throw invalid(sheet, rowNum, colNum, e);
+        }
+    }
+
+    public static long toLong(SheetSnapshot sheet, int rowNum, int colNum) {
+        try {
+            return CellDecoder.toLong(sheet.getCellData(rowNum, colNum));
+        } catch (IllegalArgumentException e) {
+            throw invalid(sheet, rowNum, colNum, e);
+        }
+    }
+
+    public static double toDouble(SheetSnapshot sheet, int rowNum, int colNum) {
+        try {
+            return CellDecoder.toDouble(sheet.getCellData(rowNum, colNum));
+        } catch (IllegalArgumentException e) {
+            throw invalid(sheet, rowNum, colNum, e);
+        }
+    }
+
+    public static boolean toBoolean(SheetSnapshot sheet, int rowNum, int colNum) {
+        try {
+            return CellDecoder.toBoolean(sheet.getCellData(rowNum, colNum));
+        } catch (IllegalArgumentException e) {
+            throw invalid(sheet, rowNum, colNum, e);
+        }
+    }
+
+    public static LocalDate toDate(SheetSnapshot sheet, int rowNum, int colNum) {
+        try {
+            return CellDecoder.toDate(sheet.getCellData(rowNum, colNum));
+        } catch (IllegalArgumentException e) {
+            throw invalid(sheet, rowNum, colNum, e);
+        }
+    }
+
+    // the header declares the column's type (e.g. postcode:int); the cells are only checked here
+    private static IllegalArgumentException invalid(SheetSnapshot sheet, int rowNum, int colNum, IllegalArgumentException e) {
+        return new IllegalArgumentException(sheet.getSheetName() + " row " + rowNum + " column '"
+                + sheet.getHeader().nameAt(colNum) + "': " + e.getMessage(), e);
+    }
+}
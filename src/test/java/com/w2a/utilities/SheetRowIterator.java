@@ -0,0 +1,246 @@
+package com.w2a.utilities;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lazy data provider rows: one Object[]{DataRow} per data row, keyed by the header row,
+ * built only when TestNG asks for the next invocation. Rows with runmode N are skipped.
+ *
+ * Without prefetch the rows are pulled from the source on the TestNG thread. With prefetch a
+ * daemon thread streams the sheet (for Excel: SAX, no snapshot) into a bounded queue, so the first
+ * test can start as soon as the first rows are parsed and at most {@code capacity} rows are held at a time.
+ *
+ * A consumer that stops early should close() the iterator, which stops the producer and releases what
+ * the source holds (a JDBC cursor and its connection). Data providers hand the iterator to TestNG
+ * behind wrappers, so {@link #cancel(String)} does the same for the prefetches of a sheet; a producer
+ * whose queue stays full for longer than its put timeout gives up on its own.
+ */
+public abstract class SheetRowIterator implements Iterator<Object[]>, Closeable {
+
+    public static final long DEFAULT_PUT_TIMEOUT_MILLIS = TimeUnit.MINUTES.toMillis(10);
+
+    /**
+     * @param sheet Snapshot to read, or null for a missing sheet (no rows)
+     */
+    public static SheetRowIterator fromSnapshot(SheetSnapshot sheet) {
+        return fromRows(sheet == null ? null : sheet.rows());
+    }
+
+    /**
+     * @param rows Rows of a TestDataSource, or null for a missing sheet (no rows)
+     */
+    public static SheetRowIterator fromRows(Iterator<DataRow> rows) {
+        return new PulledRows(rows);
+    }
+
+    /**
+     * Starts a background thread that streams the sheet into a queue of the given capacity
+     * @param excel Reader of the workbook
+     * @param sheetName Sheet name (case-insensitive)
+     * @param capacity Maximum number of rows buffered ahead of the consumer
+     */
+    public static SheetRowIterator prefetching(ExcelReader excel, String sheetName, int capacity) {
+        return prefetching(new ExcelDataSource(excel), sheetName, capacity);
+    }
+
+    /**
+     * Starts a background thread that streams the sheet into a queue of the given capacity
+     * @param source Backend serving the sheet
+     * @param sheetName Sheet name
+     * @param capacity Maximum number of rows buffered ahead of the consumer
+     */
+    public static SheetRowIterator prefetching(TestDataSource source, String sheetName, int capacity) {
+        return prefetching(source, sheetName, capacity, DEFAULT_PUT_TIMEOUT_MILLIS);
+    }
+
+    /**
+     * Starts a background thread that streams the sheet into a queue of the given capacity
+     * @param source Backend serving the sheet
+     * @param sheetName Sheet name
+     * @param capacity Maximum number of rows buffered ahead of the consumer
+     * @param putTimeoutMillis How long the producer waits in total for room in the queue before it gives up
+     */
+    public static SheetRowIterator prefetching(TestDataSource source, String sheetName, int capacity, long putTimeoutMillis) {
+        return new PrefetchingRows(source, sheetName, capacity, putTimeoutMillis);
+    }
+
+    /**
+     * Stops the prefetches of a sheet whose producer is still running, e.g. when the test context of
+     * its test method finishes before TestNG took all rows
+     * @param sheetName Sheet name, compared case-insensitively
+     * @return number of prefetches stopped
+     */
+    public static int cancel(String sheetName) {
+        int cancelled = 0;
+        for (PrefetchingRows rows : PrefetchingRows.running) {
+            if (rows.sheetName.equalsIgnoreCase(sheetName)) {
+                rows.close();
+                cancelled++;
+            }
+        }
+        return cancelled;
+    }
+
+    /**
+     * Stops reading; later hasNext() calls return false
+     */
+    @Override
+    public abstract void close();
+
+    private static final class PulledRows extends SheetRowIterator {
+
+        private final Iterator<DataRow> source;
+        private Iterator<DataRow> rows;
+        private DataRow next;
+
+        PulledRows(Iterator<DataRow> rows) {
+            this.source = rows;
+            this.rows = rows;
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (next == null && rows != null && rows.hasNext()) {
+                DataRow row = rows.next();
+                if (RunmodeIndex.isRowRunnable(row))
+                    next = row;
+            }
+            return next != null;
+        }
+
+        @Override
+        public Object[] next() {
+            if (!hasNext())
+                throw new NoSuchElementException();
+            DataRow row = next;
+            next = null;
+            return new Object[] { row };
+        }
+
+        @Override
+        public void close() {
+            next = null;
+            rows = null;
+            if (source instanceof Closeable) {
+                try {
+                    ((Closeable) source).close();
+                } catch (IOException e) {
+                    // nothing left to release
+                }
+            }
+        }
+    }
+
+    private static final class PrefetchingRows extends SheetRowIterator {
+
+        // queue markers; rows themselves are enqueued as Object[]
+        private static final Object END = new Object();
+        private static final long SLICE_MILLIS = 100;
+
+        static final Set<PrefetchingRows> running = ConcurrentHashMap.newKeySet();
+
+        private final BlockingQueue<Object> queue;
+        private final String sheetName;
+        private final long putTimeoutMillis;
+        private volatile boolean abandoned;
+        private volatile boolean closed;
+        private Object next;
+
+        PrefetchingRows(TestDataSource source, String sheetName, int capacity, long putTimeoutMillis) {
+            this.queue = new ArrayBlockingQueue<>(Math.max(capacity, 1));
+            this.sheetName = sheetName;
+            this.putTimeoutMillis = putTimeoutMillis;
+            running.add(this);
+            Thread producer = new Thread(() -> produce(source), "dp-prefetch-" + sheetName);
+            producer.setDaemon(true);
+            producer.start();
+        }
+
+        private void produce(TestDataSource source) {
+            try {
+                Object last = END;
+                try {
+                    // a put that gives up throws out of stream(), which closes the source's rows
+                    source.stream(sheetName, row -> {
+                        if (RunmodeIndex.isRowRunnable(row))
+                            put(new Object[] { row });
+                    });
+                } catch (IOException | RuntimeException e) {
+                    last = e;
+                }
+                if (!abandoned)
+                    put(last);
+            } catch (IllegalStateException e) {
+                // abandoned while handing over the end marker
+            } finally {
+                running.remove(this);
+            }
+        }
+
+        private void put(Object element) {
+            long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(putTimeoutMillis);
+            try {
+                while (!abandoned && !queue.offer(element, SLICE_MILLIS, TimeUnit.MILLISECONDS)) {
+                    // consumer is slow; keep waiting unless it went away or stayed away too long
+                    if (System.nanoTime() - deadline >= 0)
+                        abandoned = true;
+                }
+            } catch (InterruptedException e) {
+                abandoned = true;
+                Thread.currentThread().interrupt();
+            }
+            if (abandoned)
+                throw new IllegalStateException("Prefetch of " + sheetName + " abandoned");
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (next == null) {
+                if (closed)
+                    return false;
+                try {
+                    next = queue.poll(SLICE_MILLIS, TimeUnit.MILLISECONDS);
+                } catch (InterruptedException e) {
+                    close();
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException("Interrupted while waiting for test data", e);
+                }
+                if (next == null && abandoned && !closed)
+                    throw new IllegalStateException("Prefetch of " + sheetName + " gave up: no row was taken for "
+                            + putTimeoutMillis + " ms");
+            }
+            if (next instanceof Throwable) {
+                Throwable error = (Throwable) next;
+                throw new IllegalStateException("Cannot read test data: " + error.getMessage(), error);
+            }
+            return next != END;
+        }
+
+        @Override
+        public Object[] next() {
+            if (!hasNext())
+                throw new NoSuchElementException();
+            Object[] row = (Object[]) next;
+            next = null;
+            return row;
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+            abandoned = true;
+            next = null;
+            // frees a producer blocked on a full queue, which then sees abandoned and stops
+            queue.clear();
+            running.remove(this);
+        }
+    }
+}
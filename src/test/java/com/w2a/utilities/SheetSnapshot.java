@@ -0,0 +1,187 @@
+package com.w2a.utilities;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * Immutable, column-oriented copy of one sheet.
+ * Once built it can be read by any number of threads without synchronisation.
+ * Row numbers are 1-based and include the header row, the same as ExcelReader.
+ */
+public final class SheetSnapshot {
+
+    private final String sheetName;
+    private final HeaderIndex header;
+    private final String[][] columns;
+    private final int rowCount;
+    private volatile long contentHash;
+
+    private SheetSnapshot(String sheetName, HeaderIndex header, String[][] columns, int rowCount) {
+        this.sheetName = sheetName;
+        this.header = header;
+        this.columns = columns;
+        this.rowCount = rowCount;
+    }
+
+    public String getSheetName() {
+        return sheetName;
+    }
+
+    public HeaderIndex getHeader() {
+        return header;
+    }
+
+    /**
+     * @return number of rows including the header row
+     */
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    /**
+     * @return number of header cells, or -1 if the sheet has no header row
+     */
+    public int getColumnCount() {
+        return header.size() == 0 ? -1 : header.size();
+    }
+
+    /**
+     * @return number of stored columns, which can exceed the header width when data rows are wider
+     */
+    public int getWidth() {
+        return columns.length;
+    }
+
+    /**
+     * @param rowNum 1-based row number
+     * @param colNum 0-based column index
+     * @return the cell text, "" for missing cells
+     */
+    public String getCellData(int rowNum, int colNum) {
+        if (rowNum <= 0 || rowNum > rowCount || colNum < 0 || colNum >= columns.length)
+            return "";
+        return columns[colNum][rowNum - 1];
+    }
+
+    /**
+     * @param colName Header name
+     * @param rowNum 1-based row number
+     * @return the cell text, "" for missing cells or unknown columns
+     */
+    public String getCellData(String colName, int rowNum) {
+        return getCellData(rowNum, header.indexOf(colName));
+    }
+
+    /**
+     * @return a 64-bit hash of the sheet name and every cell, computed once; equal sheets hash equal
+     */
+    public long contentHash() {
+        long hash = contentHash;
+        if (hash == 0) {
+            // FNV-1a over the chars; cells and rows are separated so "ab","c" differs from "a","bc"
+            hash = 0xcbf29ce484222325L;
+            hash = mix(hash, sheetName);
+            for (String[] column : columns) {
+                for (String value : column)
+                    hash = (mix(hash, value) ^ 0x1f) * 0x100000001b3L;
+                hash = (hash ^ 0x1e) * 0x100000001b3L;
+            }
+            hash = hash == 0 ? 1 : hash;
+            contentHash = hash;
+        }
+        return hash;
+    }
+
+    private static long mix(long hash, String value) {
+        for (int i = 0; i < value.length(); i++)
+            hash = (hash ^ value.charAt(i)) * 0x100000001b3L;
+        return hash;
+    }
+
+    /**
+     * @return the data rows (row 2 onwards) as DataRow maps sharing this sheet's header, built on demand
+     */
+    public Iterator<DataRow> rows() {
+        int cols = Math.max(getColumnCount(), 0);
+        return new Iterator<DataRow>() {
+            private int nextRow = 2;
+
+            @Override
+            public boolean hasNext() {
+                return nextRow <= rowCount;
+            }
+
+            @Override
+            public DataRow next() {
+                if (!hasNext())
+                    throw new NoSuchElementException();
+                String[] values = new String[cols];
+                for (int c = 0; c < cols; c++)
+                    values[c] = getCellData(nextRow, c);
+                nextRow++;
+                return new DataRow(header, values);
+            }
+        };
+    }
+
+    public static Builder builder(String sheetName) {
+        return new Builder(sheetName);
+    }
+
+    /**
+     * Collects rows in sheet order and packs them into columns on build().
+     * Not thread-safe; use one builder per load.
+     */
+    public static final class Builder {
+
+        private final String sheetName;
+        private final List<String[]> rows = new ArrayList<>();
+        private int width;
+
+        private Builder(String sheetName) {
+            this.sheetName = sheetName;
+        }
+
+        /**
+         * @param rowIndex 0-based row index; gaps are filled with empty rows
+         * @param cells Cell values in column order, null for missing cells
+         */
+        public Builder addRow(int rowIndex, String[] cells) {
+            while (rows.size() < rowIndex)
+                rows.add(null);
+            if (rowIndex < rows.size())
+                rows.set(rowIndex, cells);
+            else
+                rows.add(cells);
+            if (cells != null && cells.length > width)
+                width = cells.length;
+            return this;
+        }
+
+        public SheetSnapshot build() {
+            String[] headerCells = rows.isEmpty() || rows.get(0) == null ? new String[0] : rows.get(0);
+            int rowCount = rows.size();
+            int columnCount = Math.max(width, headerCells.length);
+
+            // one array per column; repeated values within a column share a single String
+            String[][] columns = new String[columnCount][rowCount];
+            Map<String, String> distinct = new HashMap<>();
+            for (int c = 0; c < columnCount; c++) {
+                distinct.clear();
+                String[] column = columns[c];
+                for (int r = 0; r < rowCount; r++) {
+                    String[] cells = rows.get(r);
+                    String value = cells == null || c >= cells.length || cells[c] == null ? "" : cells[c];
+                    String shared = distinct.putIfAbsent(value, value);
+                    column[r] = shared == null ? value : shared;
+                }
+            }
+            rows.clear();
+            return new SheetSnapshot(sheetName, new HeaderIndex(headerCells), columns, rowCount);
+        }
+    }
+}
@@ -0,0 +1,255 @@
+package com.w2a.utilities;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.support.ui.ExpectedConditions;
+import org.openqa.selenium.support.ui.FluentWait;
+import org.openqa.selenium.support.ui.WebDriverWait;
+
+/**
+ * WebDriverWait for sessions without an implicit wait. A condition is tried at once, then after
+ * initialPoll, doubling up to maxPoll, instead of every 500 ms: an element that shows up after 30 ms
+ * is seen after about 30 ms, and a long wait still polls gently. NotFoundException and
+ * StaleElementReferenceException count as "not yet".
+ *
+ * The FluentWait settings are honoured: ignoring() adds exceptions that count as "not yet",
+ * withMessage() replaces the condition in the timeout message, and pollingEvery() switches to polling
+ * at that fixed interval instead of the adaptive one.
+ *
+ * Every until() adds its time to a per-condition total (ExpectedConditions name the locator, e.g.
+ * "element to be clickable: By.cssSelector: #userSelect"), read with getTimings() or report().
+ * Being a WebDriverWait, it can be handed to code written against one.
+ */
+public class SmartWait extends WebDriverWait {
+
+    public static final Duration DEFAULT_INITIAL_POLL = Duration.ofMillis(10);
+    public static final Duration DEFAULT_MAX_POLL = Duration.ofMillis(250);
+
+    /**
+     * Time spent in until() for one condition, over all waits and threads
+     */
+    public static final class Timing {
+        public final String condition;
+        public final long waits;
+        public final long timeouts;
+        public final long totalMillis;
+        public final long maxMillis;
+
+        Timing(String condition, long waits, long timeouts, long totalMillis, long maxMillis) {
+            this.condition = condition;
+            this.waits = waits;
+            this.timeouts = timeouts;
+            this.totalMillis = totalMillis;
+            this.maxMillis = maxMillis;
+        }
+
+        @Override
+        public String toString() {
+            return totalMillis + " ms in " + waits + " waits (" + (waits == 0 ? 0 : totalMillis / waits) + " ms avg, " + maxMillis
+                    + " ms max, " + timeouts + " timed out): " + condition;
+        }
+    }
+
+    private static final class Counters {
+        final LongAdder waits = new LongAdder();
+        final LongAdder timeouts = new LongAdder();
+        final LongAdder nanos = new LongAdder();
+        final AtomicLong maxNanos = new AtomicLong();
+    }
+
+    private static final Map<String, Counters> counters = new ConcurrentHashMap<>();
+
+    // no initializers: the WebDriverWait constructor already calls the overrides below that set them
+    private final WebDriver driver;
+    private long initialPollNanos;
+    private long maxPollNanos;
+    private Duration timeout;
+    private List<Class<? extends Throwable>> ignored;
+    private Supplier<String> message;
+
+    public SmartWait(WebDriver driver, Duration timeout) {
+        this(driver, timeout, DEFAULT_INITIAL_POLL, DEFAULT_MAX_POLL);
+    }
+
+    /**
+     * @param initialPoll Pause after the first failed try
+     * @param maxPoll Longest pause, reached by doubling
+     */
+    public SmartWait(WebDriver driver, Duration timeout, Duration initialPoll, Duration maxPoll) {
+        super(driver, timeout);
+        this.driver = driver;
+        this.timeout = timeout;
+        this.initialPollNanos = Math.max(initialPoll.toNanos(), 1);
+        this.maxPollNanos = Math.max(maxPoll.toNanos(), this.initialPollNanos);
+        ignoring(StaleElementReferenceException.class);
+    }
+
+    @Override
+    public FluentWait<WebDriver> withTimeout(Duration timeout) {
+        this.timeout = timeout;
+        return super.withTimeout(timeout);
+    }
+
+    /**
+     * Polls at this fixed interval from now on instead of adaptively
+     */
+    @Override
+    public FluentWait<WebDriver> pollingEvery(Duration interval) {
+        initialPollNanos = Math.max(interval.toNanos(), 1);
+        maxPollNanos = initialPollNanos;
+        return super.pollingEvery(interval);
+    }
+
+    @Override
+    public <K extends Throwable> FluentWait<WebDriver> ignoreAll(Collection<Class<? extends K>> types) {
+        if (ignored == null)
+            ignored = new ArrayList<>();
+        ignored.addAll(types);
+        return super.ignoreAll(types);
+    }
+
+    @Override
+    public FluentWait<WebDriver> withMessage(String message) {
+        return withMessage(() -> message);
+    }
+
+    @Override
+    public FluentWait<WebDriver> withMessage(Supplier<String> messageSupplier) {
+        this.message = messageSupplier;
+        return super.withMessage(messageSupplier);
+    }
+
+    @Override
+    public <V> V until(Function<? super WebDriver, V> condition) {
+        String label = label(condition);
+        long start = System.nanoTime();
+        long end = start + timeout.toNanos();
+        long poll = initialPollNanos;
+        Throwable last = null;
+        boolean timedOut = false;
+        try {
+            while (true) {
+                try {
+                    V value = condition.apply(driver);
+                    if (value != null && !Boolean.FALSE.equals(value))
+                        return value;
+                } catch (Throwable e) {
+                    if (!isIgnored(e))
+                        throw e;
+                    last = e;
+                }
+                long left = end - System.nanoTime();
+                if (left <= 0) {
+                    timedOut = true;
+                    String supplied = message == null ? null : message.get();
+                    throw timeoutException("Expected condition failed: " + (supplied == null ? "waiting for " + label : supplied)
+                            + " (tried for " + timeout.toMillis() + " ms with " + (initialPollNanos == maxPollNanos
+                                    ? TimeUnit.NANOSECONDS.toMillis(maxPollNanos) + " ms interval" : "adaptive polling") + ")", last);
+                }
+                try {
+                    TimeUnit.NANOSECONDS.sleep(Math.min(poll, left));
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new WebDriverException(e);
+                }
+                poll = Math.min(poll * 2, maxPollNanos);
+            }
+        } finally {
+            record(label, System.nanoTime() - start, timedOut);
+        }
+    }
+
+    /**
+     * @return the element once it is displayed
+     * @throws org.openqa.selenium.TimeoutException if it is not within the timeout
+     */
+    public WebElement visible(By by) {
+        return until(ExpectedConditions.visibilityOfElementLocated(by));
+    }
+
+    /**
+     * @return the element once it is displayed and enabled
+     */
+    public WebElement clickable(By by) {
+        return until(ExpectedConditions.elementToBeClickable(by));
+    }
+
+    /**
+     * @return true if the element appears within the timeout, false otherwise, without throwing
+     */
+    public boolean isPresent(By by) {
+        try {
+            until(ExpectedConditions.presenceOfElementLocated(by));
+            return true;
+        } catch (org.openqa.selenium.TimeoutException e) {
+            return false;
+        }
+    }
+
+    /**
+     * @return per-condition wait times since the JVM started, longest total first
+     */
+    public static List<Timing> getTimings() {
+        List<Timing> timings = new ArrayList<>();
+        for (Map.Entry<String, Counters> entry : counters.entrySet()) {
+            Counters c = entry.getValue();
+            timings.add(new Timing(entry.getKey(), c.waits.sum(), c.timeouts.sum(), TimeUnit.NANOSECONDS.toMillis(c.nanos.sum()),
+                    TimeUnit.NANOSECONDS.toMillis(c.maxNanos.get())));
+        }
+        timings.sort(Comparator.comparingLong((Timing t) -> t.totalMillis).reversed());
+        return timings;
+    }
+
+    /**
+     * @param top Number of conditions listed
+     * @return one line per condition, longest total first
+     */
+    public static String report(int top) {
+        StringBuilder report = new StringBuilder();
+        List<Timing> timings = getTimings();
+        for (int i = 0; i < Math.min(top, timings.size()); i++)
+            report.append(i == 0 ? "" : "\n").append(timings.get(i));
+        return report.toString();
+    }
+
+    public static void resetTimings() {
+        counters.clear();
+    }
+
+    private boolean isIgnored(Throwable e) {
+        for (Class<? extends Throwable> type : ignored)
+            if (type.isInstance(e))
+                return true;
+        return false;
+    }
+
+    // ExpectedConditions on a WebElement print its session ("[[ChromeDriver: chrome on linux (id)] -> css selector: x]"); keep the locator
+    private static String label(Function<?, ?> condition) {
+        return String.valueOf(condition).replaceAll("\\[\\[[^\\]]*\\] -> ", "[");
+    }
+
+    private static void record(String label, long nanos, boolean timedOut) {
+        Counters c = counters.computeIfAbsent(label, l -> new Counters());
+        c.waits.increment();
+        if (timedOut)
+            c.timeouts.increment();
+        c.nanos.add(nanos);
+        c.maxNanos.accumulateAndGet(nanos, Math::max);
+    }
+}
@@ -0,0 +1,461 @@
+package com.w2a.utilities;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+
+/**
+ * Seeded generator of synthetic data rows shaped like a sheet of testdata.xlsx, for scale runs of the
+ * data path. The header is copied from the sample sheet and each column gets a value generator:
+ * <ul>
+ * <li>firstname, lastname: names from built-in lists plus the sample's values</li>
+ * <li>customer: the demo bank's customers plus the sample's values</li>
+ * <li>postcode: random characters in the shape of a sample value (A234wd -> letter, 3 digits, 2 letters)</li>
+ * <li>currency: the bank's currencies plus the sample's values</li>
+ * <li>runmode: Y for the configured fraction of rows, N otherwise</li>
+ * <li>any other column: one of the sample's values, or column name and row number if it has none</li>
+ * </ul>
+ * Every cell is a pure function of (seed, sheet, row, column), so a row reads the same whatever the
+ * output format, row count or order of generation. Rows are written as they are made: xlsx through
+ * SXSSF with a 100-row window, CSV and JSON-lines through a buffered writer, so memory stays flat
+ * for any number of rows. The CSV and JSON-lines files are named and laid out the way CsvDataSource
+ * and JsonLinesDataSource read them.
+ *
+ * Usage: SyntheticDataGenerator xlsx|csv|jsonl rows output [seed [runmodeRatio [sheet...]]]
+ * (output is the .xlsx file, or the directory for csv and jsonl; sheets default to AddCustomerTest
+ * and OpenAccountTest from src/test/resources/excel/testdata.xlsx)
+ */
+public final class SyntheticDataGenerator {
+
+    private static final String[] FIRST_NAMES = { "Raman", "Rahul", "Ishita", "Rohit", "Harry", "Hermoine", "Ron",
+            "Albus", "Neville", "Priya", "Ananya", "Arjun", "Kavya", "Vikram", "Meera", "Aditya", "Sneha", "Karan",
+            "Olivia", "Liam", "Emma", "Noah", "Amelia", "Oliver", "Isla", "George", "Ava", "Arthur", "Mia", "Leo",
+            "Sofia", "Mateo", "Chen", "Wei", "Yuki", "Hana", "Omar", "Layla", "Tomas", "Eva" };
+    private static final String[] LAST_NAMES = { "Arora", "Sehgal", "Sharma", "Verma", "Gupta", "Mehta", "Kapoor",
+            "Iyer", "Nair", "Reddy", "Potter", "Granger", "Weasly", "Dumbledore", "Longbottom", "Smith", "Jones",
+            "Taylor", "Brown", "Williams", "Wilson", "Davies", "Evans", "Thomas", "Johnson", "Roberts", "Walker",
+            "Wright", "Robinson", "Thompson", "Garcia", "Martinez", "Rossi", "Muller", "Dubois", "Tanaka", "Kim",
+            "Nguyen", "Silva", "Novak" };
+    // customers the bank demo site starts with, so OpenAccountTest rows can select them
+    private static final String[] CUSTOMERS = { "Hermoine Granger", "Harry Potter", "Ron Weasly", "Albus Dumbledore",
+            "Neville Longbottom" };
+    private static final String[] CURRENCIES = { "Dollar", "Pound", "Rupee" };
+    private static final String DEFAULT_POSTCODE = "A234wd";
+
+    /**
+     * Receives the generated sheets row by row
+     */
+    public interface RowSink extends AutoCloseable {
+
+        void startSheet(String sheetName, String[] header) throws IOException;
+
+        /**
+         * @param cells The row's values in header order; reused for the next row
+         */
+        void row(String[] cells) throws IOException;
+
+        @Override
+        void close() throws IOException;
+    }
+
+    // one cell from a row number and 64 random bits
+    private interface ColumnGenerator {
+        String value(long rowNum, long random);
+    }
+
+    private final String sheetName;
+    private final String[] header;
+    private final ColumnGenerator[] columns;
+    private final long seed;
+
+    /**
+     * @param sample Sheet whose header (and values) the rows follow
+     * @param seed Same seed, same rows
+     * @param runmodeRatio Fraction of rows with runmode Y, if the sheet has a runmode column
+     */
+    public SyntheticDataGenerator(SheetSnapshot sample, long seed, double runmodeRatio) {
+        this.sheetName = sample.getSheetName();
+        List<String> names = new ArrayList<>();
+        List<ColumnGenerator> generators = new ArrayList<>();
+        for (int c = 0; c < Math.max(sample.getColumnCount(), 0); c++) {
+            String name = sample.getHeader().nameAt(c);
+            if (name == null)
+                continue;
+            names.add(name);
+            generators.add(generator(name, samples(sample, c), runmodeRatio));
+        }
+        this.header = names.toArray(new String[0]);
+        this.columns = generators.toArray(new ColumnGenerator[0]);
+        this.seed = mix(seed ^ sheetName.toLowerCase(Locale.ROOT).hashCode());
+    }
+
+    public String getSheetName() {
+        return sheetName;
+    }
+
+    public String[] getHeader() {
+        return header.clone();
+    }
+
+    /**
+     * @param rowNum Data row, from 1
+     * @param cells Receives the row's values in header order; at least getHeader().length long
+     */
+    public void fill(long rowNum, String[] cells) {
+        for (int c = 0; c < columns.length; c++)
+            cells[c] = columns[c].value(rowNum, mix(seed + rowNum * 0x9E3779B97F4A7C15L + c * 0xC2B2AE3D27D4EB4FL));
+    }
+
+    /**
+     * @param rowNum Data row, from 1
+     * @return the row's values in header order
+     */
+    public String[] row(long rowNum) {
+        String[] cells = new String[columns.length];
+        fill(rowNum, cells);
+        return cells;
+    }
+
+    /**
+     * Writes data rows 1..rows of every sheet to the sink, sheet after sheet
+     */
+    public static void generate(List<SyntheticDataGenerator> sheets, long rows, RowSink sink) throws IOException {
+        for (SyntheticDataGenerator sheet : sheets) {
+            sink.startSheet(sheet.sheetName, sheet.header);
+            String[] cells = new String[sheet.columns.length];
+            for (long rowNum = 1; rowNum <= rows; rowNum++) {
+                sheet.fill(rowNum, cells);
+                sink.row(cells);
+            }
+        }
+    }
+
+    /**
+     * @return a sink writing all sheets into one workbook; rows beyond the 100-row window go to temp files
+     */
+    public static RowSink xlsx(File file) {
+        return new XlsxSink(file);
+    }
+
+    /**
+     * @return a sink writing {@code <dir>/<sheetName>.csv} per sheet, quoted as RFC 4180
+     */
+    public static RowSink csv(File dir) {
+        return new CsvSink(dir);
+    }
+
+    /**
+     * @return a sink writing {@code <dir>/<sheetName>.jsonl} per sheet, one object per row
+     */
+    public static RowSink jsonLines(File dir) {
+        return new JsonLinesSink(dir);
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 3) {
+            System.err.println("Usage: SyntheticDataGenerator xlsx|csv|jsonl rows output [seed [runmodeRatio [sheet...]]]");
+            System.exit(2);
+        }
+        long rows = Long.parseLong(args[1]);
+        File output = new File(args[2]);
+        long seed = args.length > 3 ? Long.parseLong(args[3]) : 1;
+        double runmodeRatio = args.length > 4 ? Double.parseDouble(args[4]) : 0.9;
+        List<String> sheetNames = args.length > 5 ? Arrays.asList(args).subList(5, args.length)
+                : Arrays.asList("AddCustomerTest", "OpenAccountTest");
+
+        ExcelReader samples = new ExcelReader(System.getProperty("user.dir") + "/src/test/resources/excel/testdata.xlsx", true);
+        List<SyntheticDataGenerator> sheets = new ArrayList<>();
+        for (String sheetName : sheetNames) {
+            SheetSnapshot sample = samples.getSnapshot(sheetName);
+            if (sample == null)
+                throw new IllegalArgumentException("testdata.xlsx has no sheet " + sheetName);
+            sheets.add(new SyntheticDataGenerator(sample, seed, runmodeRatio));
+        }
+
+        long start = System.nanoTime();
+        try (RowSink sink = sink(args[0], output)) {
+            generate(sheets, rows, sink);
+        }
+        System.out.println("SyntheticDataGenerator: " + rows + " rows x " + sheets.size() + " sheets to " + output
+                + " in " + (System.nanoTime() - start) / 1_000_000 + " ms");
+    }
+
+    private static RowSink sink(String format, File output) {
+        switch (format.toLowerCase(Locale.ROOT)) {
+            case "xlsx":
+                return xlsx(output);
+            case "csv":
+                return csv(output);
+            case "jsonl":
+                return jsonLines(output);
+            default:
+                throw new IllegalArgumentException("Unknown format '" + format + "', expected xlsx, csv or jsonl");
+        }
+    }
+
+    private static String[] samples(SheetSnapshot sample, int colNum) {
+        Set<String> values = new LinkedHashSet<>();
+        for (int r = 2; r <= sample.getRowCount(); r++) {
+            String value = sample.getCellData(r, colNum);
+            if (!value.isEmpty())
+                values.add(value);
+        }
+        return values.toArray(new String[0]);
+    }
+
+    private static ColumnGenerator generator(String name, String[] samples, double runmodeRatio) {
+        switch (name.toLowerCase(Locale.ROOT)) {
+            case "firstname":
+                return pick(union(FIRST_NAMES, samples));
+            case "lastname":
+                return pick(union(LAST_NAMES, samples));
+            case "customer":
+                return pick(union(CUSTOMERS, samples));
+            case "postcode":
+                return shape(samples.length == 0 ? new String[] { DEFAULT_POSTCODE } : samples);
+            case "currency":
+                return pick(union(CURRENCIES, samples));
+            case "runmode":
+                return (rowNum, random) -> (random >>> 11) * 0x1p-53 < runmodeRatio ? "Y" : "N";
+            default:
+                if (samples.length == 0)
+                    return (rowNum, random) -> name + rowNum;
+                return pick(samples);
+        }
+    }
+
+    private static ColumnGenerator pick(String[] values) {
+        return (rowNum, random) -> values[index(random, values.length)];
+    }
+
+    // upper-case letters, lower-case letters and digits replaced by random ones, anything else kept
+    private static ColumnGenerator shape(String[] samples) {
+        return (rowNum, random) -> {
+            String sample = samples[index(random, samples.length)];
+            char[] chars = sample.toCharArray();
+            long bits = random;
+            for (int i = 0; i < chars.length; i++) {
+                bits = mix(bits + i);
+                char ch = chars[i];
+                if (ch >= 'A' && ch <= 'Z')
+                    chars[i] = (char) ('A' + index(bits, 26));
+                else if (ch >= 'a' && ch <= 'z')
+                    chars[i] = (char) ('a' + index(bits, 26));
+                else if (ch >= '0' && ch <= '9')
+                    chars[i] = (char) ('0' + index(bits, 10));
+            }
+            return new String(chars);
+        };
+    }
+
+    private static String[] union(String[] builtIn, String[] samples) {
+        Set<String> values = new LinkedHashSet<>(Arrays.asList(builtIn));
+        values.addAll(Arrays.asList(samples));
+        return values.toArray(new String[0]);
+    }
+
+    private static int index(long random, int bound) {
+        return (int) ((random >>> 1) % bound);
+    }
+
+    // SplitMix64 finaliser
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    private static final class XlsxSink implements RowSink {
+
+        private final File file;
+        private final SXSSFWorkbook workbook = new SXSSFWorkbook(100);
+        private Sheet sheet;
+        private int rowIndex;
+
+        XlsxSink(File file) {
+            this.file = file;
+        }
+
+        @Override
+        public void startSheet(String sheetName, String[] header) {
+            sheet = workbook.createSheet(sheetName);
+            rowIndex = 0;
+            row(header);
+        }
+
+        @Override
+        public void row(String[] cells) {
+            if (rowIndex > 1_048_575)
+                throw new IllegalStateException("Sheet " + sheet.getSheetName() + " is full; xlsx sheets hold 1048575 data rows");
+            Row row = sheet.createRow(rowIndex++);
+            for (int c = 0; c < cells.length; c++)
+                row.createCell(c).setCellValue(cells[c]);
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                if (file.getAbsoluteFile().getParentFile() != null)
+                    file.getAbsoluteFile().getParentFile().mkdirs();
+                try (FileOutputStream out = new FileOutputStream(file)) {
+                    workbook.write(out);
+                }
+            } finally {
+                workbook.dispose();
+                workbook.close();
+            }
+        }
+    }
+
+    // one file per sheet, written through a reused line buffer
+    private abstract static class FileSink implements RowSink {
+
+        private final File dir;
+        private final String extension;
+        protected final StringBuilder line = new StringBuilder(256);
+        private Writer writer;
+
+        FileSink(File dir, String extension) {
+            this.dir = dir;
+            this.extension = extension;
+        }
+
+        @Override
+        public void startSheet(String sheetName, String[] header) throws IOException {
+            close();
+            dir.mkdirs();
+            writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(new File(dir, sheetName + extension)),
+                    StandardCharsets.UTF_8), 1 << 16);
+            start(header);
+        }
+
+        @Override
+        public void row(String[] cells) throws IOException {
+            line.setLength(0);
+            append(cells);
+            writeLine();
+        }
+
+        protected abstract void start(String[] header) throws IOException;
+
+        protected abstract void append(String[] cells);
+
+        protected void writeLine() throws IOException {
+            line.append('\n');
+            writer.append(line);
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (writer != null)
+                writer.close();
+            writer = null;
+        }
+    }
+
+    private static final class CsvSink extends FileSink {
+
+        CsvSink(File dir) {
+            super(dir, ".csv");
+        }
+
+        @Override
+        protected void start(String[] header) throws IOException {
+            line.setLength(0);
+            append(header);
+            writeLine();
+        }
+
+        @Override
+        protected void append(String[] cells) {
+            for (int c = 0; c < cells.length; c++) {
+                if (c > 0)
+                    line.append(',');
+                String value = cells[c];
+                boolean quote = false;
+                for (int i = 0; i < value.length() && !quote; i++) {
+                    char ch = value.charAt(i);
+                    quote = ch == ',' || ch == '"' || ch == '\n' || ch == '\r';
+                }
+                if (!quote) {
+                    line.append(value);
+                    continue;
+                }
+                line.append('"');
+                for (int i = 0; i < value.length(); i++) {
+                    char ch = value.charAt(i);
+                    if (ch == '"')
+                        line.append('"');
+                    line.append(ch);
+                }
+                line.append('"');
+            }
+        }
+    }
+
+    private static final class JsonLinesSink extends FileSink {
+
+        private String[] keys;
+
+        JsonLinesSink(File dir) {
+            super(dir, ".jsonl");
+        }
+
+        @Override
+        protected void start(String[] header) {
+            // the quoted keys are the same on every line
+            keys = new String[header.length];
+            for (int c = 0; c < header.length; c++) {
+                line.setLength(0);
+                string(header[c]);
+                keys[c] = line.append(':').toString();
+            }
+        }
+
+        @Override
+        protected void append(String[] cells) {
+            line.append('{');
+            for (int c = 0; c < cells.length; c++) {
+                if (c > 0)
+                    line.append(',');
+                line.append(keys[c]);
+                string(cells[c]);
+            }
+            line.append('}');
+        }
+
+        private void string(String value) {
+            line.append('"');
+            for (int i = 0; i < value.length(); i++) {
+                char ch = value.charAt(i);
+                if (ch == '"' || ch == '\\')
+                    line.append('\\').append(ch);
+                else if (ch == '\n')
+                    line.append("\\n");
+                else if (ch == '\r')
+                    line.append("\\r");
+                else if (ch == '\t')
+                    line.append("\\t");
+                else if (ch < 0x20)
+                    line.append(String.format("\\u%04x", (int) ch));
+                else
+                    line.append(ch);
+            }
+            line.append('"');
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.w2a.utilities;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.function.Consumer;
+
+/**
+ * Where the data providers in TestUtil get their rows from. A "sheet" is whatever the backend
+ * groups rows by (an Excel sheet, a CSV or JSON-lines file); the data providers ask for the sheet
+ * named after the test method. Rows are DataRow maps without the header row, in source order.
+ *
+ * Implementations must be safe to call from several data provider threads at once.
+ * Which backend serves a sheet is decided by {@link TestDataSources#forSheet(String)}.
+ */
+public interface TestDataSource {
+
+    /**
+     * @return a short name for logs, e.g. "excel"
+     */
+    String getName();
+
+    /**
+     * @param sheetName Sheet name (case-insensitive where the backend allows it)
+     * @return the data rows, read lazily where the backend allows it, or null if there is no such sheet
+     * @throws IOException if the sheet cannot be opened
+     */
+    Iterator<DataRow> rows(String sheetName) throws IOException;
+
+    /**
+     * Pushes every data row to the handler on the calling thread. Backends with a push parser
+     * (SAX for Excel) override this to avoid materialising the sheet. The rows are closed even when
+     * the handler throws, which releases a JDBC cursor and its connection.
+     * @return false if there is no such sheet
+     * @throws IOException if the sheet cannot be read
+     */
+    default boolean stream(String sheetName, Consumer<DataRow> handler) throws IOException {
+        Iterator<DataRow> rows = rows(sheetName);
+        if (rows == null)
+            return false;
+        try {
+            while (rows.hasNext())
+                handler.accept(rows.next());
+        } finally {
+            if (rows instanceof Closeable)
+                ((Closeable) rows).close();
+        }
+        return true;
+    }
+}
@@ -0,0 +1,96 @@
+package com.w2a.utilities;
+
+import java.io.File;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.w2a.base.TestBase;
+
+/**
+ * Picks the TestDataSource for a sheet from Config.properties:
+ * <pre>
+ * testdata.source=excel              # default backend: excel, csv, jsonl or jdbc
+ * testdata.source.AddCustomerTest=csv  # per-sheet override
+ * testdata.dir=src/test/resources/testdata  # where csv/jsonl files live, relative to user.dir
+ * testdata.jdbc.url=...               # jdbc backend; defaults to TestConfig.mysqlurl and its credentials
+ * testdata.jdbc.poolSize=2, testdata.jdbc.fetchSize=500, testdata.jdbc.query.&lt;sheet&gt;=SELECT ...
+ * </pre>
+ * Backends are created once and shared by all data provider threads; {@link #closeAll()} releases
+ * what they hold (database connections).
+ */
+public final class TestDataSources {
+
+    private static final Map<String, TestDataSource> sources = new ConcurrentHashMap<>();
+    private static volatile ConnectionPool pool;
+
+    private TestDataSources() {
+    }
+
+    /**
+     * @param sheetName Sheet the data provider reads (the test method name)
+     * @return the configured backend for that sheet
+     * @throws IllegalArgumentException for an unknown backend name
+     */
+    public static TestDataSource forSheet(String sheetName) {
+        String name = TestBase.config.getProperty("testdata.source." + sheetName,
+                TestBase.config.getProperty("testdata.source", "excel"));
+        return byName(name);
+    }
+
+    /**
+     * @param name excel, csv, jsonl or jdbc (case-insensitive)
+     * @throws IllegalArgumentException for an unknown backend name
+     */
+    public static TestDataSource byName(String name) {
+        String key = name.trim().toLowerCase(Locale.ROOT);
+        return sources.computeIfAbsent(key, TestDataSources::create);
+    }
+
+    private static TestDataSource create(String name) {
+        switch (name) {
+            case "excel":
+                return new ExcelDataSource(TestBase.excel);
+            case "csv":
+                return new CsvDataSource(dataDir());
+            case "jsonl":
+                return new JsonLinesDataSource(dataDir());
+            case "jdbc":
+                return createJdbc();
+            default:
+                throw new IllegalArgumentException("Unknown testdata.source '" + name + "', expected excel, csv, jsonl or jdbc");
+        }
+    }
+
+    private static TestDataSource createJdbc() {
+        Properties config = TestBase.config;
+        String url = config.getProperty("testdata.jdbc.url");
+        String user = config.getProperty("testdata.jdbc.user");
+        String password = config.getProperty("testdata.jdbc.password");
+        if (url == null) {
+            url = TestConfig.mysqlurl;
+            user = TestConfig.mysqluserName;
+            password = TestConfig.mysqlpassword;
+        }
+        pool = new ConnectionPool(url, user, password,
+                Integer.parseInt(config.getProperty("testdata.jdbc.poolSize", "2")),
+                Long.parseLong(config.getProperty("testdata.jdbc.borrowTimeoutSeconds", "30")) * 1000);
+        return new JdbcDataSource(pool, config, Integer.parseInt(config.getProperty("testdata.jdbc.fetchSize", "500")));
+    }
+
+    /**
+     * Closes the database connections of the jdbc backend, if it was used
+     */
+    public static void closeAll() {
+        ConnectionPool current = pool;
+        if (current != null)
+            current.close();
+        sources.clear();
+    }
+
+    private static File dataDir() {
+        File dir = new File(TestBase.config.getProperty("testdata.dir", "src/test/resources/testdata"));
+        return dir.isAbsolute() ? dir : new File(System.getProperty("user.dir"), dir.getPath());
+    }
+}
@@ -0,0 +1,181 @@
+package com.w2a.utilities;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.NoSuchElementException;
+
+/**
+ * Splits the suite across several JVMs (CI agents) that run the same command with different
+ * system properties:
+ * <pre>
+ * -Dshard.index=0 -Dshard.count=3      # this JVM is shard 0 of 3 (0-based); count 1 disables sharding
+ * -Dshard.strategy=hash|duration       # hash: stable hash of the row; duration: LPT over row-durations history
+ * -Dshard.by=rows|methods              # rows: every method runs a slice of its rows; methods: whole methods
+ * </pre>
+ * Every shard computes the same assignment independently. For the duration strategy all agents must
+ * read the same history, e.g. -Drow.durations.file pointing at a file restored from a shared cache.
+ * What each shard ran is written to target/shards by ShardManifest.
+ */
+public final class TestShards {
+
+    private static final TestShards CURRENT = fromSystemProperties();
+
+    private final int index;
+    private final int count;
+    private final boolean byDuration;
+    private final boolean byMethods;
+
+    TestShards(int index, int count, boolean byDuration, boolean byMethods) {
+        if (count < 1 || index < 0 || index >= count)
+            throw new IllegalArgumentException("shard.index must be in [0, shard.count), got " + index + " of " + count);
+        this.index = index;
+        this.count = count;
+        this.byDuration = byDuration;
+        this.byMethods = byMethods;
+    }
+
+    private static TestShards fromSystemProperties() {
+        String strategy = System.getProperty("shard.strategy", "hash").trim().toLowerCase(Locale.ROOT);
+        String by = System.getProperty("shard.by", "rows").trim().toLowerCase(Locale.ROOT);
+        if (!strategy.equals("hash") && !strategy.equals("duration"))
+            throw new IllegalArgumentException("shard.strategy must be hash or duration, got " + strategy);
+        if (!by.equals("rows") && !by.equals("methods"))
+            throw new IllegalArgumentException("shard.by must be rows or methods, got " + by);
+        return new TestShards(Integer.getInteger("shard.index", 0), Integer.getInteger("shard.count", 1),
+                strategy.equals("duration"), by.equals("methods"));
+    }
+
+    public static TestShards current() {
+        return CURRENT;
+    }
+
+    public int getIndex() {
+        return index;
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    public String getStrategy() {
+        return byDuration ? "duration" : "hash";
+    }
+
+    public boolean isEnabled() {
+        return count > 1;
+    }
+
+    public boolean isByMethods() {
+        return byMethods;
+    }
+
+    /**
+     * @return this shard's slice of a method's data provider rows (all rows if not sharding by rows)
+     */
+    public Object[][] select(String methodName, Object[][] rows) {
+        if (!isEnabled() || byMethods)
+            return rows;
+        int[] assignment = byDuration ? RowShardPlanner.assign(methodName, rows, count) : null;
+        List<Object[]> mine = new ArrayList<>();
+        for (int i = 0; i < rows.length; i++) {
+            String key = RowShardPlanner.rowKey(methodName, rows[i]);
+            int shard = assignment != null ? assignment[i] : shardOf(key);
+            ShardManifest.row(methodName, key, shard == index);
+            if (shard == index)
+                mine.add(rows[i]);
+        }
+        return mine.toArray(new Object[mine.size()][]);
+    }
+
+    /**
+     * Lazy variant of {@link #select}: the hash strategy filters while streaming; the duration
+     * strategy needs all rows to balance them, so it reads the iterator to the end first.
+     */
+    public Iterator<Object[]> select(String methodName, Iterator<Object[]> rows) {
+        if (!isEnabled() || byMethods)
+            return rows;
+        if (byDuration) {
+            List<Object[]> all = new ArrayList<>();
+            rows.forEachRemaining(all::add);
+            return Arrays.asList(select(methodName, all.toArray(new Object[all.size()][]))).iterator();
+        }
+        return new Iterator<Object[]>() {
+            private Object[] next;
+
+            @Override
+            public boolean hasNext() {
+                while (next == null && rows.hasNext()) {
+                    Object[] row = rows.next();
+                    String key = RowShardPlanner.rowKey(methodName, row);
+                    boolean mine = shardOf(key) == index;
+                    ShardManifest.row(methodName, key, mine);
+                    if (mine)
+                        next = row;
+                }
+                return next != null;
+            }
+
+            @Override
+            public Object[] next() {
+                if (!hasNext())
+                    throw new NoSuchElementException();
+                Object[] row = next;
+                next = null;
+                return row;
+            }
+        };
+    }
+
+    /**
+     * @param methods Qualified names (class#method) of all test methods, in the same order on every shard
+     * @return for each method whether this shard runs it (all true unless sharding by methods)
+     */
+    public boolean[] selectMethods(List<String> methods) {
+        boolean[] mine = new boolean[methods.size()];
+        if (!isEnabled() || !byMethods) {
+            Arrays.fill(mine, true);
+            return mine;
+        }
+        if (!byDuration) {
+            for (int i = 0; i < mine.length; i++)
+                mine[i] = shardOf(methods.get(i)) == index;
+            return mine;
+        }
+        // LPT over the summed history of each method; ties go by name so all shards agree
+        Integer[] order = new Integer[methods.size()];
+        long[] cost = new long[methods.size()];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+            String name = methods.get(i);
+            cost[i] = Math.max(RowDurations.methodEstimate(name.substring(name.indexOf('#') + 1)), 1);
+        }
+        Arrays.sort(order, (a, b) -> cost[a] != cost[b] ? Long.compare(cost[b], cost[a]) : methods.get(a).compareTo(methods.get(b)));
+        long[] load = new long[count];
+        for (int i : order) {
+            int target = 0;
+            for (int s = 1; s < count; s++)
+                if (load[s] < load[target])
+                    target = s;
+            load[target] += cost[i];
+            mine[i] = target == index;
+        }
+        return mine;
+    }
+
+    /**
+     * @return the shard that owns a key under the hash strategy; identical on every JVM and platform
+     */
+    public int shardOf(String key) {
+        // 64-bit FNV-1a over UTF-8, so the result does not depend on String.hashCode or the default charset
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : key.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b & 0xff;
+            hash *= 0x100000001b3L;
+        }
+        return (int) Math.floorMod(hash, (long) count);
+    }
+}
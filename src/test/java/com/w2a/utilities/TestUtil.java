@@ -1,8 +1,24 @@
 package com.w2a.utilities;//package com.w2a.utilities;
 
+import java.io.IOException;
 import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Hashtable;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 
+import org.openqa.selenium.By;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.support.ui.Select;
+import org.testng.ITestContext;
 import org.testng.annotations.DataProvider;
 
 import com.w2a.base.TestBase;
@@ -22,53 +38,317 @@ public class TestUtil extends TestBase {
             }
         }*/
 
-		String sheetName = m.getName();
-		int rows = excel.getRowCount(sheetName);
-		int cols = excel.getColumnCount(sheetName);
+		return adapt(m, TestShards.current().select(m.getName(), getData(TestDataSources.forSheet(m.getName()), m.getName())));
 
-		Object[][] data = new Object[rows - 1][1];
+	}
 
-		Hashtable<String,String> table = null;
+	public static Object[][] getData(ExcelReader excel, String sheetName) {
 
-		for (int rowNum = 2; rowNum <= rows; rowNum++) { // 2
+		return getData(new ExcelDataSource(excel), sheetName);
 
-			table = new Hashtable<String,String>();
+	}
 
-			for (int colNum = 0; colNum < cols; colNum++) {
+	public static Object[][] getData(TestDataSource source, String sheetName) {
 
-				// data[0][0]
-				table.put(excel.getCellData(sheetName, 1, colNum), excel.getCellData(sheetName, rowNum, colNum));
-				data[rowNum - 2][0] = table;
-			}
+		// the Excel backend reads the immutable snapshot, so parallel data providers never share ExcelReader
+		// cursors; every row shares the sheet's HeaderIndex and only holds its own values
+		Iterator<DataRow> rows;
+		try {
+			rows = source.rows(sheetName);
+		} catch (IOException e) {
+			throw new IllegalStateException("Cannot read test data " + sheetName + " from " + source.getName(), e);
+		}
+
+		List<Object[]> data = new ArrayList<Object[]>();
+		int filtered = 0;
+
+		while (rows != null && rows.hasNext()) {
+
+			// rows with runmode N never become invocations, so they never start a browser
+			DataRow row = rows.next();
+			if (RunmodeIndex.isRowRunnable(row))
+				data.add(new Object[] { row });
+			else
+				filtered++;
 
 		}
 
+		if (filtered > 0)
+			logInfo(sheetName + ": " + filtered + " rows with runmode N filtered out");
+		return data.toArray(new Object[data.size()][]);
+
+	}
+
+	// rows are DataRow maps; a test that still declares a Hashtable parameter gets a copy
+	private static Object[][] adapt(Method m, Object[][] data) {
+		if (!needsHashtable(m))
+			return data;
+		for (Object[] row : data)
+			adapt(row);
 		return data;
+	}
 
+	private static Iterator<Object[]> adapt(Method m, Iterator<Object[]> rows) {
+		if (!needsHashtable(m))
+			return rows;
+		return new Iterator<Object[]>() {
+			public boolean hasNext() {
+				return rows.hasNext();
+			}
+
+			public Object[] next() {
+				return adapt(rows.next());
+			}
+		};
 	}
 
+	private static boolean needsHashtable(Method m) {
+		Class<?>[] types = m.getParameterTypes();
+		return types.length > 0 && !types[0].isAssignableFrom(DataRow.class) && types[0].isAssignableFrom(Hashtable.class);
+	}
 
-	public static boolean isTestRunnable(String testName, ExcelReader excel){
+	private static Object[] adapt(Object[] row) {
+		if (row.length > 0 && row[0] instanceof DataRow)
+			row[0] = ((DataRow) row[0]).toHashtable();
+		return row;
+	}
+
+
+	// same rows as "dp", but each row is built only when TestNG asks for the next invocation;
+	// with dataprovider.prefetch > 0 a background thread streams the sheet into a queue of that size
+	@DataProvider(name="dpLazy")
+	public Iterator<Object[]> getDataLazy(Method m) {
+
+		int prefetch = Integer.parseInt(config.getProperty("dataprovider.prefetch", "0"));
+		long timeoutMillis = TimeUnit.SECONDS.toMillis(Long.parseLong(config.getProperty("dataprovider.prefetch.timeoutSeconds", "600")));
+		return adapt(m, TestShards.current().select(m.getName(),
+				getDataLazy(TestDataSources.forSheet(m.getName()), m.getName(), prefetch, timeoutMillis)));
+
+	}
 
-		String sheetName="test_suite";
-		int rows = excel.getRowCount(sheetName);
+	public static Iterator<Object[]> getDataLazy(ExcelReader excel, String sheetName, int prefetch) {
 
+		return getDataLazy(new ExcelDataSource(excel), sheetName, prefetch);
+
+	}
+
+	public static Iterator<Object[]> getDataLazy(TestDataSource source, String sheetName, int prefetch) {
+
+		return getDataLazy(source, sheetName, prefetch, SheetRowIterator.DEFAULT_PUT_TIMEOUT_MILLIS);
+
+	}
+
+	// a prefetch producer gives up (and releases its source) once no row was taken for timeoutMillis;
+	// CustomListeners cancels the ones still running when the test context finishes
+	public static Iterator<Object[]> getDataLazy(TestDataSource source, String sheetName, int prefetch, long timeoutMillis) {
+
+		if (prefetch > 0)
+			return SheetRowIterator.prefetching(source, sheetName, prefetch, timeoutMillis);
+		try {
+			return SheetRowIterator.fromRows(source.rows(sheetName));
+		} catch (IOException e) {
+			throw new IllegalStateException("Cannot read test data " + sheetName + " from " + source.getName(), e);
+		}
+
+	}
 
-		for(int rNum=2; rNum<=rows; rNum++){
 
-			String testCase = excel.getCellData(sheetName, "TCID", rNum);
+	// rows run concurrently on the suite's data-provider-thread-count pool, each with its own driver
+	// (TestBase @BeforeMethod); with dataprovider.sharding=duration the rows are fed longest-first
+	// from target/row-durations.properties so the threads finish together
+	@DataProvider(name="dpParallel", parallel=true)
+	public Object[][] getDataParallel(Method m, ITestContext context) {
 
-			if(testCase.equalsIgnoreCase(testName)){
+		return plan(m, context, adapt(m, TestShards.current().select(m.getName(), getData(TestDataSources.forSheet(m.getName()), m.getName()))));
 
-				String runmode = excel.getCellData(sheetName, "Runmode", rNum);
+	}
+
+	private static Object[][] plan(Method m, ITestContext context, Object[][] data) {
+
+		if (!"duration".equalsIgnoreCase(config.getProperty("dataprovider.sharding", "duration")))
+			return data;
+
+		int threads = context.getSuite().getXmlSuite().getDataProviderThreadCount();
+		RowShardPlanner.Plan plan = RowShardPlanner.plan(m.getName(), data, threads);
+		logInfo(m.getName() + ": " + data.length + " rows on " + threads + " threads, expected makespan "
+				+ plan.makespanMillis() + " ms of " + plan.serialMillis + " ms serial");
+		return plan.rows;
+
+	}
+
+
+	// rows as the generated class the test method takes, e.g. AddCustomerTestRow (see SheetRecordGenerator),
+	// filled straight from the columns of the class's sheet; runs in parallel like dpParallel
+	@DataProvider(name="dpTyped", parallel=true)
+	public Object[][] getDataTyped(Method m, ITestContext context) {
+
+		Class<? extends SheetRecord> type = recordType(m);
+		return plan(m, context, TestShards.current().select(m.getName(), getData(TestDataSources.forSheet(SheetRecords.sheetOf(type)), type)));
+
+	}
 
-				if(runmode.equalsIgnoreCase("Y"))
-					return true;
-				else
-					return false;
+	public static Object[][] getData(TestDataSource source, Class<? extends SheetRecord> type) {
+
+		String sheetName = SheetRecords.sheetOf(type);
+		List<? extends SheetRecord> rows;
+		try {
+			rows = SheetRecords.read(type, source);
+		} catch (IOException e) {
+			throw new IllegalStateException("Cannot read test data " + sheetName + " from " + source.getName(), e);
+		}
+
+		List<Object[]> data = new ArrayList<Object[]>();
+		int filtered = 0;
+		for (SheetRecord row : rows == null ? Collections.<SheetRecord>emptyList() : rows) {
+			if (row.isRunnable())
+				data.add(new Object[] { row });
+			else
+				filtered++;
+		}
+
+		if (filtered > 0)
+			logInfo(sheetName + ": " + filtered + " rows with runmode N filtered out");
+		return data.toArray(new Object[data.size()][]);
+
+	}
+
+	private static Class<? extends SheetRecord> recordType(Method m) {
+		Class<?>[] types = m.getParameterTypes();
+		if (types.length == 0 || !SheetRecord.class.isAssignableFrom(types[0]))
+			throw new IllegalArgumentException("dpTyped needs a generated row class as the first parameter of " + m.getName());
+		return types[0].asSubclass(SheetRecord.class);
+	}
+
+
+	// every column of the sheet named after the method except runmode is a dimension, and its distinct
+	// non-blank cells in rows with runmode Y are the values; rows are the covering set at the configured
+	// strength (see combinations())
+	@DataProvider(name="dpCombinations")
+	public Object[][] getCombinations(Method m) {
+
+		Combinations combinations = getCombinations(TestDataSources.forSheet(m.getName()), m.getName(), combinationStrength(m.getName()));
+		HeaderIndex header = new HeaderIndex(combinations.getNames());
+		List<Object[]> data = new ArrayList<Object[]>();
+		for (String[] row : combinations.getRows())
+			data.add(new Object[] { new DataRow(header, row) });
+		return adapt(m, TestShards.current().select(m.getName(), data.toArray(new Object[data.size()][])));
+
+	}
+
+	public static Combinations getCombinations(TestDataSource source, String sheetName, int strength) {
+
+		Map<String, Set<String>> dimensions = new LinkedHashMap<String, Set<String>>();
+		int[] filtered = new int[1];
+		try {
+			source.stream(sheetName, row -> {
+				// values of rows with runmode N must not come back as combinations; the column is
+				// matched ignoring case, as it is left out of the dimensions
+				for (Map.Entry<String, String> cell : row.entrySet()) {
+					if (cell.getKey().equalsIgnoreCase("runmode") && !cell.getValue().equalsIgnoreCase("Y")) {
+						filtered[0]++;
+						return;
+					}
+				}
+				for (Map.Entry<String, String> cell : row.entrySet()) {
+					if (cell.getKey().equalsIgnoreCase("runmode"))
+						continue;
+					Set<String> values = dimensions.computeIfAbsent(cell.getKey(), k -> new LinkedHashSet<String>());
+					if (!cell.getValue().isEmpty())
+						values.add(cell.getValue());
+				}
+			});
+		} catch (IOException e) {
+			throw new IllegalStateException("Cannot read test data " + sheetName + " from " + source.getName(), e);
+		}
+		if (filtered[0] > 0)
+			logInfo(sheetName + ": " + filtered[0] + " rows with runmode N left out of the combinations");
+		Map<String, List<String>> values = new LinkedHashMap<String, List<String>>();
+		for (Map.Entry<String, Set<String>> dimension : dimensions.entrySet())
+			values.put(dimension.getKey(), new ArrayList<String>(dimension.getValue()));
+		return combinations(sheetName, values, strength);
+
+	}
+
+	// the covering set of the dimensions at the strength from combinations.strength.<label>, else
+	// combinations.strength (1 = each value once, 2 = pairwise, ..., all = every combination); the
+	// achieved coverage is logged
+	public static Combinations combinations(String label, Map<String, ? extends List<String>> dimensions) {
+
+		return combinations(label, dimensions, combinationStrength(label));
+
+	}
+
+	private static Combinations combinations(String label, Map<String, ? extends List<String>> dimensions, int strength) {
+
+		Combinations combinations = Combinations.of(dimensions, strength, Long.parseLong(config.getProperty("combinations.seed", "1")));
+		logInfo(label + ": " + combinations.getCoverage());
+		return combinations;
+
+	}
+
+	private static int combinationStrength(String label) {
+		String strength = config.getProperty("combinations.strength." + label, config.getProperty("combinations.strength", "2")).trim();
+		return strength.equalsIgnoreCase("all") ? 0 : Integer.parseInt(strength);
+	}
+
+
+	/**
+	 * For a data provider of a test that walks dropdown combinations: borrows one driver (a new one
+	 * without the pool), lets navigate bring it to the page, reads the options of each dropdown (blank
+	 * and "---" placeholders left out) and hands it back. The covering set of the options (see combinations()) is then cut into chunks of
+	 * combinations.chunkSize.&lt;method&gt;, else combinations.chunkSize (default 1), and every chunk
+	 * becomes its own invocation with its own driver and report entry. Returned from a data provider
+	 * with parallel=true, the chunks run on the suite's data-provider-thread-count.
+	 * @param dropdowns Dimension name to the locator of its select element, in column order
+	 * @return one row per chunk, holding a List of Map from dimension name to option
+	 */
+	public static Object[][] dropdownCombinations(Method m, Consumer<WebDriver> navigate, Map<String, By> dropdowns) {
+
+		Map<String, List<String>> options = new LinkedHashMap<String, List<String>>();
+		WebDriverPool pool = getDriverPool();
+		WebDriver driver = pool != null ? pool.borrow() : createDriver();
+		try {
+			navigate.accept(driver);
+			for (Map.Entry<String, By> dropdown : dropdowns.entrySet()) {
+				List<String> values = new ArrayList<String>();
+				for (WebElement option : new Select(driver.findElement(dropdown.getValue())).getOptions()) {
+					String text = option.getText().trim();
+					if (!text.isEmpty() && !text.contains("---"))
+						values.add(text);
+				}
+				options.put(dropdown.getKey(), values);
 			}
+		} finally {
+			if (pool != null)
+				pool.release(driver);
+			else
+				driver.quit();
 		}
-		return false;
+
+		return combinationChunks(m, options);
+
+	}
+
+	// the covering set of the options, cut into one data provider row per chunk
+	public static Object[][] combinationChunks(Method m, Map<String, ? extends List<String>> options) {
+
+		List<Map<String, String>> rows = combinations(m.getName(), options).getRowMaps();
+		int chunkSize = Math.max(1, Integer.parseInt(config.getProperty("combinations.chunkSize." + m.getName(),
+				config.getProperty("combinations.chunkSize", "1")).trim()));
+		List<Object[]> chunks = new ArrayList<Object[]>();
+		for (int from = 0; from < rows.size(); from += chunkSize)
+			chunks.add(new Object[] { new ArrayList<Map<String, String>>(rows.subList(from, Math.min(from + chunkSize, rows.size()))) });
+		logInfo(m.getName() + ": " + rows.size() + " combinations in " + chunks.size() + " invocations of up to " + chunkSize);
+		return TestShards.current().select(m.getName(), chunks.toArray(new Object[chunks.size()][]));
+
+	}
+
+
+	public static boolean isTestRunnable(String testName, ExcelReader excel){
+
+		// test_suite is indexed once per snapshot instead of being rescanned on every call
+		Boolean runmode = RunmodeIndex.of(excel).runmodeOf(testName);
+		return runmode != null && runmode;
 	}
 
 }
@@ -0,0 +1,322 @@
+package com.w2a.utilities;
+
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.NoAlertPresentException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+
+/**
+ * Bounded pool of browser sessions shared by test methods, on the lines of ConnectionPool. Sessions
+ * are started lazily up to maxSize, checked when borrowed and replaced if they died, and reset when
+ * released: open alert dismissed, cookies, localStorage and sessionStorage cleared, back on homeUrl.
+ * A session whose reset fails is quit instead of pooled. Callers must hand every borrowed driver back
+ * with {@link #release(WebDriver)}. {@link #prewarm(int)} starts sessions in the background ahead of
+ * the first borrowers, who then wait for one of those rather than launch their own.
+ */
+public class WebDriverPool implements AutoCloseable {
+
+    private static final long WAIT_SLICE_MILLIS = 100;
+    private static final String CLEAR_STORAGE = "try { window.localStorage.clear(); window.sessionStorage.clear(); } catch (e) {}";
+
+    /**
+     * Counters since the pool was created
+     */
+    public static final class Stats {
+        public final long hits;
+        public final long misses;
+        public final long waits;
+        public final long discarded;
+        public final long resets;
+        public final long resetMillis;
+        public final long maxResetMillis;
+        public final int open;
+        public final long prewarmed;
+        public final long prewarmFailures;
+        // launch time of the prewarmed sessions that were borrowed, and what borrowers waited for them
+        public final long prewarmLaunchMillis;
+        public final long prewarmWaitMillis;
+
+        Stats(long hits, long misses, long waits, long discarded, long resets, long resetMillis, long maxResetMillis, int open,
+                long prewarmed, long prewarmFailures, long prewarmLaunchMillis, long prewarmWaitMillis) {
+            this.hits = hits;
+            this.misses = misses;
+            this.waits = waits;
+            this.discarded = discarded;
+            this.resets = resets;
+            this.resetMillis = resetMillis;
+            this.maxResetMillis = maxResetMillis;
+            this.open = open;
+            this.prewarmed = prewarmed;
+            this.prewarmFailures = prewarmFailures;
+            this.prewarmLaunchMillis = prewarmLaunchMillis;
+            this.prewarmWaitMillis = prewarmWaitMillis;
+        }
+
+        /**
+         * @return launch time taken off the critical path by prewarm(): what the borrowers of prewarmed
+         *         sessions would have spent launching them, less what they waited for them
+         */
+        public long hiddenLaunchMillis() {
+            return Math.max(0, prewarmLaunchMillis - prewarmWaitMillis);
+        }
+
+        public double hitRate() {
+            return hits + misses == 0 ? 0 : hits * 100.0 / (hits + misses);
+        }
+
+        @Override
+        public String toString() {
+            return (hits + misses) + " borrows: " + hits + " hits, " + misses + " misses (" + Math.round(hitRate() * 10) / 10.0
+                    + "% reused), " + waits + " waited, " + discarded + " discarded; " + resets + " resets, "
+                    + (resets == 0 ? 0 : resetMillis / resets) + " ms avg, " + maxResetMillis + " ms max; " + open + " open"
+                    + (prewarmed + prewarmFailures == 0 ? "" : "; " + prewarmed + " prewarmed (" + prewarmFailures + " failed), "
+                            + prewarmLaunchMillis + " ms of launches used, " + prewarmWaitMillis + " ms waited, "
+                            + hiddenLaunchMillis() + " ms hidden");
+        }
+    }
+
+    private final Supplier<WebDriver> factory;
+    private final String homeUrl;
+    private final long borrowTimeoutMillis;
+    private final BlockingQueue<WebDriver> idle;
+    private final AtomicInteger open = new AtomicInteger();
+    private final int maxSize;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder waits = new LongAdder();
+    private final LongAdder discarded = new LongAdder();
+    private final LongAdder resets = new LongAdder();
+    private final LongAdder resetNanos = new LongAdder();
+    private final AtomicLong maxResetNanos = new AtomicLong();
+    private final AtomicInteger prewarming = new AtomicInteger();
+    private final LongAdder prewarmed = new LongAdder();
+    private final LongAdder prewarmFailures = new LongAdder();
+    private final LongAdder prewarmLaunchNanos = new LongAdder();
+    private final LongAdder prewarmWaitNanos = new LongAdder();
+    // prewarmed sessions not borrowed yet, with their launch time
+    private final Map<WebDriver, Long> unusedPrewarmed = new ConcurrentHashMap<>();
+    private volatile boolean closed;
+
+    /**
+     * @param factory Starts a new session, already on homeUrl
+     * @param homeUrl Page a released session is sent back to
+     * @param maxSize Maximum number of open sessions, e.g. the suite's thread count
+     * @param borrowTimeoutMillis How long borrow() waits for a free session before failing
+     */
+    public WebDriverPool(Supplier<WebDriver> factory, String homeUrl, int maxSize, long borrowTimeoutMillis) {
+        this.factory = factory;
+        this.homeUrl = homeUrl;
+        this.maxSize = Math.max(maxSize, 1);
+        this.borrowTimeoutMillis = borrowTimeoutMillis;
+        this.idle = new ArrayBlockingQueue<>(this.maxSize);
+    }
+
+    /**
+     * @return a live session on homeUrl; blocks while all maxSize sessions are in use
+     * @throws IllegalStateException if the pool is closed, no session could be started or none became free in time
+     */
+    public WebDriver borrow() {
+        if (closed)
+            throw new IllegalStateException("WebDriver pool is closed");
+        while (true) {
+            WebDriver driver = idle.poll();
+            if (driver == null && reserve()) {
+                misses.increment();
+                return open();
+            }
+            if (driver == null) {
+                waits.increment();
+                driver = await();
+                if (driver == null) {
+                    // a slot came free (failed prewarm, discarded session): launch one
+                    continue;
+                }
+            }
+            if (isAlive(driver)) {
+                hits.increment();
+                Long launchNanos = unusedPrewarmed.remove(driver);
+                if (launchNanos != null)
+                    prewarmLaunchNanos.add(launchNanos);
+                return driver;
+            }
+            unusedPrewarmed.remove(driver);
+            discard(driver);
+        }
+    }
+
+    /**
+     * Starts up to count sessions, as far as the pool has room, each on its own daemon thread, and
+     * returns at once; they join the idle sessions when ready. A failed launch only frees its slot,
+     * the borrower that takes it launches (and fails) itself.
+     * @return number of sessions being started
+     */
+    public int prewarm(int count) {
+        int started = 0;
+        while (started < count && !closed && reserve()) {
+            prewarming.incrementAndGet();
+            Thread launcher = new Thread(this::prewarmOne, "webdriver-prewarm-" + ++started);
+            launcher.setDaemon(true);
+            launcher.start();
+        }
+        return started;
+    }
+
+    /**
+     * Resets a borrowed session and makes it available again; it is quit instead if the reset
+     * failed or the pool was closed meanwhile
+     */
+    public void release(WebDriver driver) {
+        if (driver == null)
+            return;
+        if (closed || !reset(driver) || !idle.offer(driver))
+            discard(driver);
+    }
+
+    public Stats getStats() {
+        return new Stats(hits.sum(), misses.sum(), waits.sum(), discarded.sum(), resets.sum(),
+                TimeUnit.NANOSECONDS.toMillis(resetNanos.sum()), TimeUnit.NANOSECONDS.toMillis(maxResetNanos.get()), open.get(),
+                prewarmed.sum(), prewarmFailures.sum(), TimeUnit.NANOSECONDS.toMillis(prewarmLaunchNanos.sum()),
+                TimeUnit.NANOSECONDS.toMillis(prewarmWaitNanos.sum()));
+    }
+
+    /**
+     * @return number of sessions currently open (idle or borrowed)
+     */
+    public int openSessions() {
+        return open.get();
+    }
+
+    public boolean isClosed() {
+        return closed;
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        WebDriver driver;
+        while ((driver = idle.poll()) != null)
+            discard(driver);
+        unusedPrewarmed.clear();
+    }
+
+    private boolean reserve() {
+        while (true) {
+            int current = open.get();
+            if (current >= maxSize)
+                return false;
+            if (open.compareAndSet(current, current + 1))
+                return true;
+        }
+    }
+
+    // waits for an idle session; null once a slot came free to launch one instead
+    private WebDriver await() {
+        long start = System.nanoTime();
+        boolean forPrewarm = prewarming.get() > 0;
+        long deadline = start + TimeUnit.MILLISECONDS.toNanos(borrowTimeoutMillis);
+        try {
+            while (true) {
+                long left = deadline - System.nanoTime();
+                if (left <= 0)
+                    throw new IllegalStateException("No WebDriver free after " + borrowTimeoutMillis + " ms (pool size " + maxSize + ")");
+                WebDriver driver = idle.poll(Math.min(left, TimeUnit.MILLISECONDS.toNanos(WAIT_SLICE_MILLIS)), TimeUnit.NANOSECONDS);
+                if (driver != null)
+                    return driver;
+                if (closed)
+                    throw new IllegalStateException("WebDriver pool is closed");
+                if (open.get() < maxSize)
+                    return null;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a WebDriver", e);
+        } finally {
+            if (forPrewarm)
+                prewarmWaitNanos.add(System.nanoTime() - start);
+        }
+    }
+
+    private void prewarmOne() {
+        long start = System.nanoTime();
+        try {
+            WebDriver driver = open();
+            prewarmed.increment();
+            unusedPrewarmed.put(driver, System.nanoTime() - start);
+            if (closed || !idle.offer(driver)) {
+                unusedPrewarmed.remove(driver);
+                discard(driver);
+            }
+        } catch (RuntimeException e) {
+            prewarmFailures.increment();
+        } finally {
+            prewarming.decrementAndGet();
+        }
+    }
+
+    private WebDriver open() {
+        WebDriver driver;
+        try {
+            driver = factory.get();
+        } catch (RuntimeException e) {
+            open.decrementAndGet();
+            throw e;
+        }
+        if (driver == null) {
+            open.decrementAndGet();
+            throw new IllegalStateException("WebDriver factory returned no driver");
+        }
+        return driver;
+    }
+
+    private static boolean isAlive(WebDriver driver) {
+        try {
+            driver.getWindowHandle();
+            return true;
+        } catch (WebDriverException e) {
+            return false;
+        }
+    }
+
+    private boolean reset(WebDriver driver) {
+        long start = System.nanoTime();
+        try {
+            try {
+                driver.switchTo().alert().dismiss();
+            } catch (NoAlertPresentException e) {
+                // the usual case
+            }
+            driver.manage().deleteAllCookies();
+            if (driver instanceof JavascriptExecutor)
+                ((JavascriptExecutor) driver).executeScript(CLEAR_STORAGE);
+            driver.get(homeUrl);
+            return true;
+        } catch (WebDriverException e) {
+            return false;
+        } finally {
+            long nanos = System.nanoTime() - start;
+            resets.increment();
+            resetNanos.add(nanos);
+            maxResetNanos.accumulateAndGet(nanos, Math::max);
+        }
+    }
+
+    private void discard(WebDriver driver) {
+        open.decrementAndGet();
+        discarded.increment();
+        try {
+            driver.quit();
+        } catch (WebDriverException e) {
+            // already gone
+        }
+    }
+}